@@ -4,6 +4,7 @@ module org.dam2.adp.cinesphere {
     requires javafx.web;
 
     requires java.sql;
+    requires org.postgresql.jdbc;
     requires org.slf4j;
     requires org.apache.commons.csv;
     requires jbcrypt;
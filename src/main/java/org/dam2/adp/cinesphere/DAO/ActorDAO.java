@@ -5,6 +5,8 @@ import org.dam2.adp.cinesphere.model.Actor;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -16,6 +18,8 @@ public class ActorDAO {
     private static final String SQL_FIND_BY_ID = "SELECT idactor, nombreactor FROM actor WHERE idactor=?";
     private static final String SQL_FIND_ALL = "SELECT idactor, nombreactor FROM actor";
     private static final String SQL_FIND_BY_NAME = "SELECT idactor, nombreactor FROM actor WHERE nombreactor=?";
+    private static final String SQL_INSERT_LOTE = "INSERT INTO actor(nombreactor) VALUES %s RETURNING idactor, nombreactor";
+    private static final int TAMANO_LOTE = 500;
 
 
 
@@ -26,8 +30,8 @@ public class ActorDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Actor insert(Actor actor) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
             st.setString(1, actor.getNombreActor());
             st.executeUpdate();
             try (ResultSet keys = st.getGeneratedKeys()) {
@@ -36,9 +40,41 @@ public class ActorDAO {
                 }
             }
         }
+        CacheReferencias.actores().registrarAlConfirmar(List.of(actor));
         return actor;
     }
 
+    /**
+     * Inserta varios actores con sentencias INSERT de varias filas, en tramos de {@value #TAMANO_LOTE}.
+     * @param nombres los nombres de los actores a insertar.
+     * @return los actores insertados con su ID generado.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    public List<Actor> insertLote(Collection<String> nombres) throws SQLException {
+        List<Actor> insertados = new ArrayList<>(nombres.size());
+        if (nombres.isEmpty()) return insertados;
+
+        List<String> pendientes = new ArrayList<>(nombres);
+        try (Connection conn = Conexion.getInstance().getConnection()) {
+            for (int inicio = 0; inicio < pendientes.size(); inicio += TAMANO_LOTE) {
+                List<String> tramo = pendientes.subList(inicio, Math.min(inicio + TAMANO_LOTE, pendientes.size()));
+                String sql = Conexion.SIN_CACHE + SQL_INSERT_LOTE.formatted(String.join(",", Collections.nCopies(tramo.size(), "(?)")));
+                try (PreparedStatement st = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < tramo.size(); i++) {
+                        st.setString(i + 1, tramo.get(i));
+                    }
+                    try (ResultSet rs = st.executeQuery()) {
+                        while (rs.next()) {
+                            insertados.add(mapeoActor(rs));
+                        }
+                    }
+                }
+            }
+        }
+        CacheReferencias.actores().registrarAlConfirmar(insertados);
+        return insertados;
+    }
+
     /**
      * Busca un actor por su ID.
      * @param id el ID del actor a buscar.
@@ -46,8 +82,8 @@ public class ActorDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Actor findById(int id) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_ID)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_ID)) {
             st.setInt(1, id);
             try (ResultSet rs = st.executeQuery()) {
                 if (rs.next()) {
@@ -64,9 +100,9 @@ public class ActorDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public List<Actor> findAll() throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
         List<Actor> listaActores = new ArrayList<>();
-        try (Statement st = conn.createStatement();
+        try (Connection conn = Conexion.getInstance().getConnection();
+             Statement st = conn.createStatement();
              ResultSet rs = st.executeQuery(SQL_FIND_ALL)) {
             while (rs.next()) {
                 listaActores.add(mapeoActor(rs));
@@ -82,8 +118,8 @@ public class ActorDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Actor findByName(String name) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_NAME)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_NAME)) {
             st.setString(1, name);
             try (ResultSet rs = st.executeQuery()) {
                 if (rs.next()) {
@@ -0,0 +1,175 @@
+package org.dam2.adp.cinesphere.DAO;
+
+import org.dam2.adp.cinesphere.database.Conexion;
+import org.dam2.adp.cinesphere.model.Pelicula;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché de películas completas (con géneros, actores y directores), indexada por su ID.
+ * Evita repetir {@link PeliculaDAO#findByIdEager(int)} al volver al detalle de una película, y
+ * permite completar las relaciones de las películas de un listado sin consultarlas.
+ * <p>
+ * Guarda como mucho {@value #MAX_ENTRADAS} películas y expulsa la usada hace más tiempo. Cada
+ * entrada caduca a los {@value #TTL_MINUTOS} minutos, para recoger cambios hechos desde otro equipo
+ * en PostgreSQL. Los DAOs invalidan las películas que modifican, también al confirmar la transacción,
+ * para que una lectura hecha mientras tanto no deje en caché el estado anterior. Las películas se
+ * copian al guardarlas y al devolverlas, así que quien las recibe puede modificarlas.
+ */
+public final class CachePeliculas {
+
+    private static final int MAX_ENTRADAS = 500;
+    private static final long TTL_MINUTOS = 5;
+    private static final long TTL_NANOS = TimeUnit.MINUTES.toNanos(TTL_MINUTOS);
+
+    /**
+     * Película guardada y el instante en que caduca.
+     * @param pelicula la película.
+     * @param caduca el instante de caducidad, en nanosegundos de {@link System#nanoTime()}.
+     */
+    private record Entrada(Pelicula pelicula, long caduca) {
+    }
+
+    private static final Map<Integer, Entrada> peliculas = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Entrada> eldest) {
+            if (size() > MAX_ENTRADAS) {
+                expulsiones++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /** Se incrementa en cada invalidación, para no guardar películas leídas antes de ella. */
+    private static final AtomicLong generacion = new AtomicLong();
+
+    private static long aciertos;
+    private static long fallos;
+    private static long expulsiones;
+    private static long caducadas;
+
+    private CachePeliculas() {
+    }
+
+    /**
+     * Obtiene la generación actual, que debe leerse antes de consultar la película.
+     * @return la generación.
+     */
+    static long generacion() {
+        return generacion.get();
+    }
+
+    /**
+     * Obtiene una copia de una película guardada.
+     * @param idPelicula el ID de la película.
+     * @return la película, o null si no está en caché o ha caducado.
+     */
+    static synchronized Pelicula obtener(int idPelicula) {
+        Entrada entrada = peliculas.get(idPelicula);
+        if (entrada == null) {
+            fallos++;
+            return null;
+        }
+        if (System.nanoTime() - entrada.caduca() > 0) {
+            peliculas.remove(idPelicula);
+            caducadas++;
+            fallos++;
+            return null;
+        }
+        aciertos++;
+        return copiar(entrada.pelicula());
+    }
+
+    /**
+     * Guarda una película completa si no ha habido invalidaciones desde que se empezó a leer.
+     * @param pelicula la película con todas sus relaciones.
+     * @param generacionLeida la generación leída antes de consultar la película.
+     */
+    static synchronized void guardar(Pelicula pelicula, long generacionLeida) {
+        if (generacion.get() == generacionLeida) {
+            peliculas.put(pelicula.getIdPelicula(), new Entrada(copiar(pelicula), System.nanoTime() + TTL_NANOS));
+        }
+    }
+
+    /**
+     * Descarta las películas indicadas ahora y otra vez al confirmarse la transacción en curso.
+     * Se llama tras cualquier escritura que cambie una película o sus relaciones.
+     * @param idsPeliculas los IDs de las películas modificadas.
+     */
+    static void invalidarAlConfirmar(Collection<Integer> idsPeliculas) {
+        if (idsPeliculas.isEmpty()) return;
+        List<Integer> ids = List.copyOf(idsPeliculas);
+        invalidar(ids);
+        Conexion.getInstance().alConfirmar(() -> invalidar(ids));
+    }
+
+    /**
+     * Descarta las películas indicadas.
+     * @param idsPeliculas los IDs de las películas.
+     */
+    public static synchronized void invalidar(Collection<Integer> idsPeliculas) {
+        generacion.incrementAndGet();
+        peliculas.keySet().removeAll(idsPeliculas);
+    }
+
+    /**
+     * Descarta todas las películas. Se llama tras escrituras masivas que no pasan por los DAOs.
+     */
+    public static synchronized void invalidar() {
+        generacion.incrementAndGet();
+        peliculas.clear();
+    }
+
+    /**
+     * Describe el uso de la caché.
+     * @return el número de películas guardadas, aciertos, fallos, expulsiones y entradas caducadas.
+     */
+    public static synchronized String estadisticas() {
+        return "películas: " + peliculas.size() + "/" + MAX_ENTRADAS + ", aciertos: " + aciertos + ", fallos: " + fallos
+                + ", expulsiones: " + expulsiones + ", caducadas: " + caducadas;
+    }
+
+    /**
+     * @return el número de consultas resueltas desde la caché.
+     */
+    public static synchronized long getAciertos() {
+        return aciertos;
+    }
+
+    /**
+     * @return el número de consultas que no estaban en caché o habían caducado.
+     */
+    public static synchronized long getFallos() {
+        return fallos;
+    }
+
+    /**
+     * @return el número de películas expulsadas por superar el tamaño máximo.
+     */
+    public static synchronized long getExpulsiones() {
+        return expulsiones;
+    }
+
+    /**
+     * Copia una película con listas propias, para que las modificaciones de quien la recibe no
+     * alteren la guardada. Las entidades de las listas se comparten.
+     * @param p la película.
+     * @return la copia.
+     */
+    private static Pelicula copiar(Pelicula p) {
+        return new Pelicula(p.getIdPelicula(), p.getTituloPelicula(), p.getYearPelicula(), p.getRatingPelicula(),
+                p.getDuracionPelicula(), p.getClasificacion(), copiar(p.getDirectores()), copiar(p.getActores()),
+                copiar(p.getGeneros()), null);
+    }
+
+    private static <T> List<T> copiar(List<T> lista) {
+        return lista == null ? null : new ArrayList<>(lista);
+    }
+}
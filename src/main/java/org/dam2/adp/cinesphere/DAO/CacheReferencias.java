@@ -0,0 +1,315 @@
+package org.dam2.adp.cinesphere.DAO;
+
+import org.dam2.adp.cinesphere.database.Conexion;
+import org.dam2.adp.cinesphere.model.Actor;
+import org.dam2.adp.cinesphere.model.Clasificacion;
+import org.dam2.adp.cinesphere.model.Director;
+import org.dam2.adp.cinesphere.model.Genero;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caché de lectura de las tablas de referencia (géneros, clasificaciones, actores y directores),
+ * compartida por toda la aplicación. Cada tabla se guarda en dos mapas, nombre → entidad e
+ * ID → entidad, que se rellenan al consultarlos: lo que no está en caché se lee de la base de
+ * datos y se guarda.
+ * <p>
+ * Los DAOs registran las entidades que insertan cuando se confirma su transacción, de modo que
+ * una inserción que se deshace nunca deja en caché un ID inexistente. Por lo mismo, lo que se lee
+ * dentro de una transacción se guarda al confirmarla. Al cambiar de base de datos se llama a
+ * {@link #invalidar()}.
+ */
+public final class CacheReferencias {
+
+    private static final Logger logger = Logger.getLogger(CacheReferencias.class.getName());
+
+    private static final GeneroDAO generoDAO = new GeneroDAO();
+    private static final ClasificacionDAO clasificacionDAO = new ClasificacionDAO();
+    private static final ActorDAO actorDAO = new ActorDAO();
+    private static final DirectorDAO directorDAO = new DirectorDAO();
+
+    private static final Tabla<Genero> generos = new Tabla<>("géneros",
+            generoDAO::findAll, generoDAO::findByName, generoDAO::findById,
+            Genero::getNombreGenero, Genero::getIdGenero);
+
+    /** Las clasificaciones no tienen ID numérico: su nombre es la clave primaria. */
+    private static final Tabla<Clasificacion> clasificaciones = new Tabla<>("clasificaciones",
+            clasificacionDAO::findAll, clasificacionDAO::findById, null,
+            Clasificacion::getNombreClasificacion, null);
+
+    private static final Tabla<Actor> actores = new Tabla<>("actores",
+            actorDAO::findAll, actorDAO::findByName, actorDAO::findById,
+            Actor::getNombreActor, Actor::getIdActor);
+
+    private static final Tabla<Director> directores = new Tabla<>("directores",
+            directorDAO::findAll, directorDAO::findByName, directorDAO::findById,
+            Director::getNombreDirector, Director::getIdDirector);
+
+    private CacheReferencias() {
+    }
+
+    /**
+     * @return la caché de géneros.
+     */
+    public static Tabla<Genero> generos() {
+        return generos;
+    }
+
+    /**
+     * @return la caché de clasificaciones; se buscan por nombre, no tienen ID numérico.
+     */
+    public static Tabla<Clasificacion> clasificaciones() {
+        return clasificaciones;
+    }
+
+    /**
+     * @return la caché de actores.
+     */
+    public static Tabla<Actor> actores() {
+        return actores;
+    }
+
+    /**
+     * @return la caché de directores.
+     */
+    public static Tabla<Director> directores() {
+        return directores;
+    }
+
+    /**
+     * Carga de una vez los géneros y las clasificaciones, que son pocos y se consultan al abrir
+     * cualquier listado. Los actores y directores se cargan enteros solo cuando alguien pide
+     * la tabla completa; hasta entonces se guardan a medida que se buscan.
+     */
+    public static void precargar() {
+        try {
+            long inicio = System.currentTimeMillis();
+            int g = generos.todos().size();
+            int c = clasificaciones.todos().size();
+            logger.log(Level.INFO, "Caché de referencias precargada en " + (System.currentTimeMillis() - inicio)
+                    + " ms: " + g + " géneros, " + c + " clasificaciones.");
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "No se pudo precargar la caché de referencias", e);
+        }
+    }
+
+    /**
+     * Vacía todas las tablas. Se llama al conectar con otra base de datos.
+     */
+    public static void invalidar() {
+        generos.invalidar();
+        clasificaciones.invalidar();
+        actores.invalidar();
+        directores.invalidar();
+    }
+
+    /**
+     * Consulta a la base de datos que rellena la caché.
+     * @param <T> el tipo del parámetro.
+     * @param <R> el tipo del resultado.
+     */
+    @FunctionalInterface
+    interface Consulta<T, R> {
+        R ejecutar(T parametro) throws SQLException;
+    }
+
+    /**
+     * Carga completa de una tabla.
+     * @param <E> el tipo de entidad.
+     */
+    @FunctionalInterface
+    interface CargaCompleta<E> {
+        List<E> cargar() throws SQLException;
+    }
+
+    /**
+     * Caché de una tabla de referencia.
+     * @param <E> el tipo de entidad.
+     */
+    public static final class Tabla<E> {
+
+        private final String descripcion;
+        private final CargaCompleta<E> cargaCompleta;
+        private final Consulta<String, E> consultaPorNombre;
+        private final Consulta<Integer, E> consultaPorId;
+        private final Function<E, String> nombre;
+        private final ToIntFunction<E> id;
+
+        private final Map<String, E> porNombre = new ConcurrentHashMap<>();
+        private final Map<Integer, E> porId = new ConcurrentHashMap<>();
+        /** La tabla completa en el orden de la base de datos, o null si no se ha cargado entera. */
+        private volatile List<E> completa;
+
+        /** Se incrementa en cada cambio, para no guardar lecturas empezadas antes de él. */
+        private final AtomicLong generacion = new AtomicLong();
+        private final LongAdder aciertos = new LongAdder();
+        private final LongAdder fallos = new LongAdder();
+
+        Tabla(String descripcion, CargaCompleta<E> cargaCompleta, Consulta<String, E> consultaPorNombre,
+              Consulta<Integer, E> consultaPorId, Function<E, String> nombre, ToIntFunction<E> id) {
+            this.descripcion = descripcion;
+            this.cargaCompleta = cargaCompleta;
+            this.consultaPorNombre = consultaPorNombre;
+            this.consultaPorId = consultaPorId;
+            this.nombre = nombre;
+            this.id = id;
+        }
+
+        /**
+         * Obtiene todas las entidades de la tabla, cargándola entera si todavía no lo estaba.
+         * @return una lista inmutable con las entidades en el orden de la base de datos.
+         * @throws SQLException si ocurre un error al acceder a la base de datos.
+         */
+        public List<E> todos() throws SQLException {
+            List<E> actual = completa;
+            if (actual != null) {
+                aciertos.increment();
+                return actual;
+            }
+            fallos.increment();
+            long leida = generacion.get();
+            List<E> leidas = cargaCompleta.cargar();
+            // Se reutilizan las instancias ya indexadas, para que todos() y porNombre() devuelvan las mismas.
+            List<E> canonicas = new ArrayList<>(leidas.size());
+            for (E e : leidas) {
+                E indexada = porNombre.get(nombre.apply(e));
+                canonicas.add(indexada != null ? indexada : e);
+            }
+            List<E> cargada = Collections.unmodifiableList(canonicas);
+            Conexion.getInstance().alConfirmar(() -> guardarCompleta(cargada, leida));
+            return cargada;
+        }
+
+        /**
+         * Busca una entidad por su nombre.
+         * @param nombreBuscado el nombre exacto.
+         * @return la entidad, o null si no existe.
+         * @throws SQLException si ocurre un error al acceder a la base de datos.
+         */
+        public E porNombre(String nombreBuscado) throws SQLException {
+            if (nombreBuscado == null) return null;
+            E cacheada = porNombre.get(nombreBuscado);
+            if (cacheada != null) {
+                aciertos.increment();
+                return cacheada;
+            }
+            fallos.increment();
+            long leida = generacion.get();
+            E leidaBd = consultaPorNombre.ejecutar(nombreBuscado);
+            if (leidaBd != null) Conexion.getInstance().alConfirmar(() -> guardar(leidaBd, leida));
+            return leidaBd;
+        }
+
+        /**
+         * Busca una entidad por su ID.
+         * @param idBuscado el ID.
+         * @return la entidad, o null si no existe.
+         * @throws SQLException si ocurre un error al acceder a la base de datos.
+         * @throws UnsupportedOperationException si la tabla no tiene ID numérico.
+         */
+        public E porId(int idBuscado) throws SQLException {
+            if (consultaPorId == null) {
+                throw new UnsupportedOperationException("La tabla de " + descripcion + " no tiene ID numérico.");
+            }
+            E cacheada = porId.get(idBuscado);
+            if (cacheada != null) {
+                aciertos.increment();
+                return cacheada;
+            }
+            fallos.increment();
+            long leida = generacion.get();
+            E leidaBd = consultaPorId.ejecutar(idBuscado);
+            if (leidaBd != null) Conexion.getInstance().alConfirmar(() -> guardar(leidaBd, leida));
+            return leidaBd;
+        }
+
+        /**
+         * Registra entidades recién insertadas cuando se confirme la transacción en curso.
+         * Lo llaman los DAOs tras cada inserción.
+         * @param nuevas las entidades insertadas, ya con su ID.
+         */
+        void registrarAlConfirmar(Collection<E> nuevas) {
+            if (nuevas.isEmpty()) return;
+            List<E> copia = List.copyOf(nuevas);
+            Conexion.getInstance().alConfirmar(() -> registrar(copia));
+        }
+
+        /**
+         * Añade entidades confirmadas a los mapas y descarta la tabla completa, que se vuelve a leer
+         * en el siguiente {@link #todos()}. Ampliarla copiaría la lista entera en cada lote confirmado,
+         * y durante una importación la de actores puede tener cientos de miles de elementos.
+         */
+        private synchronized void registrar(List<E> nuevas) {
+            generacion.incrementAndGet();
+            for (E e : nuevas) {
+                indexar(e);
+            }
+            completa = null;
+        }
+
+        /**
+         * Vacía la caché de la tabla.
+         */
+        public synchronized void invalidar() {
+            generacion.incrementAndGet();
+            completa = null;
+            porNombre.clear();
+            porId.clear();
+        }
+
+        /**
+         * @return el número de consultas resueltas sin ir a la base de datos.
+         */
+        public long getAciertos() {
+            return aciertos.sum();
+        }
+
+        /**
+         * @return el número de consultas que han tenido que ir a la base de datos.
+         */
+        public long getFallos() {
+            return fallos.sum();
+        }
+
+        /**
+         * Guarda la tabla completa si no ha cambiado desde que se empezó a leer.
+         */
+        private synchronized void guardarCompleta(List<E> cargada, long generacionLeida) {
+            if (generacion.get() != generacionLeida) return;
+            for (E e : cargada) {
+                indexar(e);
+            }
+            completa = cargada;
+        }
+
+        /**
+         * Guarda una entidad leída si la tabla no ha cambiado desde que se empezó a leer.
+         */
+        private synchronized void guardar(E entidad, long generacionLeida) {
+            if (generacion.get() != generacionLeida) return;
+            indexar(entidad);
+        }
+
+        private void indexar(E entidad) {
+            porNombre.putIfAbsent(nombre.apply(entidad), entidad);
+            if (id != null) porId.put(id.applyAsInt(entidad), entidad);
+        }
+
+        @Override
+        public String toString() {
+            return descripcion + " (aciertos: " + getAciertos() + ", fallos: " + getFallos() + ")";
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package org.dam2.adp.cinesphere.DAO;
+
+import org.dam2.adp.cinesphere.database.Conexion;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché de los totales de las consultas paginadas, indexada por la firma del filtro
+ * (consulta y valores de los filtros). Evita repetir el COUNT al cambiar de página o de
+ * tamaño de página. Los DAOs que modifican el catálogo o las listas la invalidan entera.
+ */
+public final class CacheTotales {
+
+    private static final int MAX_ENTRADAS = 64;
+
+    private static final Map<String, Integer> totales = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > MAX_ENTRADAS;
+        }
+    };
+
+    /** Se incrementa en cada invalidación, para no guardar totales calculados antes de ella. */
+    private static final AtomicLong generacion = new AtomicLong();
+
+    private CacheTotales() {
+    }
+
+    /**
+     * Construye la firma de un filtro.
+     * @param consulta el nombre de la consulta.
+     * @param valores los valores de los filtros (pueden ser null).
+     * @return la firma.
+     */
+    static String firma(String consulta, Object... valores) {
+        StringBuilder sb = new StringBuilder(consulta);
+        for (Object v : valores) {
+            sb.append('|').append(v);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Obtiene la generación actual, que debe leerse antes de calcular un total.
+     * @return la generación.
+     */
+    static long generacion() {
+        return generacion.get();
+    }
+
+    /**
+     * Obtiene un total guardado.
+     * @param firma la firma del filtro.
+     * @return el total, o null si no está en caché.
+     */
+    static synchronized Integer obtener(String firma) {
+        return totales.get(firma);
+    }
+
+    /**
+     * Guarda un total si no ha habido invalidaciones desde que se empezó a calcular.
+     * @param firma la firma del filtro.
+     * @param total el total.
+     * @param generacionLeida la generación leída antes de calcular el total.
+     */
+    static synchronized void guardar(String firma, int total, long generacionLeida) {
+        if (generacion.get() == generacionLeida) {
+            totales.put(firma, total);
+        }
+    }
+
+    /**
+     * Descarta todos los totales ahora y otra vez al confirmarse la transacción en curso, para que no
+     * quede guardado un total calculado por otro hilo antes del commit. Se llama tras cualquier
+     * escritura de los DAOs que pueda cambiarlos.
+     */
+    static void invalidarAlConfirmar() {
+        invalidar();
+        Conexion.getInstance().alConfirmar(CacheTotales::invalidar);
+    }
+
+    /**
+     * Descarta todos los totales.
+     */
+    public static synchronized void invalidar() {
+        generacion.incrementAndGet();
+        totales.clear();
+    }
+}
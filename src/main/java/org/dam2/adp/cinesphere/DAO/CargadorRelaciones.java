@@ -0,0 +1,220 @@
+package org.dam2.adp.cinesphere.DAO;
+
+import org.dam2.adp.cinesphere.database.Conexion;
+import org.dam2.adp.cinesphere.model.Actor;
+import org.dam2.adp.cinesphere.model.Director;
+import org.dam2.adp.cinesphere.model.Genero;
+import org.dam2.adp.cinesphere.model.Pelicula;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Carga en lote las relaciones (géneros, actores y directores) de una lista de películas.
+ * Cada relación pedida cuesta una consulta por bloque de {@value #TAMANO_BLOQUE} películas,
+ * de modo que el número de consultas no depende del número de filas relacionadas.
+ */
+public final class CargadorRelaciones {
+
+    /**
+     * Número máximo de IDs por cláusula IN, por debajo del límite de parámetros de SQLite.
+     */
+    static final int TAMANO_BLOQUE = 500;
+
+    /**
+     * Longitudes a las que se redondean las cláusulas IN, para que solo haya unas pocas consultas
+     * distintas por relación y sus sentencias se reutilicen desde la caché del pool.
+     */
+    private static final int[] TAMANOS_IN = {16, 64, 256, TAMANO_BLOQUE};
+
+    /**
+     * Relaciones de una película que se pueden cargar en lote.
+     * Todas las consultas devuelven las columnas {@code idpelicula}, {@code id} y {@code nombre}.
+     */
+    public enum Relacion {
+        GENEROS('G', """
+                SELECT pg.idpelicula, g.idgenero AS id, g.nombregenero AS nombre
+                FROM peliculagenero pg
+                JOIN genero g ON pg.idgenero = g.idgenero
+                WHERE pg.idpelicula IN (%s)
+                """) {
+            @Override
+            void inicializar(Pelicula pelicula) {
+                pelicula.setGeneros(new ArrayList<>());
+            }
+
+            @Override
+            void anadir(Pelicula pelicula, int id, String nombre) {
+                Genero genero = new Genero();
+                genero.setIdGenero(id);
+                genero.setNombreGenero(nombre);
+                pelicula.getGeneros().add(genero);
+            }
+        },
+        ACTORES('A', """
+                SELECT pa.idpelicula, a.idactor AS id, a.nombreactor AS nombre
+                FROM peliculaactor pa
+                JOIN actor a ON pa.idactor = a.idactor
+                WHERE pa.idpelicula IN (%s)
+                """) {
+            @Override
+            void inicializar(Pelicula pelicula) {
+                pelicula.setActores(new ArrayList<>());
+            }
+
+            @Override
+            void anadir(Pelicula pelicula, int id, String nombre) {
+                Actor actor = new Actor();
+                actor.setIdActor(id);
+                actor.setNombreActor(nombre);
+                pelicula.getActores().add(actor);
+            }
+        },
+        DIRECTORES('D', """
+                SELECT pd.idpelicula, d.iddirector AS id, d.nombredirector AS nombre
+                FROM peliculadirector pd
+                JOIN director d ON pd.iddirector = d.iddirector
+                WHERE pd.idpelicula IN (%s)
+                """) {
+            @Override
+            void inicializar(Pelicula pelicula) {
+                pelicula.setDirectores(new ArrayList<>());
+            }
+
+            @Override
+            void anadir(Pelicula pelicula, int id, String nombre) {
+                Director director = new Director();
+                director.setIdDirector(id);
+                director.setNombreDirector(nombre);
+                pelicula.getDirectores().add(director);
+            }
+        };
+
+        private final char codigo;
+        private final String plantilla;
+
+        Relacion(char codigo, String plantilla) {
+            this.codigo = codigo;
+            this.plantilla = plantilla;
+        }
+
+        /**
+         * Código de una letra con el que se identifica la relación en las consultas combinadas.
+         * @return el código de la relación.
+         */
+        char codigo() {
+            return codigo;
+        }
+
+        /**
+         * Busca la relación que corresponde a un código.
+         * @param codigo el código de la relación.
+         * @return la relación, o null si el código no es válido.
+         */
+        static Relacion deCodigo(String codigo) {
+            if (codigo == null || codigo.isEmpty()) return null;
+            for (Relacion relacion : values()) {
+                if (relacion.codigo == codigo.charAt(0)) return relacion;
+            }
+            return null;
+        }
+
+        /**
+         * Asigna a la película una lista vacía para esta relación.
+         * @param pelicula la película.
+         */
+        abstract void inicializar(Pelicula pelicula);
+
+        /**
+         * Añade a la película una entidad de esta relación.
+         * @param pelicula la película.
+         * @param id el ID de la entidad relacionada.
+         * @param nombre el nombre de la entidad relacionada.
+         */
+        abstract void anadir(Pelicula pelicula, int id, String nombre);
+    }
+
+    private CargadorRelaciones() {
+    }
+
+    /**
+     * Carga las relaciones indicadas de una lista de películas. Si no se indica ninguna, se cargan todas.
+     * Las películas reciben una lista vacía para cada relación pedida aunque no tengan filas asociadas.
+     *
+     * @param peliculas las películas a completar.
+     * @param relaciones las relaciones a cargar.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    public static void cargar(List<Pelicula> peliculas, Relacion... relaciones) throws SQLException {
+        if (peliculas.isEmpty()) return;
+
+        Set<Relacion> pedidas = relaciones.length == 0 ? EnumSet.allOf(Relacion.class) : EnumSet.noneOf(Relacion.class);
+        Collections.addAll(pedidas, relaciones);
+
+        Map<Integer, Pelicula> peliculasPorId = new LinkedHashMap<>();
+        for (Pelicula pelicula : peliculas) {
+            pedidas.forEach(relacion -> relacion.inicializar(pelicula));
+            peliculasPorId.put(pelicula.getIdPelicula(), pelicula);
+        }
+        List<Integer> ids = new ArrayList<>(peliculasPorId.keySet());
+
+        try (Connection conn = Conexion.getInstance().getConnection()) {
+            for (Relacion relacion : pedidas) {
+                for (int desde = 0; desde < ids.size(); desde += TAMANO_BLOQUE) {
+                    List<Integer> bloque = ids.subList(desde, Math.min(desde + TAMANO_BLOQUE, ids.size()));
+                    cargarBloque(conn, relacion, bloque, peliculasPorId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ejecuta la consulta de una relación para un bloque de IDs y reparte cada fila a su película.
+     *
+     * @param conn la conexión a usar.
+     * @param relacion la relación a cargar.
+     * @param ids los IDs del bloque.
+     * @param peliculasPorId las películas indexadas por ID.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    private static void cargarBloque(Connection conn, Relacion relacion, List<Integer> ids,
+                                     Map<Integer, Pelicula> peliculasPorId) throws SQLException {
+        int longitud = tamanoIn(ids.size());
+        String placeholders = String.join(",", Collections.nCopies(longitud, "?"));
+        try (PreparedStatement ps = conn.prepareStatement(String.format(relacion.plantilla, placeholders))) {
+            // Los huecos que sobran repiten el último ID, que no cambia el resultado del IN.
+            for (int i = 0; i < longitud; i++) {
+                ps.setInt(i + 1, ids.get(Math.min(i, ids.size() - 1)));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Pelicula pelicula = peliculasPorId.get(rs.getInt("idpelicula"));
+                    if (pelicula != null) {
+                        relacion.anadir(pelicula, rs.getInt("id"), rs.getString("nombre"));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Redondea el número de IDs de un bloque a la longitud de cláusula IN que le corresponde.
+     * @param ids el número de IDs, como mucho {@value #TAMANO_BLOQUE}.
+     * @return la longitud de la cláusula IN.
+     */
+    private static int tamanoIn(int ids) {
+        for (int tamano : TAMANOS_IN) {
+            if (ids <= tamano) return tamano;
+        }
+        return ids;
+    }
+}
@@ -5,6 +5,8 @@ import org.dam2.adp.cinesphere.model.Clasificacion;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -15,6 +17,7 @@ public class ClasificacionDAO {
     private static final String SQL_INSERT = "INSERT INTO clasificacion(nombreclasificacion) VALUES(?)";
     private static final String SQL_FIND_ALL = "SELECT nombreclasificacion FROM clasificacion";
     private static final String SQL_FIND_BY_ID = "SELECT nombreclasificacion FROM clasificacion WHERE nombreclasificacion=?";
+    private static final String SQL_INSERT_LOTE = "INSERT INTO clasificacion(nombreclasificacion) VALUES %s";
 
     /**
      * Inserta una nueva clasificación en la base de datos.
@@ -22,11 +25,31 @@ public class ClasificacionDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public void insert(Clasificacion c) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_INSERT)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_INSERT)) {
             st.setString(1, c.getNombreClasificacion());
             st.executeUpdate();
         }
+        CacheReferencias.clasificaciones().registrarAlConfirmar(List.of(c));
+    }
+
+    /**
+     * Inserta varias clasificaciones con una única sentencia INSERT de varias filas.
+     * @param nombres los nombres de las clasificaciones a insertar.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    public void insertLote(Collection<String> nombres) throws SQLException {
+        if (nombres.isEmpty()) return;
+        String sql = Conexion.SIN_CACHE + SQL_INSERT_LOTE.formatted(String.join(",", Collections.nCopies(nombres.size(), "(?)")));
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (String nombre : nombres) {
+                st.setString(i++, nombre);
+            }
+            st.executeUpdate();
+        }
+        CacheReferencias.clasificaciones().registrarAlConfirmar(nombres.stream().map(Clasificacion::new).toList());
     }
 
     /**
@@ -36,8 +59,8 @@ public class ClasificacionDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Clasificacion findById(String id) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_ID)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_ID)) {
             st.setString(1, id);
             try (ResultSet rs = st.executeQuery()) {
                 if (rs.next()) {
@@ -54,9 +77,9 @@ public class ClasificacionDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public List<Clasificacion> findAll() throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
         List<Clasificacion> listaClasificacion = new ArrayList<>();
-        try (Statement st = conn.createStatement();
+        try (Connection conn = Conexion.getInstance().getConnection();
+             Statement st = conn.createStatement();
              ResultSet rs = st.executeQuery(SQL_FIND_ALL)) {
             while (rs.next()) {
                 listaClasificacion.add(new Clasificacion(rs.getString(1)));
@@ -0,0 +1,69 @@
+package org.dam2.adp.cinesphere.DAO;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación por clave (keyset). En lugar de saltar filas con OFFSET, cada página
+ * se obtiene buscando a partir del ID de la última película de la página anterior,
+ * por lo que ir a la página 1000 cuesta lo mismo que ir a la 1.
+ * <p>
+ * Fuera del paquete los cursores se manejan como cadenas opacas: las devuelve
+ * {@link PaginaPeliculas} y se pasan tal cual al pedir la página siguiente.
+ */
+public final class CursorPagina {
+
+    /** Prefijo de los cursores codificados, para reconocer los que no son de este tipo. */
+    private static final char PREFIJO = 'A';
+
+    private final int despuesDe;
+
+    private CursorPagina(int despuesDe) {
+        this.despuesDe = despuesDe;
+    }
+
+    /**
+     * Cursor de las películas con ID mayor que el indicado.
+     * @param idPelicula el ID de la última película de la página anterior.
+     * @return el cursor.
+     */
+    static CursorPagina despuesDe(int idPelicula) {
+        return new CursorPagina(idPelicula);
+    }
+
+    /**
+     * Obtiene el ID a partir del cual se busca.
+     * @return el ID de la última película de la página anterior.
+     */
+    int getDespuesDe() {
+        return despuesDe;
+    }
+
+    /**
+     * Codifica el cursor como cadena opaca.
+     * @return el cursor codificado.
+     */
+    String codificar() {
+        String plano = PREFIJO + ":" + despuesDe;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plano.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor.
+     * @param token el cursor codificado, o null para la primera página.
+     * @return el cursor, o null si es la primera página.
+     * @throws IllegalArgumentException si el cursor no es válido.
+     */
+    static CursorPagina decodificar(String token) {
+        if (token == null || token.isEmpty()) return null;
+        try {
+            String plano = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            if (plano.length() < 3 || plano.charAt(0) != PREFIJO || plano.charAt(1) != ':') {
+                throw new IllegalArgumentException("Formato desconocido.");
+            }
+            return new CursorPagina(Integer.parseInt(plano.substring(2)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor no válido: " + token, e);
+        }
+    }
+}
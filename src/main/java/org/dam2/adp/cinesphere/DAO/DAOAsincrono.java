@@ -0,0 +1,86 @@
+package org.dam2.adp.cinesphere.DAO;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fachada asíncrona sobre los DAOs.
+ * Ejecuta cualquier llamada a un DAO en un hilo virtual y devuelve un {@link CompletableFuture},
+ * de modo que la interfaz no se bloquea mientras dura la consulta. Cuántas consultas llegan a
+ * la vez a la base de datos lo sigue limitando el pool de conexiones.
+ */
+public final class DAOAsincrono {
+
+    private static final ExecutorService EJECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("cinesphere-dao-", 0).factory());
+
+    /**
+     * Llamada a uno o varios DAOs que devuelve un resultado.
+     * @param <T> el tipo del resultado.
+     */
+    @FunctionalInterface
+    public interface Consulta<T> {
+        /**
+         * Ejecuta la consulta.
+         * @return el resultado.
+         * @throws Exception si la consulta falla.
+         */
+        T ejecutar() throws Exception;
+    }
+
+    /**
+     * Llamada a uno o varios DAOs sin resultado (inserciones, actualizaciones, borrados).
+     */
+    @FunctionalInterface
+    public interface Operacion {
+        /**
+         * Ejecuta la operación.
+         * @throws Exception si la operación falla.
+         */
+        void ejecutar() throws Exception;
+    }
+
+    private DAOAsincrono() {
+    }
+
+    /**
+     * Ejecuta una consulta en segundo plano.
+     * @param consulta la consulta a ejecutar.
+     * @param <T> el tipo del resultado.
+     * @return un futuro que se completa con el resultado o con la excepción lanzada.
+     */
+    public static <T> CompletableFuture<T> consultar(Consulta<T> consulta) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return consulta.ejecutar();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, EJECUTOR);
+    }
+
+    /**
+     * Ejecuta una operación en segundo plano.
+     * @param operacion la operación a ejecutar.
+     * @return un futuro que se completa al terminar la operación o con la excepción lanzada.
+     */
+    public static CompletableFuture<Void> ejecutar(Operacion operacion) {
+        return consultar(() -> {
+            operacion.ejecutar();
+            return null;
+        });
+    }
+
+    /**
+     * Obtiene el ejecutor de hilos virtuales, para encadenar etapas que también acceden a la base de datos.
+     * @return el ejecutor.
+     */
+    public static Executor ejecutor() {
+        return EJECUTOR;
+    }
+}
@@ -5,6 +5,8 @@ import org.dam2.adp.cinesphere.model.Director;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -16,6 +18,8 @@ public class DirectorDAO {
     private static final String SQL_FIND_BY_ID = "SELECT iddirector, nombredirector FROM director WHERE iddirector=?";
     private static final String SQL_FIND_ALL = "SELECT iddirector, nombredirector FROM director";
     private static final String SQL_FIND_BY_NAME = "SELECT iddirector, nombredirector FROM director WHERE nombredirector=?";
+    private static final String SQL_INSERT_LOTE = "INSERT INTO director(nombredirector) VALUES %s RETURNING iddirector, nombredirector";
+    private static final int TAMANO_LOTE = 500;
 
     /**
      * Inserta un nuevo director en la base de datos.
@@ -24,8 +28,8 @@ public class DirectorDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Director insert(Director director) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
             st.setString(1, director.getNombreDirector());
             st.executeUpdate();
             try (ResultSet keys = st.getGeneratedKeys()) {
@@ -34,9 +38,41 @@ public class DirectorDAO {
                 }
             }
         }
+        CacheReferencias.directores().registrarAlConfirmar(List.of(director));
         return director;
     }
 
+    /**
+     * Inserta varios directores con sentencias INSERT de varias filas, en tramos de {@value #TAMANO_LOTE}.
+     * @param nombres los nombres de los directores a insertar.
+     * @return los directores insertados con su ID generado.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    public List<Director> insertLote(Collection<String> nombres) throws SQLException {
+        List<Director> insertados = new ArrayList<>(nombres.size());
+        if (nombres.isEmpty()) return insertados;
+
+        List<String> pendientes = new ArrayList<>(nombres);
+        try (Connection conn = Conexion.getInstance().getConnection()) {
+            for (int inicio = 0; inicio < pendientes.size(); inicio += TAMANO_LOTE) {
+                List<String> tramo = pendientes.subList(inicio, Math.min(inicio + TAMANO_LOTE, pendientes.size()));
+                String sql = Conexion.SIN_CACHE + SQL_INSERT_LOTE.formatted(String.join(",", Collections.nCopies(tramo.size(), "(?)")));
+                try (PreparedStatement st = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < tramo.size(); i++) {
+                        st.setString(i + 1, tramo.get(i));
+                    }
+                    try (ResultSet rs = st.executeQuery()) {
+                        while (rs.next()) {
+                            insertados.add(mapeoDirector(rs));
+                        }
+                    }
+                }
+            }
+        }
+        CacheReferencias.directores().registrarAlConfirmar(insertados);
+        return insertados;
+    }
+
     /**
      * Busca un director por su ID.
      * @param id el ID del director a buscar.
@@ -44,8 +80,8 @@ public class DirectorDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Director findById(int id) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_ID)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_ID)) {
             st.setInt(1, id);
             try (ResultSet rs = st.executeQuery()) {
                 if (rs.next()) {
@@ -62,9 +98,9 @@ public class DirectorDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public List<Director> findAll() throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
         List<Director> listaDirectores = new ArrayList<>();
-        try (Statement st = conn.createStatement();
+        try (Connection conn = Conexion.getInstance().getConnection();
+             Statement st = conn.createStatement();
              ResultSet rs = st.executeQuery(SQL_FIND_ALL)) {
             while (rs.next()) {
                 listaDirectores.add(mapeoDirector(rs));
@@ -80,8 +116,8 @@ public class DirectorDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Director findByName(String name) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_NAME)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_NAME)) {
             st.setString(1, name);
             try (ResultSet rs = st.executeQuery()) {
                 if (rs.next()) {
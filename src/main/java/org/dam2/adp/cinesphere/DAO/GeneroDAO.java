@@ -5,6 +5,8 @@ import org.dam2.adp.cinesphere.model.Genero;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -16,6 +18,8 @@ public class GeneroDAO {
     private static final String SQL_FIND_BY_ID = "SELECT idgenero, nombregenero FROM genero WHERE idgenero=?";
     private static final String SQL_FIND_ALL = "SELECT idgenero, nombregenero FROM genero";
     private static final String SQL_FIND_BY_NAME = "SELECT idgenero, nombregenero FROM genero WHERE nombregenero=?";
+    private static final String SQL_INSERT_LOTE = "INSERT INTO genero(nombregenero) VALUES %s RETURNING idgenero, nombregenero";
+    private static final int TAMANO_LOTE = 500;
 
 
     /**
@@ -25,8 +29,8 @@ public class GeneroDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Genero insert(Genero genero) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
             st.setString(1, genero.getNombreGenero());
             st.executeUpdate();
             try (ResultSet keys = st.getGeneratedKeys()) {
@@ -35,9 +39,41 @@ public class GeneroDAO {
                 }
             }
         }
+        CacheReferencias.generos().registrarAlConfirmar(List.of(genero));
         return genero;
     }
 
+    /**
+     * Inserta varios géneros con sentencias INSERT de varias filas, en tramos de {@value #TAMANO_LOTE}.
+     * @param nombres los nombres de los géneros a insertar.
+     * @return los géneros insertados con su ID generado.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    public List<Genero> insertLote(Collection<String> nombres) throws SQLException {
+        List<Genero> insertados = new ArrayList<>(nombres.size());
+        if (nombres.isEmpty()) return insertados;
+
+        List<String> pendientes = new ArrayList<>(nombres);
+        try (Connection conn = Conexion.getInstance().getConnection()) {
+            for (int inicio = 0; inicio < pendientes.size(); inicio += TAMANO_LOTE) {
+                List<String> tramo = pendientes.subList(inicio, Math.min(inicio + TAMANO_LOTE, pendientes.size()));
+                String sql = Conexion.SIN_CACHE + SQL_INSERT_LOTE.formatted(String.join(",", Collections.nCopies(tramo.size(), "(?)")));
+                try (PreparedStatement st = conn.prepareStatement(sql)) {
+                    for (int i = 0; i < tramo.size(); i++) {
+                        st.setString(i + 1, tramo.get(i));
+                    }
+                    try (ResultSet rs = st.executeQuery()) {
+                        while (rs.next()) {
+                            insertados.add(mapeoGenero(rs));
+                        }
+                    }
+                }
+            }
+        }
+        CacheReferencias.generos().registrarAlConfirmar(insertados);
+        return insertados;
+    }
+
     /**
      * Busca un género por su ID.
      * @param id el ID del género a buscar.
@@ -45,8 +81,8 @@ public class GeneroDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Genero findById(int id) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_ID)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_ID)) {
             st.setInt(1, id);
             try (ResultSet rs = st.executeQuery()) {
                 if (rs.next()) {
@@ -63,9 +99,9 @@ public class GeneroDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public List<Genero> findAll() throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
         List<Genero> listaGenero = new ArrayList<>();
-        try (Statement st = conn.createStatement();
+        try (Connection conn = Conexion.getInstance().getConnection();
+             Statement st = conn.createStatement();
              ResultSet rs = st.executeQuery(SQL_FIND_ALL)) {
             while (rs.next()) {
                 listaGenero.add(mapeoGenero(rs));
@@ -81,8 +117,8 @@ public class GeneroDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Genero findByName(String name) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_NAME)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_NAME)) {
             st.setString(1, name);
             try (ResultSet rs = st.executeQuery()) {
                 if (rs.next()) {
@@ -16,11 +16,23 @@ public class MiListaDAO {
     private static final String SQL_INSERT =
             "INSERT INTO milista(idusuario, idpelicula, estado, puntuacion, urlimg, fecha_anadido) VALUES (?, ?, ?, ?, ?, ?)";
 
-    private static final String SQL_FIND_ALL =
-            "SELECT * FROM milista WHERE idusuario=? AND idpelicula=?";
-
-    private static final String SQL_FIND_BY_USER =
-            "SELECT idpelicula FROM milista WHERE idusuario=?";
+    private static final String SQL_FIND_ALL = """
+            SELECT ml.estado, ml.puntuacion, ml.urlimg, ml.fecha_anadido,
+                   u.idusuario, u.nombreusuario, u.email, u.passw, u.borndate, u.rol,
+                   p.idpelicula, p.titulopelicula, p.yearpelicula, p.ratingpelicula, p.duracionpelicula, p.nombreclasificacion
+            FROM milista ml
+            JOIN usuario u ON ml.idusuario = u.idusuario
+            JOIN pelicula p ON ml.idpelicula = p.idpelicula
+            WHERE ml.idusuario=? AND ml.idpelicula=?
+            """;
+
+    private static final String SQL_FIND_BY_USER = """
+            SELECT p.idpelicula, p.titulopelicula, p.yearpelicula, p.ratingpelicula, p.duracionpelicula, p.nombreclasificacion
+            FROM milista ml
+            JOIN pelicula p ON ml.idpelicula = p.idpelicula
+            WHERE ml.idusuario=?
+            ORDER BY p.idpelicula
+            """;
 
     private static final String SQL_UPDATE_ESTADO =
             "UPDATE milista SET estado=? WHERE idusuario=? AND idpelicula=?";
@@ -46,15 +58,16 @@ public class MiListaDAO {
     private static final String SQL_COUNT_GENEROS_BY_USER =
             "SELECT g.nombregenero, COUNT(*) AS total FROM milista m JOIN peliculagenero pg ON m.idpelicula = pg.idpelicula JOIN genero g ON g.idgenero = pg.idgenero WHERE m.idusuario = ? GROUP BY g.nombregenero ORDER BY total DESC";
 
-    private static final String SQL_FILTER_BASE =
-            "SELECT DISTINCT p.* FROM pelicula p JOIN milista ml ON p.idpelicula = ml.idpelicula ";
-
     private static final String SQL_COUNT_FILTER_BASE =
-            "SELECT COUNT(DISTINCT p.idpelicula) FROM pelicula p JOIN milista ml ON p.idpelicula = ml.idpelicula ";
+            "SELECT COUNT(*) FROM pelicula p JOIN milista ml ON p.idpelicula = ml.idpelicula ";
+
+    private static final String SQL_KEYSET_FROM =
+            "FROM pelicula p JOIN milista ml ON p.idpelicula = ml.idpelicula";
 
 
     private final UsuarioDAO usuarioDAO = new UsuarioDAO();
     private final PeliculaDAO peliculaDAO = new PeliculaDAO();
+    private final PaginadorKeyset paginador = new PaginadorKeyset(peliculaDAO);
 
 
     /**
@@ -63,8 +76,8 @@ public class MiListaDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public void insert(MiLista miLista) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_INSERT)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_INSERT)) {
             st.setInt(1, miLista.getUsuario().getIdUsuario());
             st.setInt(2, miLista.getPelicula().getIdPelicula());
             st.setString(3, miLista.getEstado() != null ? miLista.getEstado().getEstadoValor() : null);
@@ -72,29 +85,28 @@ public class MiListaDAO {
             st.setString(5, miLista.getUrlImg());
             st.setObject(6, miLista.getFechaAnadido());
             st.executeUpdate();
+            CacheTotales.invalidarAlConfirmar();
         }
     }
 
     /**
      * Busca una entrada específica (Película + Datos de usuario).
+     * El usuario y la película se leen en la misma consulta que la entrada.
      * @param idUsuario el ID del usuario.
      * @param idPelicula el ID de la película.
      * @return la entrada encontrada, o null si no se encuentra.
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public MiLista findAll(int idUsuario, int idPelicula) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_ALL)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_ALL)) {
             st.setInt(1, idUsuario);
             st.setInt(2, idPelicula);
             try (ResultSet rs = st.executeQuery()) {
                 if (rs.next()) {
-                    Usuario u = usuarioDAO.findById(idUsuario);
-                    Pelicula p = peliculaDAO.findByIdLazy(idPelicula);
-
                     return new MiLista(
-                            p,
-                            u,
+                            peliculaDAO.mapeoPelicula(rs),
+                            usuarioDAO.mapeoUsuario(rs),
                             PeliculaEstado.fromString(rs.getString("estado")),
                             rs.getObject("puntuacion") != null ? rs.getInt("puntuacion") : null,
                             rs.getString("urlimg"),
@@ -107,156 +119,116 @@ public class MiListaDAO {
     }
 
     /**
-     * Obtiene todas las películas (solo objetos Pelicula) de la lista del usuario.
+     * Obtiene todas las películas de la lista del usuario con sus géneros, actores y directores.
+     * Se resuelve con una consulta para las películas y una por relación, sin importar
+     * cuántas películas tenga la lista.
      * @param idUsuario el ID del usuario.
      * @return una lista de las películas del usuario.
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public List<Pelicula> findPeliculasByUsuario(int idUsuario) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
         List<Pelicula> misPeliculas = new ArrayList<>();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_USER)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_USER)) {
             st.setInt(1, idUsuario);
             try (ResultSet rs = st.executeQuery()) {
                 while (rs.next()) {
-                    int idPelicula = rs.getInt("idpelicula");
-                    Pelicula p = peliculaDAO.findByIdLazy(idPelicula);
-                    if (p != null) {
-                        misPeliculas.add(p);
-                    }
+                    misPeliculas.add(peliculaDAO.mapeoPelicula(rs));
                 }
             }
         }
+        peliculaDAO.cargarRelacionesEnLote(misPeliculas);
         return misPeliculas;
     }
 
     /**
-     * Busca películas EN LA LISTA DEL USUARIO aplicando filtros dinámicos y paginación.
+     * Cuenta películas EN LA LISTA DEL USUARIO con filtros dinámicos.
      * @param idUsuario el ID del usuario.
      * @param year el año de la película.
      * @param ratingMin el rating mínimo de la película.
      * @param idGenero el ID del género de la película.
      * @param searchQuery la consulta de búsqueda por título.
-     * @param page el número de página.
-     * @param pageSize el tamaño de la página.
-     * @return una lista de películas filtradas y paginadas.
+     * @return el número total de películas que coinciden con los filtros.
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
-    public List<Pelicula> findFiltered(int idUsuario, Integer year, Double ratingMin, Integer idGenero, String searchQuery, int page, int pageSize) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        List<Pelicula> peliculasFiltradas = new ArrayList<>();
+    public int countPeliculas(int idUsuario, Integer year, Double ratingMin, Integer idGenero, String searchQuery) throws SQLException {
         // 1. Se crea una lista para almacenar los parámetros que se usarán en la consulta.
         List<Object> parametros = new ArrayList<>();
 
         // 2. Se construye el fragmento de SQL dinámico (JOINs y WHERE) y se llena la lista de parámetros.
         String sqlPart = construirCondicionesFiltro(idUsuario, year, ratingMin, idGenero, searchQuery, parametros);
-        // 3. Se combina el SQL base, el fragmento dinámico y la paginación.
-        String sql = SQL_FILTER_BASE + sqlPart + " ORDER BY p.idpelicula LIMIT ? OFFSET ?";
-
-        // 4. Se añaden los parámetros de paginación a la lista.
-        parametros.add(pageSize);
-        parametros.add((page - 1) * pageSize);
+        // 3. Se combina el SQL base con el fragmento dinámico.
+        String sql = SQL_COUNT_FILTER_BASE + sqlPart;
 
-        try (PreparedStatement st = conn.prepareStatement(sql)) {
-            // 5. Se asignan todos los parámetros (filtros + paginación) a la consulta preparada.
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(sql.toString())) {
+            // 4. Se asignan los parámetros a la consulta preparada.
             for (int i = 0; i < parametros.size(); i++) {
                 st.setObject(i + 1, parametros.get(i));
             }
             try (ResultSet rs = st.executeQuery()) {
-                while (rs.next()) {
-                    peliculasFiltradas.add(peliculaDAO.mapeoPelicula(rs));
+                if (rs.next()) {
+                    return rs.getInt(1);
                 }
             }
         }
-
-        peliculaDAO.cargarGenerosEnLote(peliculasFiltradas);
-
-        return peliculasFiltradas;
+        return 0;
     }
 
     /**
-     * Cuenta películas EN LA LISTA DEL USUARIO con filtros dinámicos.
+     * Busca una página de películas EN LA LISTA DEL USUARIO con filtros dinámicos usando
+     * paginación por clave, de modo que las páginas finales cuestan lo mismo que la primera.
      * @param idUsuario el ID del usuario.
      * @param year el año de la película.
      * @param ratingMin el rating mínimo de la película.
      * @param idGenero el ID del género de la película.
      * @param searchQuery la consulta de búsqueda por título.
-     * @return el número total de películas que coinciden con los filtros.
+     * @param cursor el cursor de la página a cargar, o null para la primera página.
+     * @param pageSize el tamaño de la página.
+     * @return la página de películas, con el total del filtro y el cursor de la página siguiente.
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
-    public int countPeliculas(int idUsuario, Integer year, Double ratingMin, Integer idGenero, String searchQuery) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        // 1. Se crea una lista para almacenar los parámetros que se usarán en la consulta.
+    public PaginaPeliculas findPagina(int idUsuario, Integer year, Double ratingMin, Integer idGenero, String searchQuery, String cursor, int pageSize) throws SQLException {
         List<Object> parametros = new ArrayList<>();
-
-        // 2. Se construye el fragmento de SQL dinámico (JOINs y WHERE) y se llena la lista de parámetros.
-        String sqlPart = construirCondicionesFiltro(idUsuario, year, ratingMin, idGenero, searchQuery, parametros);
-        // 3. Se combina el SQL base con el fragmento dinámico.
-        String sql = SQL_COUNT_FILTER_BASE + sqlPart;
-
-        try (PreparedStatement st = conn.prepareStatement(sql.toString())) {
-            // 4. Se asignan los parámetros a la consulta preparada.
-            for (int i = 0; i < parametros.size(); i++) {
-                st.setObject(i + 1, parametros.get(i));
-            }
-            try (ResultSet rs = st.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
-                }
-            }
-        }
-        return 0;
+        List<String> condiciones = condicionesFiltro(idUsuario, year, ratingMin, idGenero, searchQuery, parametros);
+        String firma = CacheTotales.firma("milista", idUsuario, year, ratingMin, idGenero, searchQuery);
+        return paginador.buscar(SQL_KEYSET_FROM, condiciones, parametros, firma,
+                () -> countPeliculas(idUsuario, year, ratingMin, idGenero, searchQuery), cursor, pageSize);
     }
 
     /**
-     * Construye las condiciones de filtro para las consultas de MiLista.
+     * Centraliza la lógica de construcción de la cláusula WHERE dinámica para los filtros.
      * @param idUsuario el ID del usuario.
      * @param year el año de la película.
      * @param ratingMin el rating mínimo de la película.
      * @param idGenero el ID del género de la película.
      * @param searchQuery la consulta de búsqueda por título.
-     * @param parametros la lista de parámetros a llenar.
-     * @return el fragmento de SQL con las condiciones.
+     * @param parametros la lista de parámetros que se llenará.
+     * @return un String que contiene el fragmento de SQL generado.
      */
     private String construirCondicionesFiltro(int idUsuario, Integer year, Double ratingMin, Integer idGenero, String searchQuery, List<Object> parametros) {
-        StringBuilder consultaConstruida = new StringBuilder();
-
-        // Si se filtra por género, se necesita hacer un JOIN con la tabla de relación.
-        if (idGenero != null) {
-            consultaConstruida.append("INNER JOIN peliculagenero pg ON p.idpelicula = pg.idpelicula ");
-        }
+        return "WHERE " + String.join(" AND ", condicionesFiltro(idUsuario, year, ratingMin, idGenero, searchQuery, parametros));
+    }
 
+    /**
+     * Construye la lista de condiciones SQL: el usuario y los filtros de {@link PeliculaDAO}.
+     * @param idUsuario el ID del usuario.
+     * @param year el año de la película.
+     * @param ratingMin el rating mínimo de la película.
+     * @param idGenero el ID del género de la película.
+     * @param searchQuery la consulta de búsqueda por título.
+     * @param parametros la lista de parámetros que se llenará.
+     * @return las condiciones.
+     */
+    private List<String> condicionesFiltro(int idUsuario, Integer year, Double ratingMin, Integer idGenero, String searchQuery, List<Object> parametros) {
         List<String> condiciones = new ArrayList<>();
-        
+
         // El primer filtro siempre es el ID del usuario.
         condiciones.add("ml.idusuario = ?");
         parametros.add(idUsuario);
 
-        // Para cada filtro que no sea nulo, se añade la condición SQL a una lista
-        // y el valor del filtro a la lista de parámetros.
-        if (year != null) {
-            condiciones.add("p.yearpelicula = ?");
-            parametros.add(year);
-        }
-        if (ratingMin != null) {
-            condiciones.add("p.ratingpelicula >= ?");
-            parametros.add(ratingMin);
-        }
-        if (idGenero != null) {
-            condiciones.add("pg.idgenero = ?");
-            parametros.add(idGenero);
-        }
-        if (searchQuery != null && !searchQuery.isBlank()) {
-            condiciones.add("LOWER(p.titulopelicula) LIKE LOWER(?)");
-            parametros.add("%" + searchQuery + "%");
-        }
-
-        // Si hay condiciones, se unen con "AND" y se añaden a la cláusula WHERE.
-        if (!condiciones.isEmpty()) {
-            consultaConstruida.append("WHERE ").append(String.join(" AND ", condiciones));
-        }
-
-        return consultaConstruida.toString();
+        condiciones.addAll(PeliculaDAO.condicionesFiltro(year, ratingMin, idGenero, searchQuery, parametros));
+        return condiciones;
     }
 
     /**
@@ -267,8 +239,8 @@ public class MiListaDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public void updateEstado(int idUsuario, int idPelicula, PeliculaEstado estado) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_UPDATE_ESTADO)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_UPDATE_ESTADO)) {
             st.setString(1, estado.getEstadoValor());
             st.setInt(2, idUsuario);
             st.setInt(3, idPelicula);
@@ -284,8 +256,8 @@ public class MiListaDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public void updatePuntuacion(int idUsuario, int idPelicula, int puntuacion) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_UPDATE_PUNTUACION)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_UPDATE_PUNTUACION)) {
             st.setInt(1, puntuacion);
             st.setInt(2, idUsuario);
             st.setInt(3, idPelicula);
@@ -300,11 +272,12 @@ public class MiListaDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public void delete(int idUsuario, int idPelicula) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_DELETE)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_DELETE)) {
             st.setInt(1, idUsuario);
             st.setInt(2, idPelicula);
             st.executeUpdate();
+            CacheTotales.invalidarAlConfirmar();
         }
     }
 
@@ -315,9 +288,9 @@ public class MiListaDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Map<PeliculaEstado, Integer> getEstadisticasEstados(int idUsuario) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
         Map<PeliculaEstado, Integer> estadisticas = new EnumMap<>(PeliculaEstado.class);
-        try (PreparedStatement st = conn.prepareStatement(SQL_COUNT_ALL_ESTADOS)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_COUNT_ALL_ESTADOS)) {
             st.setInt(1, idUsuario);
             try (ResultSet rs = st.executeQuery()) {
                 while (rs.next()) {
@@ -343,8 +316,8 @@ public class MiListaDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public int countGuardadas(int idUsuario) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_COUNT_GUARDADAS)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_COUNT_GUARDADAS)) {
             st.setInt(1, idUsuario);
             try (ResultSet rs = st.executeQuery()) {
                 if (rs.next()) return rs.getInt(1);
@@ -361,8 +334,8 @@ public class MiListaDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public int countByEstado(int idUsuario, PeliculaEstado estado) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_COUNT_BY_ESTADOS)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_COUNT_BY_ESTADOS)) {
             st.setInt(1, idUsuario);
             st.setString(2, estado.getEstadoValor());
             try (ResultSet rs = st.executeQuery()) {
@@ -379,8 +352,8 @@ public class MiListaDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public int sumDuracionTerminadas(int idUsuario) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_COUNT_DURACION_TERMINADAS)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_COUNT_DURACION_TERMINADAS)) {
             st.setInt(1, idUsuario);
             st.setString(2, PeliculaEstado.TERMINADA.getEstadoValor());
             try (ResultSet rs = st.executeQuery()) {
@@ -397,9 +370,9 @@ public class MiListaDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Map<String, Integer> getConteoGenerosByUsuario(int idUsuario) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
         Map<String, Integer> generos = new LinkedHashMap<>();
-        try (PreparedStatement st = conn.prepareStatement(SQL_COUNT_GENEROS_BY_USER)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_COUNT_GENEROS_BY_USER)) {
             st.setInt(1, idUsuario);
             try (ResultSet rs = st.executeQuery()) {
                 while (rs.next()) {
@@ -0,0 +1,15 @@
+package org.dam2.adp.cinesphere.DAO;
+
+import org.dam2.adp.cinesphere.model.Pelicula;
+
+import java.util.List;
+
+/**
+ * Página de películas obtenida con paginación por clave.
+ *
+ * @param peliculas las películas de la página, en orden de ID.
+ * @param total     el número total de películas que cumplen el filtro.
+ * @param siguiente cursor de la página siguiente, o null si es la última.
+ */
+public record PaginaPeliculas(List<Pelicula> peliculas, int total, String siguiente) {
+}
@@ -0,0 +1,106 @@
+package org.dam2.adp.cinesphere.DAO;
+
+import org.dam2.adp.cinesphere.database.Conexion;
+import org.dam2.adp.cinesphere.model.Pelicula;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ejecuta consultas de películas paginadas por clave ({@code p.idpelicula}) a partir de un
+ * {@link CursorPagina}. Lo comparten {@link PeliculaDAO} y {@link MiListaDAO}.
+ */
+class PaginadorKeyset {
+
+    private static final String COLUMNAS =
+            "SELECT p.idpelicula, p.titulopelicula, p.yearpelicula, p.ratingpelicula, p.duracionpelicula, p.nombreclasificacion";
+
+    /**
+     * Cálculo del total de un filtro cuando no se puede obtener en la propia consulta de la página.
+     */
+    @FunctionalInterface
+    interface ConsultaTotal {
+        int contar() throws SQLException;
+    }
+
+    private final PeliculaDAO peliculaDAO;
+
+    PaginadorKeyset(PeliculaDAO peliculaDAO) {
+        this.peliculaDAO = peliculaDAO;
+    }
+
+    /**
+     * Obtiene una página junto con el total de películas del filtro.
+     * El total se toma de {@link CacheTotales}; si no está y es la primera página, se calcula en la
+     * misma consulta con {@code COUNT(*) OVER()}, y solo en otro caso se recurre a {@code contar}.
+     * @param desde la cláusula FROM (con los JOIN necesarios); la tabla pelicula debe tener alias {@code p}.
+     * @param condiciones las condiciones de filtro; esta lista no se modifica.
+     * @param parametros los parámetros de las condiciones; esta lista no se modifica.
+     * @param firma la firma del filtro en {@link CacheTotales}.
+     * @param contar el cálculo del total por separado.
+     * @param token el cursor codificado, o null para la primera página.
+     * @param tamano el número de películas por página.
+     * @return la página.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    PaginaPeliculas buscar(String desde, List<String> condiciones, List<Object> parametros,
+                           String firma, ConsultaTotal contar,
+                           String token, int tamano) throws SQLException {
+        CursorPagina cursor = CursorPagina.decodificar(token);
+        List<String> where = new ArrayList<>(condiciones);
+        List<Object> valores = new ArrayList<>(parametros);
+
+        if (cursor != null) {
+            where.add("p.idpelicula > ?");
+            valores.add(cursor.getDespuesDe());
+        }
+
+        long generacion = CacheTotales.generacion();
+        Integer total = CacheTotales.obtener(firma);
+        // Sin cursor no hay condición de búsqueda, así que la ventana cuenta todas las filas del filtro.
+        boolean contarEnConsulta = total == null && cursor == null;
+
+        StringBuilder sql = new StringBuilder(COLUMNAS);
+        if (contarEnConsulta) sql.append(", COUNT(*) OVER() AS total_filas");
+        sql.append(' ').append(desde);
+        if (!where.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", where));
+        }
+        sql.append(" ORDER BY p.idpelicula LIMIT ?");
+        // Se pide una fila de más para saber si hay más allá de esta página.
+        valores.add(tamano + 1);
+
+        List<Pelicula> peliculas = new ArrayList<>(tamano + 1);
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < valores.size(); i++) {
+                st.setObject(i + 1, valores.get(i));
+            }
+            try (ResultSet rs = st.executeQuery()) {
+                while (rs.next()) {
+                    if (contarEnConsulta && total == null) total = rs.getInt("total_filas");
+                    peliculas.add(peliculaDAO.mapeoPelicula(rs));
+                }
+            }
+        }
+
+        if (total == null) {
+            total = contarEnConsulta ? 0 : contar.contar();
+        }
+        CacheTotales.guardar(firma, total, generacion);
+
+        boolean hayMas = peliculas.size() > tamano;
+        if (hayMas) peliculas.remove(peliculas.size() - 1);
+
+        peliculaDAO.cargarGenerosEnLote(peliculas);
+
+        String siguiente = hayMas
+                ? CursorPagina.despuesDe(peliculas.get(peliculas.size() - 1).getIdPelicula()).codificar()
+                : null;
+        return new PaginaPeliculas(peliculas, total, siguiente);
+    }
+}
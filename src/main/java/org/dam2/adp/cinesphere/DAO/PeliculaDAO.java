@@ -5,7 +5,7 @@ import org.dam2.adp.cinesphere.model.*;
 
 import java.sql.*;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
 
 /**
  * DAO para la entidad Pelicula.
@@ -28,28 +28,35 @@ public class PeliculaDAO {
             "SELECT idpelicula, titulopelicula, yearpelicula, ratingpelicula, duracionpelicula, nombreclasificacion " +
                     "FROM pelicula WHERE titulopelicula=? AND yearpelicula=?";
 
-    private static final String SQL_FIND_PAGE = """
-            SELECT idpelicula, titulopelicula, yearpelicula, ratingpelicula, duracionpelicula, nombreclasificacion
-            FROM pelicula
-            ORDER BY idpelicula
-            LIMIT ? OFFSET ?
-            """;
+    private static final String SQL_FIND_TITULOS_Y_YEARS =
+            "SELECT titulopelicula, yearpelicula FROM pelicula";
+
     private static final String SQL_DELETE =
             "DELETE FROM pelicula WHERE idpelicula=?";
-    private static final String SQL_FIND_GENEROS_LOTE = """
-            SELECT pg.idpelicula, g.idgenero, g.nombregenero
-            FROM peliculagenero pg
-            JOIN genero g ON pg.idgenero = g.idgenero
-            WHERE pg.idpelicula IN (%s)
+    private static final String SQL_FIND_BY_ID_EAGER = """
+            SELECT p.idpelicula, p.titulopelicula, p.yearpelicula, p.ratingpelicula, p.duracionpelicula, p.nombreclasificacion,
+                   r.tipo, r.id, r.nombre
+            FROM pelicula p
+            LEFT JOIN (
+                SELECT 'G' AS tipo, g.idgenero AS id, g.nombregenero AS nombre
+                FROM peliculagenero pg JOIN genero g ON pg.idgenero = g.idgenero
+                WHERE pg.idpelicula = ?
+                UNION ALL
+                SELECT 'A', a.idactor, a.nombreactor
+                FROM peliculaactor pa JOIN actor a ON pa.idactor = a.idactor
+                WHERE pa.idpelicula = ?
+                UNION ALL
+                SELECT 'D', d.iddirector, d.nombredirector
+                FROM peliculadirector pd JOIN director d ON pd.iddirector = d.iddirector
+                WHERE pd.idpelicula = ?
+            ) r ON 1 = 1
+            WHERE p.idpelicula = ?
             """;
-    private static final String SQL_COUNT_BASE = "SELECT COUNT(DISTINCT p.idpelicula) FROM pelicula p ";
-    private static final String SQL_FILTER_SELECT = "SELECT DISTINCT p.* FROM pelicula p ";
-    private static final String SQL_FILTER_PAGINATION = "ORDER BY p.idpelicula LIMIT ? OFFSET ?";
+    private static final String SQL_COUNT_BASE = "SELECT COUNT(*) FROM pelicula p ";
+    private static final String SQL_KEYSET_FROM = "FROM pelicula p";
 
 
-    private final PeliculaGeneroDAO peliculaGeneroDAO = new PeliculaGeneroDAO();
-    private final PeliculaActorDAO peliculaActorDAO = new PeliculaActorDAO();
-    private final PeliculaDirectorDAO peliculaDirectorDAO = new PeliculaDirectorDAO();
+    private final PaginadorKeyset paginador = new PaginadorKeyset(this);
 
 
     /**
@@ -60,14 +67,15 @@ public class PeliculaDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Pelicula insert(Pelicula pelicula) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
             st.setString(1, pelicula.getTituloPelicula());
             st.setObject(2, pelicula.getYearPelicula());
             st.setObject(3, pelicula.getRatingPelicula());
             st.setObject(4, pelicula.getDuracionPelicula());
             st.setString(5, pelicula.getClasificacion().getNombreClasificacion());
             st.executeUpdate();
+            CacheTotales.invalidarAlConfirmar();
 
             try (ResultSet keys = st.getGeneratedKeys()) {
                 if (keys.next()) {
@@ -75,9 +83,72 @@ public class PeliculaDAO {
                 }
             }
         }
+        CachePeliculas.invalidarAlConfirmar(List.of(pelicula.getIdPelicula()));
         return pelicula;
     }
 
+    /**
+     * Inserta un lote de películas con una sola ejecución por lotes (addBatch/executeBatch)
+     * y asigna a cada una su ID generado.
+     * Debe llamarse dentro de {@link Conexion#enTransaccion(Conexion.OperacionTransaccional)}:
+     * si el driver no devuelve las claves del lote (SQLite), los IDs se deducen de last_insert_rowid(),
+     * que solo son consecutivos mientras la transacción mantiene el bloqueo de escritura.
+     *
+     * @param peliculas las películas a insertar.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    public void insertLote(List<Pelicula> peliculas) throws SQLException {
+        if (peliculas.isEmpty()) return;
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            for (Pelicula pelicula : peliculas) {
+                st.setString(1, pelicula.getTituloPelicula());
+                st.setObject(2, pelicula.getYearPelicula());
+                st.setObject(3, pelicula.getRatingPelicula());
+                st.setObject(4, pelicula.getDuracionPelicula());
+                st.setString(5, pelicula.getClasificacion().getNombreClasificacion());
+                st.addBatch();
+            }
+            st.executeBatch();
+            CacheTotales.invalidarAlConfirmar();
+
+            int asignados = 0;
+            try (ResultSet keys = st.getGeneratedKeys()) {
+                while (asignados < peliculas.size() && keys.next()) {
+                    peliculas.get(asignados++).setIdPelicula(keys.getInt(1));
+                }
+            }
+            if (asignados < peliculas.size()) {
+                asignarIdsConsecutivos(conn, peliculas);
+            }
+        }
+        CachePeliculas.invalidarAlConfirmar(peliculas.stream().map(Pelicula::getIdPelicula).toList());
+    }
+
+    /**
+     * Asigna IDs consecutivos terminando en last_insert_rowid() cuando el driver no devuelve
+     * las claves generadas de un lote.
+     *
+     * @param conn      la conexión en la que se ha ejecutado el lote.
+     * @param peliculas las películas insertadas, en el orden del lote.
+     * @throws SQLException si la base de datos no es SQLite o no se puede consultar el último ID.
+     */
+    private void asignarIdsConsecutivos(Connection conn, List<Pelicula> peliculas) throws SQLException {
+        if (!Conexion.getInstance().isSQLite()) {
+            throw new SQLException("El driver no ha devuelto las claves generadas del lote.");
+        }
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT last_insert_rowid()")) {
+            if (!rs.next()) {
+                throw new SQLException("No se pudo obtener el último ID insertado.");
+            }
+            int primero = rs.getInt(1) - peliculas.size() + 1;
+            for (int i = 0; i < peliculas.size(); i++) {
+                peliculas.get(i).setIdPelicula(primero + i);
+            }
+        }
+    }
+
     /**
      * Elimina una película de la base de datos.
      *
@@ -85,11 +156,13 @@ public class PeliculaDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public void delete(int idPelicula) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_DELETE)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_DELETE)) {
             st.setInt(1, idPelicula);
             st.executeUpdate();
+            CacheTotales.invalidarAlConfirmar();
         }
+        CachePeliculas.invalidarAlConfirmar(List.of(idPelicula));
     }
 
     /**
@@ -99,9 +172,9 @@ public class PeliculaDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public List<Pelicula> findAllLazy() throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
         List<Pelicula> listaPelicula = new ArrayList<>();
-        try (Statement st = conn.createStatement();
+        try (Connection conn = Conexion.getInstance().getConnection();
+             Statement st = conn.createStatement();
              ResultSet rs = st.executeQuery(SQL_FIND_ALL)) {
             while (rs.next()) {
                 Pelicula p = mapeoPelicula(rs);
@@ -119,8 +192,8 @@ public class PeliculaDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Pelicula findByIdLazy(int idPelicula) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_ID)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_ID)) {
             st.setInt(1, idPelicula);
             try (ResultSet rs = st.executeQuery()) {
                 if (rs.next()) {
@@ -141,8 +214,8 @@ public class PeliculaDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Pelicula findByTituloAndYear(String titulo, int year) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_TITULO_AND_YEAR)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_TITULO_AND_YEAR)) {
             st.setString(1, titulo);
             st.setInt(2, year);
             try (ResultSet rs = st.executeQuery()) {
@@ -155,50 +228,78 @@ public class PeliculaDAO {
         return null;
     }
 
+    /**
+     * Recorre el título y el año de todas las películas con una única consulta,
+     * sin cargar las películas completas en memoria.
+     *
+     * @param consumidor recibe el título y el año (puede ser null) de cada película.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    public void recorrerTitulosYYears(BiConsumer<String, Integer> consumidor) throws SQLException {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             Statement st = conn.createStatement()) {
+            st.setFetchSize(1000);
+            try (ResultSet rs = st.executeQuery(SQL_FIND_TITULOS_Y_YEARS)) {
+                while (rs.next()) {
+                    int year = rs.getInt(2);
+                    consumidor.accept(rs.getString(1), rs.wasNull() ? null : year);
+                }
+            }
+        }
+    }
+
     /**
      * Busca una película por su ID (carga ansiosa).
+     * La película, sus géneros, actores y directores se leen en una sola consulta, salvo que
+     * ya estén en {@link CachePeliculas}; la película leída se guarda en ella.
      *
      * @param idPelicula el ID de la película a buscar.
      * @return la película encontrada, o null si no se encuentra.
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Pelicula findByIdEager(int idPelicula) throws SQLException {
-        Pelicula Pelicula = findByIdLazy(idPelicula);
-        if (Pelicula == null) return null;
-
-        Pelicula.setGeneros(peliculaGeneroDAO.findByPelicula(idPelicula));
-        Pelicula.setActores(peliculaActorDAO.findByPelicula(idPelicula));
-        Pelicula.setDirectores(peliculaDirectorDAO.findByPelicula(idPelicula));
-
-        return Pelicula;
+        Pelicula cacheada = CachePeliculas.obtener(idPelicula);
+        if (cacheada != null) {
+            return cacheada;
+        }
+        long generacion = CachePeliculas.generacion();
+        Pelicula pelicula = findByIdEagerSinCache(idPelicula);
+        if (pelicula != null) {
+            Conexion.getInstance().alConfirmar(() -> CachePeliculas.guardar(pelicula, generacion));
+        }
+        return pelicula;
     }
 
     /**
-     * Obtiene una página de películas de la base de datos.
+     * Lee de la base de datos una película con todas sus relaciones.
      *
-     * @param page     el número de página a obtener.
-     * @param pageSize el tamaño de la página.
-     * @return una lista de películas de la página especificada.
+     * @param idPelicula el ID de la película a buscar.
+     * @return la película encontrada, o null si no se encuentra.
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
-    public List<Pelicula> findPage(int page, int pageSize) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        List<Pelicula> listaPelicula = new ArrayList<>();
-        int offset = (page - 1) * pageSize;
-
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_PAGE)) {
-            st.setInt(1, pageSize);
-            st.setInt(2, offset);
+    private Pelicula findByIdEagerSinCache(int idPelicula) throws SQLException {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_ID_EAGER)) {
+            for (int i = 1; i <= 4; i++) {
+                st.setInt(i, idPelicula);
+            }
             try (ResultSet rs = st.executeQuery()) {
+                Pelicula pelicula = null;
                 while (rs.next()) {
-                    Pelicula pelicula = mapeoPelicula(rs);
-                    listaPelicula.add(pelicula);
+                    if (pelicula == null) {
+                        pelicula = mapeoPelicula(rs);
+                        for (CargadorRelaciones.Relacion relacion : CargadorRelaciones.Relacion.values()) {
+                            relacion.inicializar(pelicula);
+                        }
+                    }
+                    CargadorRelaciones.Relacion relacion = CargadorRelaciones.Relacion.deCodigo(rs.getString("tipo"));
+                    if (relacion != null) {
+                        relacion.anadir(pelicula, rs.getInt("id"), rs.getString("nombre"));
+                    }
                 }
+                return pelicula;
             }
         }
-        cargarGenerosEnLote(listaPelicula);
-
-        return listaPelicula;
     }
 
     /**
@@ -212,7 +313,6 @@ public class PeliculaDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public int countPeliculas(Integer year, Double ratingMin, Integer idGenero, String filtroTitulo) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
         // 1. Se crea una lista para almacenar los parámetros que se usarán en la consulta.
         List<Object> parametros = new ArrayList<>();
         // 2. Se construye el fragmento de SQL dinámico (JOINs y WHERE) y se llena la lista de parámetros.
@@ -220,7 +320,8 @@ public class PeliculaDAO {
         // 3. Se combina el SQL base con el fragmento dinámico.
         String sql = SQL_COUNT_BASE + sqlPart;
 
-        try (PreparedStatement st = conn.prepareStatement(sql)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(sql)) {
             // 4. Se asignan los parámetros a la consulta preparada.
             for (int i = 0; i < parametros.size(); i++) {
                 st.setObject(i + 1, parametros.get(i));
@@ -236,51 +337,30 @@ public class PeliculaDAO {
     }
 
     /**
-     * Busca y devuelve una lista paginada de películas aplicando filtros dinámicos.
+     * Busca una página de películas con filtros dinámicos usando paginación por clave.
+     * Cada página se resuelve con una búsqueda por índice sobre
+     * {@code idpelicula} en lugar de descartar filas con OFFSET.
      *
      * @param year         El año para filtrar (opcional).
      * @param ratingMin    El rating mínimo para filtrar (opcional).
      * @param idGenero     El ID del género para filtrar (opcional).
      * @param filtroTitulo El término de búsqueda para el título (opcional).
-     * @param page         El número de página para la paginación.
+     * @param cursor       El cursor de la página a cargar (de una {@link PaginaPeliculas} anterior),
+     *                     o null para la primera página.
      * @param pageSize     El tamaño de cada página.
-     * @return Una lista de objetos {@link Pelicula} que coinciden con los criterios.
+     * @return La página de películas, con el total del filtro y el cursor de la página siguiente.
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
-    public List<Pelicula> findFiltered(Integer year, Double ratingMin, Integer idGenero, String filtroTitulo, int page, int pageSize) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        List<Pelicula> listaPelicula = new ArrayList<>();
-        // 1. Se crea una lista para almacenar los parámetros que se usarán en la consulta.
+    public PaginaPeliculas findPagina(Integer year, Double ratingMin, Integer idGenero, String filtroTitulo, String cursor, int pageSize) throws SQLException {
         List<Object> parametros = new ArrayList<>();
-
-        // 2. Se construye el fragmento de SQL dinámico (JOINs y WHERE) y se llena la lista de parámetros.
-        String sqlPart = construirCondicionesFiltro(year, ratingMin, idGenero, filtroTitulo, parametros);
-        // 3. Se combina el SQL base, el fragmento dinámico y la paginación.
-        String sql = SQL_FILTER_SELECT + sqlPart + " " + SQL_FILTER_PAGINATION;
-
-        // 4. Se añaden los parámetros de paginación a la lista.
-        parametros.add(pageSize);
-        parametros.add((page - 1) * pageSize);
-
-        try (PreparedStatement st = conn.prepareStatement(sql)) {
-            // 5. Se asignan todos los parámetros (filtros + paginación) a la consulta preparada.
-            for (int i = 0; i < parametros.size(); i++) {
-                st.setObject(i + 1, parametros.get(i));
-            }
-
-            try (ResultSet rs = st.executeQuery()) {
-                while (rs.next()) {
-                    listaPelicula.add(mapeoPelicula(rs));
-                }
-            }
-        }
-
-        cargarGenerosEnLote(listaPelicula);
-        return listaPelicula;
+        List<String> condiciones = condicionesFiltro(year, ratingMin, idGenero, filtroTitulo, parametros);
+        String firma = CacheTotales.firma("peliculas", year, ratingMin, idGenero, filtroTitulo);
+        return paginador.buscar(SQL_KEYSET_FROM, condiciones, parametros, firma,
+                () -> countPeliculas(year, ratingMin, idGenero, filtroTitulo), cursor, pageSize);
     }
 
     /**
-     * Centraliza la lógica de construcción de las cláusulas SQL dinámicas (JOIN y WHERE) para los filtros.
+     * Centraliza la lógica de construcción de la cláusula WHERE dinámica para los filtros.
      *
      * @param year         El año para filtrar.
      * @param ratingMin    El rating mínimo para filtrar.
@@ -290,13 +370,28 @@ public class PeliculaDAO {
      * @return Un String que contiene el fragmento de SQL generado.
      */
     private String construirCondicionesFiltro(Integer year, Double ratingMin, Integer idGenero, String filtroTitulo, List<Object> parametros) {
-        StringBuilder consultaConstruida = new StringBuilder();
+        List<String> condiciones = condicionesFiltro(year, ratingMin, idGenero, filtroTitulo, parametros);
 
-        // Si se filtra por género, se necesita hacer un JOIN con la tabla de relación.
-        if (idGenero != null) {
-            consultaConstruida.append("JOIN peliculagenero pg ON p.idpelicula = pg.idpelicula ");
+        // Si hay condiciones, se unen con "AND" y se añaden a la cláusula WHERE.
+        if (condiciones.isEmpty()) {
+            return "";
         }
+        return "WHERE " + String.join(" AND ", condiciones);
+    }
 
+    /**
+     * Construye la lista de condiciones SQL de los filtros indicados.
+     * El filtro de género usa EXISTS en lugar de un JOIN, de modo que no duplica filas
+     * y no hace falta DISTINCT.
+     *
+     * @param year         El año para filtrar.
+     * @param ratingMin    El rating mínimo para filtrar.
+     * @param idGenero     El ID del género para filtrar.
+     * @param filtroTitulo El término de búsqueda para el título.
+     * @param parametros   La lista de parámetros que se llenará.
+     * @return Las condiciones, sobre la tabla pelicula con alias {@code p}.
+     */
+    static List<String> condicionesFiltro(Integer year, Double ratingMin, Integer idGenero, String filtroTitulo, List<Object> parametros) {
         List<String> condiciones = new ArrayList<>();
 
         // Para cada filtro que no sea nulo, se añade la condición SQL a una lista
@@ -310,67 +405,60 @@ public class PeliculaDAO {
             parametros.add(ratingMin);
         }
         if (idGenero != null) {
-            condiciones.add("pg.idgenero = ?");
+            condiciones.add("EXISTS (SELECT 1 FROM peliculagenero pg WHERE pg.idpelicula = p.idpelicula AND pg.idgenero = ?)");
             parametros.add(idGenero);
         }
         if (filtroTitulo != null && !filtroTitulo.isBlank()) {
             condiciones.add("LOWER(p.titulopelicula) LIKE LOWER(?)");
             parametros.add("%" + filtroTitulo + "%");
         }
-
-        // Si hay condiciones, se unen con "AND" y se añaden a la cláusula WHERE.
-        if (!condiciones.isEmpty()) {
-            consultaConstruida.append("WHERE ").append(String.join(" AND ", condiciones));
-        }
-
-        return consultaConstruida.toString();
+        return condiciones;
     }
 
     /**
      * Carga los géneros de una lista de películas en un solo lote para optimizar las consultas a la base de datos.
+     * Las películas que están en {@link CachePeliculas} toman los géneros de ella.
      *
      * @param peliculas la lista de películas a la que se le cargarán los géneros.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
-    public void cargarGenerosEnLote(List<Pelicula> peliculas) {
-        if (peliculas.isEmpty()) return;
-        Connection conn = Conexion.getInstance().getConnection();
-
-        Map<Integer, Pelicula> peliculasPorId = peliculas.stream()
-                .collect(Collectors.toMap(Pelicula::getIdPelicula, p -> p));
-
-        List<Integer> ids = new ArrayList<>(peliculasPorId.keySet());
-
-        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
-        String sqlFinal = String.format(SQL_FIND_GENEROS_LOTE, placeholders);
-
-        try {
-
-            try (PreparedStatement ps = conn.prepareStatement(sqlFinal)) {
+    public void cargarGenerosEnLote(List<Pelicula> peliculas) throws SQLException {
+        CargadorRelaciones.cargar(completarDesdeCache(peliculas), CargadorRelaciones.Relacion.GENEROS);
+    }
 
-                for (int i = 0; i < ids.size(); i++) {
-                    ps.setInt(i + 1, ids.get(i));
-                }
+    /**
+     * Carga las relaciones indicadas (todas si no se indica ninguna) de una lista de películas,
+     * con una consulta por relación y bloque de IDs. Las películas que están en {@link CachePeliculas}
+     * toman las relaciones de ella.
+     *
+     * @param peliculas la lista de películas a completar.
+     * @param relaciones las relaciones a cargar.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     * @see CargadorRelaciones
+     */
+    public void cargarRelacionesEnLote(List<Pelicula> peliculas, CargadorRelaciones.Relacion... relaciones) throws SQLException {
+        CargadorRelaciones.cargar(completarDesdeCache(peliculas), relaciones);
+    }
 
-                try (ResultSet rs = ps.executeQuery()) {
-                    while (rs.next()) {
-                        int idPelicula = rs.getInt("idpelicula");
-                        Pelicula pelicula = peliculasPorId.get(idPelicula);
-
-                        if (pelicula != null) {
-                            if (pelicula.getGeneros() == null) {
-                                pelicula.setGeneros(new ArrayList<>());
-                            }
-                            Genero genero = new Genero();
-                            genero.setIdGenero(rs.getInt("idgenero"));
-                            genero.setNombreGenero(rs.getString("nombregenero"));
-                            pelicula.getGeneros().add(genero);
-                        }
-                    }
-                }
+    /**
+     * Copia los géneros, actores y directores de las películas que están en {@link CachePeliculas}.
+     *
+     * @param peliculas las películas a completar.
+     * @return las películas que no estaban en caché, cuyas relaciones hay que consultar.
+     */
+    private List<Pelicula> completarDesdeCache(List<Pelicula> peliculas) {
+        List<Pelicula> sinCache = new ArrayList<>(peliculas.size());
+        for (Pelicula p : peliculas) {
+            Pelicula cacheada = CachePeliculas.obtener(p.getIdPelicula());
+            if (cacheada == null) {
+                sinCache.add(p);
+                continue;
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
+            p.setGeneros(cacheada.getGeneros());
+            p.setActores(cacheada.getActores());
+            p.setDirectores(cacheada.getDirectores());
         }
+        return sinCache;
     }
 
     /**
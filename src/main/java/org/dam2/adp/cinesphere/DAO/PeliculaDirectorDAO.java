@@ -2,6 +2,7 @@ package org.dam2.adp.cinesphere.DAO;
 
 import org.dam2.adp.cinesphere.database.Conexion;
 import org.dam2.adp.cinesphere.model.Director;
+import org.dam2.adp.cinesphere.model.Pelicula;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -27,12 +28,39 @@ public class PeliculaDirectorDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public void insert(int idPelicula, int idDirector) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_INSERT)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_INSERT)) {
             st.setInt(1, idPelicula);
             st.setInt(2, idDirector);
             st.executeUpdate();
         }
+        CachePeliculas.invalidarAlConfirmar(List.of(idPelicula));
+    }
+
+    /**
+     * Inserta en una sola ejecución por lotes las relaciones con los directores de varias películas.
+     * Cada película debe tener ya su ID y sus directores con ID asignado.
+     * @param peliculas las películas cuyos directores se van a asociar.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    public void insertLote(List<Pelicula> peliculas) throws SQLException {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_INSERT)) {
+            int pendientes = 0;
+            for (Pelicula p : peliculas) {
+                if (p.getDirectores() == null) continue;
+                for (Director d : p.getDirectores()) {
+                    st.setInt(1, p.getIdPelicula());
+                    st.setInt(2, d.getIdDirector());
+                    st.addBatch();
+                    pendientes++;
+                }
+            }
+            if (pendientes > 0) {
+                st.executeBatch();
+            }
+        }
+        CachePeliculas.invalidarAlConfirmar(peliculas.stream().map(Pelicula::getIdPelicula).toList());
     }
 
     /**
@@ -42,9 +70,9 @@ public class PeliculaDirectorDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public List<Director> findByPelicula(int idPelicula) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
         List<Director> listaPeliculaDirector = new ArrayList<>();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_PELICULA)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_PELICULA)) {
             st.setInt(1, idPelicula);
             try (ResultSet rs = st.executeQuery()) {
                 while (rs.next()) {
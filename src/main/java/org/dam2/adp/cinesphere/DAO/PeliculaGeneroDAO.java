@@ -2,6 +2,7 @@ package org.dam2.adp.cinesphere.DAO;
 
 import org.dam2.adp.cinesphere.database.Conexion;
 import org.dam2.adp.cinesphere.model.Genero;
+import org.dam2.adp.cinesphere.model.Pelicula;
 
 import java.sql.*;
 import java.util.ArrayList;
@@ -26,12 +27,41 @@ public class PeliculaGeneroDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public void insert(int idPelicula, int idGenero) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_INSERT)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_INSERT)) {
             st.setInt(1, idPelicula);
             st.setInt(2, idGenero);
             st.executeUpdate();
+            CacheTotales.invalidarAlConfirmar();
         }
+        CachePeliculas.invalidarAlConfirmar(List.of(idPelicula));
+    }
+
+    /**
+     * Inserta en una sola ejecución por lotes las relaciones con los géneros de varias películas.
+     * Cada película debe tener ya su ID y sus géneros con ID asignado.
+     * @param peliculas las películas cuyos géneros se van a asociar.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    public void insertLote(List<Pelicula> peliculas) throws SQLException {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_INSERT)) {
+            int pendientes = 0;
+            for (Pelicula p : peliculas) {
+                if (p.getGeneros() == null) continue;
+                for (Genero g : p.getGeneros()) {
+                    st.setInt(1, p.getIdPelicula());
+                    st.setInt(2, g.getIdGenero());
+                    st.addBatch();
+                    pendientes++;
+                }
+            }
+            if (pendientes > 0) {
+                st.executeBatch();
+                CacheTotales.invalidarAlConfirmar();
+            }
+        }
+        CachePeliculas.invalidarAlConfirmar(peliculas.stream().map(Pelicula::getIdPelicula).toList());
     }
 
     /**
@@ -41,9 +71,9 @@ public class PeliculaGeneroDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public List<Genero> findByPelicula(int idPelicula) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
         List<Genero> listaPeliculaGenero = new ArrayList<>();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_PELICULA)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_PELICULA)) {
             st.setInt(1, idPelicula);
             try (ResultSet rs = st.executeQuery()) {
                 while (rs.next()) {
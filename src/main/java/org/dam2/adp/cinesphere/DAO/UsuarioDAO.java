@@ -44,8 +44,8 @@ public class UsuarioDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Usuario insert(Usuario usuario) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_INSERT, Statement.RETURN_GENERATED_KEYS)) {
             st.setString(1, usuario.getNombreUsuario());
             st.setString(2, usuario.getEmail());
             st.setString(3, usuario.getPassw());
@@ -71,8 +71,8 @@ public class UsuarioDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Usuario update(Usuario usuario) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_UPDATE)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_UPDATE)) {
             st.setString(1, usuario.getNombreUsuario());
             st.setString(2, usuario.getEmail());
             st.setString(3, usuario.getPassw());
@@ -91,10 +91,13 @@ public class UsuarioDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public boolean delete(Usuario u) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_DELETE)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_DELETE)) {
             st.setInt(1, u.getIdUsuario());
-            return st.executeUpdate() > 0;
+            boolean borrado = st.executeUpdate() > 0;
+            // Sus entradas de milista se borran en cascada.
+            if (borrado) CacheTotales.invalidarAlConfirmar();
+            return borrado;
         }
     }
 
@@ -105,8 +108,8 @@ public class UsuarioDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Usuario findById(int id) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_ID)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_ID)) {
             st.setInt(1, id);
             try (ResultSet rs = st.executeQuery()) {
                 if (rs.next()) {
@@ -124,8 +127,8 @@ public class UsuarioDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Usuario findByName(String name) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_NAME)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_NAME)) {
             st.setString(1, name);
             try (ResultSet rs = st.executeQuery()) {
                 if (rs.next()) {
@@ -143,8 +146,8 @@ public class UsuarioDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public Usuario findByEmail(String email) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_EMAIL)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND_BY_EMAIL)) {
             st.setString(1, email);
             try (ResultSet rs = st.executeQuery()) {
                 if (rs.next()) {
@@ -161,9 +164,9 @@ public class UsuarioDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public List<Usuario> findAll() throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
         List<Usuario> usuarios = new ArrayList<>();
-        try (Statement st = conn.createStatement();
+        try (Connection conn = Conexion.getInstance().getConnection();
+             Statement st = conn.createStatement();
              ResultSet rs = st.executeQuery(SQL_FIND_ALL)) {
 
             while (rs.next()) {
@@ -180,8 +183,8 @@ public class UsuarioDAO {
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
     public void updateRol(int idUsuario, Rol nuevoRol) throws SQLException {
-        Connection conn = Conexion.getInstance().getConnection();
-        try (PreparedStatement st = conn.prepareStatement(SQL_UPDATE_ROL)) {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_UPDATE_ROL)) {
             st.setString(1, nuevoRol.name());
             st.setInt(2, idUsuario);
             st.executeUpdate();
@@ -194,7 +197,7 @@ public class UsuarioDAO {
      * @return un objeto Usuario con los datos de la fila.
      * @throws SQLException si ocurre un error al acceder a los datos del ResultSet.
      */
-    private Usuario mapeoUsuario(ResultSet rs) throws SQLException {
+    Usuario mapeoUsuario(ResultSet rs) throws SQLException {
         Usuario usuario = new Usuario();
         usuario.setIdUsuario(rs.getInt("idusuario"));
         usuario.setNombreUsuario(rs.getString("nombreusuario"));
@@ -2,7 +2,10 @@ package org.dam2.adp.cinesphere;
 
 import javafx.application.Application;
 import javafx.stage.Stage;
+import org.dam2.adp.cinesphere.component.MovieCard;
+import org.dam2.adp.cinesphere.controller.PeliculaDetalleController;
 import org.dam2.adp.cinesphere.database.Conexion;
+import org.dam2.adp.cinesphere.util.CacheImagenes;
 import org.dam2.adp.cinesphere.util.log.LoggingConfig;
 import org.dam2.adp.cinesphere.util.Navigation;
 
@@ -27,6 +30,7 @@ public class Main extends Application {
         LoggingConfig.setup();
 
         Navigation.applyApplicationStyles();
+        CacheImagenes.precargarEnSegundoPlano(MovieCard.CARD_WIDTH, PeliculaDetalleController.ANCHO_POSTER);
 
         logger.log(Level.INFO, "Iniciando la aplicación CineSphere...");
         Navigation.setStage(stage);
@@ -5,7 +5,6 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.control.Tooltip;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
@@ -13,12 +12,14 @@ import javafx.scene.layout.Region;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
 import javafx.scene.shape.Rectangle;
+import org.dam2.adp.cinesphere.model.Genero;
 import org.dam2.adp.cinesphere.model.Pelicula;
+import org.dam2.adp.cinesphere.util.CacheImagenes;
 import org.dam2.adp.cinesphere.util.Navigation;
 import org.dam2.adp.cinesphere.util.SessionManager;
 import org.dam2.adp.cinesphere.util.Utils;
 
-import java.util.stream.Collectors;
+import java.util.List;
 
 /**
  * Componente de UI estandarizado para mostrar una película en una tarjeta.
@@ -26,14 +27,24 @@ import java.util.stream.Collectors;
  */
 public class MovieCard extends VBox {
 
-    private static final double CARD_WIDTH = 180;
+    /** Ancho de la tarjeta, que es también el ancho al que se decodifica su imagen. */
+    public static final double CARD_WIDTH = 180;
     private static final double IMAGE_HEIGHT = 250;
 
+    private final ImageView imageView = new ImageView();
+    private final Label titleLabel = new Label();
+    private final Label yearLabel = new Label();
+    private final Label genreLabel = new Label();
+    private final Tooltip titleTooltip = new Tooltip();
+    private final RatingDisplay ratingDisplay = new RatingDisplay(null);
+
+    private Pelicula pelicula;
+
     /**
-     * Constructor del componente MovieCard.
-     * @param pelicula La película a mostrar en la tarjeta.
+     * Constructor de una tarjeta vacía, que se rellena con {@link #bind(Pelicula)}.
+     * La usan las rejillas que reutilizan tarjetas, como {@link MovieGrid}.
      */
-    public MovieCard(Pelicula pelicula) {
+    public MovieCard() {
         super();
 
         getStyleClass().addAll("movie-card", Styles.ELEVATED_1, Styles.ROUNDED);
@@ -42,34 +53,23 @@ public class MovieCard extends VBox {
         setAlignment(Pos.TOP_LEFT);
         setPrefWidth(CARD_WIDTH);
 
-        ImageView imageView = createImageView(pelicula);
-        
+        imageView.setPreserveRatio(true);
+
         StackPane imageContainer = new StackPane(imageView);
         imageContainer.setPrefSize(CARD_WIDTH, IMAGE_HEIGHT);
-        
+
         Rectangle clip = new Rectangle(CARD_WIDTH, IMAGE_HEIGHT);
         clip.setArcWidth(10);
         clip.setArcHeight(10);
         imageContainer.setClip(clip);
-        
-        Label titleLabel = new Label(pelicula.getTituloPelicula());
+
         titleLabel.getStyleClass().add(Styles.TITLE_4);
         titleLabel.setWrapText(true);
-        titleLabel.setTooltip(new Tooltip(pelicula.getTituloPelicula()));
         titleLabel.setMaxWidth(CARD_WIDTH);
         titleLabel.setPrefHeight(40);
-        String generos = "";
-        if (pelicula.getGeneros() != null) {
-            generos = pelicula.getGeneros().stream()
-                    .map(g -> g.getNombreGenero())
-                    .limit(1)
-                    .collect(Collectors.joining());
-        }
-
-        Label yearLabel = new Label(String.valueOf(pelicula.getYearPelicula()));
+        titleLabel.setTooltip(titleTooltip);
+
         yearLabel.getStyleClass().add(Styles.TEXT_MUTED);
-        
-        Label genreLabel = new Label(generos);
         genreLabel.getStyleClass().add(Styles.TEXT_MUTED);
 
         Region spacer = new Region();
@@ -77,37 +77,49 @@ public class MovieCard extends VBox {
         HBox metadataBox = new HBox(yearLabel, spacer, genreLabel);
         metadataBox.setAlignment(Pos.CENTER_LEFT);
 
-        RatingDisplay ratingDisplay = new RatingDisplay(pelicula.getRatingPelicula());
-
         getChildren().addAll(imageContainer, titleLabel, metadataBox, ratingDisplay);
 
         setOnMouseClicked(event -> {
+            if (pelicula == null) return;
             SessionManager.getInstance().set("selectedPeliculaId", pelicula.getIdPelicula());
             Navigation.navigate("peliculas_detalle.fxml");
         });
     }
 
     /**
-     * Crea y configura el ImageView para la portada de la película.
-     * @param pelicula La película de la que se obtendrá la imagen.
-     * @return Un ImageView configurado.
+     * Constructor del componente MovieCard.
+     * @param pelicula La película a mostrar en la tarjeta.
      */
-    private ImageView createImageView(Pelicula pelicula) {
-        String nombreGenero = "";
-        if (pelicula.getGeneros() != null && !pelicula.getGeneros().isEmpty()) {
-            nombreGenero = pelicula.getGeneros().get(0).getNombreGenero();
-        }
-        String rutaImagen = Utils.obtenerRutaImagenPorGenero(nombreGenero);
-
-        Image image = new Image(
-            getClass().getResource(rutaImagen).toExternalForm(), 
-            CARD_WIDTH, 0,
-            true, true, true
-        );
-
-        ImageView imageView = new ImageView(image);
-        imageView.setPreserveRatio(true);
-        
-        return imageView;
+    public MovieCard(Pelicula pelicula) {
+        this();
+        bind(pelicula);
+    }
+
+    /**
+     * Muestra otra película en la tarjeta, reutilizando sus nodos: solo cambian los textos,
+     * la imagen y las estrellas, sin crear nodos nuevos.
+     * @param pelicula La película a mostrar.
+     */
+    public void bind(Pelicula pelicula) {
+        if (pelicula == this.pelicula) return;
+        this.pelicula = pelicula;
+
+        List<Genero> generos = pelicula.getGeneros();
+        String primerGenero = (generos != null && !generos.isEmpty()) ? generos.get(0).getNombreGenero() : null;
+
+        imageView.setImage(CacheImagenes.obtener(Utils.obtenerRutaImagenPorGenero(primerGenero), CARD_WIDTH));
+        titleLabel.setText(pelicula.getTituloPelicula());
+        titleTooltip.setText(pelicula.getTituloPelicula());
+        yearLabel.setText(pelicula.getYearPelicula() != null ? pelicula.getYearPelicula().toString() : "");
+        genreLabel.setText(primerGenero != null ? primerGenero : "");
+        ratingDisplay.setRating(pelicula.getRatingPelicula());
+    }
+
+    /**
+     * Obtiene la película que muestra la tarjeta.
+     * @return la película, o null si la tarjeta está vacía.
+     */
+    public Pelicula getPelicula() {
+        return pelicula;
     }
 }
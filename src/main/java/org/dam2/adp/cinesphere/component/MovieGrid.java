@@ -0,0 +1,180 @@
+package org.dam2.adp.cinesphere.component;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
+import org.dam2.adp.cinesphere.model.Pelicula;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rejilla virtualizada de películas con desplazamiento infinito.
+ * <p>
+ * Cada fila de la rejilla es una celda de un {@link ListView}, que solo crea las celdas que caben
+ * en pantalla y las reutiliza al desplazarse. Cada celda guarda sus propias {@link MovieCard} y las
+ * vuelve a enlazar con {@link MovieCard#bind(Pelicula)}, así que el número de nodos no depende del
+ * número de películas cargadas. Cuando se muestran las últimas filas se avisa con
+ * {@link #setOnFinAlcanzado(Runnable)} para que se cargue la página siguiente.
+ */
+public class MovieGrid extends StackPane {
+
+    private static final double HGAP = 20;
+    private static final double VGAP = 25;
+    private static final double PADDING = 20;
+
+    /** Filas que faltan por mostrar cuando se pide la página siguiente. */
+    private static final int FILAS_ANTICIPACION = 2;
+
+    private final List<Pelicula> peliculas = new ArrayList<>();
+    private final ObservableList<Integer> filas = FXCollections.observableArrayList();
+    private final ListView<Integer> lista = new ListView<>(filas);
+
+    private int columnas = 1;
+    private Runnable onFinAlcanzado;
+    private boolean finAvisado;
+
+    /**
+     * Constructor de la rejilla vacía.
+     */
+    public MovieGrid() {
+        getStyleClass().add("movie-grid");
+        lista.getStyleClass().add("movie-grid-filas");
+        lista.setFocusTraversable(false);
+        lista.setCellFactory(l -> new FilaPeliculas());
+        getChildren().add(lista);
+
+        widthProperty().addListener((obs, oldVal, newVal) -> ajustarColumnas(newVal.doubleValue()));
+    }
+
+    /**
+     * Indica qué hacer cuando se muestran las últimas filas cargadas, normalmente pedir la página
+     * siguiente y añadirla con {@link #anadir(List)}. Se llama una vez por cada bloque añadido.
+     * @param onFinAlcanzado la acción, que se ejecuta en el hilo de JavaFX fuera del layout.
+     */
+    public void setOnFinAlcanzado(Runnable onFinAlcanzado) {
+        this.onFinAlcanzado = onFinAlcanzado;
+    }
+
+    /**
+     * Añade películas al final de la rejilla.
+     * @param nuevas las películas a añadir.
+     */
+    public void anadir(List<Pelicula> nuevas) {
+        if (nuevas.isEmpty()) return;
+        int ultimaFila = filas.size() - 1;
+        peliculas.addAll(nuevas);
+        finAvisado = false;
+        actualizarFilas();
+        if (ultimaFila >= 0) {
+            // La última fila estaba incompleta y ahora tiene más películas.
+            filas.set(ultimaFila, ultimaFila);
+        }
+    }
+
+    /**
+     * Quita todas las películas y vuelve al principio.
+     */
+    public void limpiar() {
+        peliculas.clear();
+        filas.clear();
+        finAvisado = false;
+        lista.scrollTo(0);
+    }
+
+    /**
+     * Obtiene el número de películas cargadas en la rejilla.
+     * @return el número de películas.
+     */
+    public int getNumeroPeliculas() {
+        return peliculas.size();
+    }
+
+    /**
+     * Recalcula el número de columnas al cambiar el ancho y reparte las películas en filas.
+     * @param ancho el ancho de la rejilla.
+     */
+    private void ajustarColumnas(double ancho) {
+        int nuevas = Math.max(1, (int) ((ancho - 2 * PADDING + HGAP) / (MovieCard.CARD_WIDTH + HGAP)));
+        if (nuevas == columnas) return;
+        columnas = nuevas;
+        filas.clear();
+        actualizarFilas();
+    }
+
+    /**
+     * Ajusta la lista de filas al número de películas y de columnas.
+     */
+    private void actualizarFilas() {
+        int necesarias = (peliculas.size() + columnas - 1) / columnas;
+        if (necesarias > filas.size()) {
+            List<Integer> nuevas = new ArrayList<>(necesarias - filas.size());
+            for (int i = filas.size(); i < necesarias; i++) {
+                nuevas.add(i);
+            }
+            filas.addAll(nuevas);
+        } else if (necesarias < filas.size()) {
+            filas.remove(necesarias, filas.size());
+        }
+    }
+
+    /**
+     * Avisa de que se están mostrando las últimas filas. El aviso se aplaza con
+     * {@link Platform#runLater(Runnable)} porque llega desde el layout de las celdas.
+     * @param fila la fila que se acaba de mostrar.
+     */
+    private void comprobarFin(int fila) {
+        if (finAvisado || onFinAlcanzado == null || fila < filas.size() - 1 - FILAS_ANTICIPACION) return;
+        finAvisado = true;
+        Platform.runLater(onFinAlcanzado);
+    }
+
+    /**
+     * Celda que muestra una fila de tarjetas. Las tarjetas se crean al necesitarse y se reutilizan
+     * cada vez que la celda pasa a mostrar otra fila.
+     */
+    private class FilaPeliculas extends ListCell<Integer> {
+
+        private final HBox tarjetas = new HBox(HGAP);
+
+        FilaPeliculas() {
+            tarjetas.setPadding(new Insets(0, PADDING, VGAP, PADDING));
+            getStyleClass().add("movie-grid-fila");
+        }
+
+        @Override
+        protected void updateItem(Integer fila, boolean empty) {
+            super.updateItem(fila, empty);
+            if (empty || fila == null) {
+                setGraphic(null);
+                return;
+            }
+
+            while (tarjetas.getChildren().size() < columnas) {
+                tarjetas.getChildren().add(new MovieCard());
+            }
+            if (tarjetas.getChildren().size() > columnas) {
+                tarjetas.getChildren().remove(columnas, tarjetas.getChildren().size());
+            }
+
+            int inicio = fila * columnas;
+            for (int i = 0; i < columnas; i++) {
+                MovieCard card = (MovieCard) tarjetas.getChildren().get(i);
+                int indice = inicio + i;
+                if (indice < peliculas.size()) {
+                    card.bind(peliculas.get(indice));
+                    card.setVisible(true);
+                } else {
+                    card.setVisible(false);
+                }
+            }
+            setGraphic(tarjetas);
+            comprobarFin(fila);
+        }
+    }
+}
@@ -8,43 +8,88 @@ import javafx.scene.layout.HBox;
 
 /**
  * Componente visual para mostrar una calificación con estrellas y un valor numérico.
+ * Las estrellas y la etiqueta se crean una vez; {@link #setRating(Double)} solo cambia su estilo y su texto.
  */
 public class RatingDisplay extends HBox {
 
+    private static final int NUM_STARS = 5;
+    private static final String STYLE_FILLED = "strong";
+
+    /** Textos de los ratings de 0.0 a 10.0, para no formatear uno nuevo en cada cambio. */
+    private static final String[] TEXTOS_RATING = new String[101];
+
+    static {
+        for (int i = 0; i < TEXTOS_RATING.length; i++) {
+            TEXTOS_RATING[i] = String.format("%.1f", i / 10.0);
+        }
+    }
+
+    private final Button[] stars = new Button[NUM_STARS];
+    private final Label ratingValue = new Label();
+    private int filledStars = 0;
+
     /**
      * Constructor del componente RatingDisplay.
      * @param rating El rating numérico (de 0 a 10) a mostrar.
      */
     public RatingDisplay(Double rating) {
         super(2);
-        initialize(rating);
+        initialize();
+        setRating(rating);
     }
 
     /**
      * Inicializa y construye el componente visual de rating.
-     * @param rating El rating numérico a visualizar.
      */
-    private void initialize(Double rating) {
+    private void initialize() {
         getStyleClass().add("rating");
         setAlignment(Pos.CENTER_LEFT);
 
-        int numStars = 5;
-        int filledStars = (rating != null) ? (int) (rating / 2) : 0;
-
-        for (int i = 0; i < numStars; i++) {
+        for (int i = 0; i < NUM_STARS; i++) {
             Button star = new Button("★");
             star.getStyleClass().addAll("button", Styles.FLAT);
             star.setDisable(true);
-            if (i < filledStars) {
-                star.getStyleClass().add("strong");
-            }
+            stars[i] = star;
             getChildren().add(star);
         }
 
-        if (rating != null) {
-            Label ratingValue = new Label(String.format("%.1f", rating));
-            ratingValue.getStyleClass().addAll(Styles.TEXT_SMALL, Styles.TEXT_MUTED);
-            getChildren().add(ratingValue);
+        ratingValue.getStyleClass().addAll(Styles.TEXT_SMALL, Styles.TEXT_MUTED);
+        ratingValue.managedProperty().bind(ratingValue.visibleProperty());
+        getChildren().add(ratingValue);
+    }
+
+    /**
+     * Muestra otro rating, cambiando solo las estrellas que pasan de llenas a vacías o al revés.
+     * @param rating El rating numérico (de 0 a 10), o null para no mostrar valor.
+     */
+    public void setRating(Double rating) {
+        int filled = estrellasLlenas(rating);
+        for (int i = Math.min(filled, filledStars); i < Math.max(filled, filledStars); i++) {
+            if (i < filled) {
+                stars[i].getStyleClass().add(STYLE_FILLED);
+            } else {
+                stars[i].getStyleClass().remove(STYLE_FILLED);
+            }
+        }
+        filledStars = filled;
+
+        if (rating == null) {
+            ratingValue.setVisible(false);
+            return;
         }
+        long decimas = Math.round(rating * 10);
+        ratingValue.setText(decimas >= 0 && decimas < TEXTOS_RATING.length
+                ? TEXTOS_RATING[(int) decimas]
+                : String.format("%.1f", rating));
+        ratingValue.setVisible(true);
+    }
+
+    /**
+     * Calcula cuántas estrellas se muestran llenas para un rating: una por cada dos puntos.
+     * @param rating El rating numérico (de 0 a 10), o null.
+     * @return el número de estrellas llenas, de 0 a {@value #NUM_STARS}.
+     */
+    static int estrellasLlenas(Double rating) {
+        return (rating != null) ? Math.max(0, Math.min(NUM_STARS, (int) (rating / 2))) : 0;
     }
 }
@@ -7,9 +7,11 @@ import javafx.scene.chart.BarChart;
 import javafx.scene.chart.PieChart;
 import javafx.scene.chart.XYChart;
 import javafx.scene.control.Label;
+import org.dam2.adp.cinesphere.DAO.DAOAsincrono;
 import org.dam2.adp.cinesphere.DAO.MiListaDAO;
 import org.dam2.adp.cinesphere.model.PeliculaEstado;
 import org.dam2.adp.cinesphere.model.Usuario;
+import org.dam2.adp.cinesphere.util.HiloFX;
 import org.dam2.adp.cinesphere.util.SessionManager;
 
 import java.sql.SQLException;
@@ -20,7 +22,7 @@ import java.util.logging.Logger;
 /**
  * Controlador para la vista de estadísticas, que muestra datos sobre la actividad del usuario.
  */
-public class EstadisticasController {
+public class EstadisticasController implements VistaRefrescable {
 
     @FXML private Label lblTotalGuardadas;
     @FXML private Label lblPeliculasVistas;
@@ -33,7 +35,19 @@ public class EstadisticasController {
     private static final Logger logger = Logger.getLogger(EstadisticasController.class.getName());
 
     /**
-     * Inicializa el controlador, cargando las estadísticas del usuario actual.
+     * Datos de la vista, leídos de la base de datos en segundo plano.
+     * @param total el número total de películas guardadas.
+     * @param vistas el número de películas terminadas.
+     * @param minutosVistos la duración total de las películas terminadas.
+     * @param estados el número de películas por estado.
+     * @param generos el número de películas por género.
+     */
+    private record Estadisticas(int total, int vistas, int minutosVistos,
+                                Map<PeliculaEstado, Integer> estados, Map<String, Integer> generos) {
+    }
+
+    /**
+     * Inicializa el controlador, cargando las estadísticas del usuario actual en segundo plano.
      */
     @FXML
     private void initialize() {
@@ -47,31 +61,51 @@ public class EstadisticasController {
             return;
         }
 
-        int idUsuario = usuario.getIdUsuario();
-        logger.log(Level.INFO, "Cargando estadísticas para el usuario ID: " + idUsuario);
+        cargarEstadisticas(usuario.getIdUsuario());
+    }
 
-        try {
-            cargarKPIs(idUsuario);
-            cargarPieEstados(idUsuario);
-            cargarBarGeneros(idUsuario);
-            logger.log(Level.INFO, "Estadísticas cargadas correctamente.");
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error al cargar las estadísticas", e);
+    /**
+     * Vuelve a cargar las estadísticas después de que haya cambiado la lista del usuario.
+     */
+    @Override
+    public void refrescar() {
+        Usuario usuario = SessionManager.getInstance().getUsuarioActual();
+        if (usuario != null) {
+            cargarEstadisticas(usuario.getIdUsuario());
         }
     }
 
     /**
-     * Carga los indicadores clave de rendimiento (KPIs) del usuario.
+     * Carga en segundo plano las estadísticas de un usuario y las muestra al terminar.
      * @param idUsuario el ID del usuario.
+     */
+    private void cargarEstadisticas(int idUsuario) {
+        logger.log(Level.INFO, "Cargando estadísticas para el usuario ID: " + idUsuario);
+
+        HiloFX.alTerminar(DAOAsincrono.consultar(() -> leerEstadisticas(idUsuario)),
+                datos -> {
+                    setKPIs(datos.total(), datos.vistas(), datos.minutosVistos());
+                    cargarPieEstados(datos.estados());
+                    cargarBarGeneros(datos.generos());
+                    logger.log(Level.INFO, "Estadísticas cargadas correctamente.");
+                },
+                e -> logger.log(Level.SEVERE, "Error al cargar las estadísticas", e));
+    }
+
+    /**
+     * Lee de la base de datos todas las estadísticas del usuario. Se ejecuta fuera del hilo de JavaFX.
+     * @param idUsuario el ID del usuario.
+     * @return las estadísticas leídas.
      * @throws SQLException si ocurre un error al acceder a la base de datos.
      */
-    private void cargarKPIs(int idUsuario) throws SQLException {
-        logger.log(Level.INFO, "Cargando KPIs...");
+    private Estadisticas leerEstadisticas(int idUsuario) throws SQLException {
         int total = miListaDAO.countGuardadas(idUsuario);
         int vistas = miListaDAO.countByEstado(idUsuario, PeliculaEstado.TERMINADA);
         int minutosVistos = miListaDAO.sumDuracionTerminadas(idUsuario);
-        setKPIs(total, vistas, minutosVistos);
         logger.log(Level.INFO, "KPIs cargados: Total=" + total + ", Vistas=" + vistas + ", Minutos=" + minutosVistos);
+        return new Estadisticas(total, vistas, minutosVistos,
+                miListaDAO.getEstadisticasEstados(idUsuario),
+                miListaDAO.getConteoGenerosByUsuario(idUsuario));
     }
 
     /**
@@ -99,12 +133,10 @@ public class EstadisticasController {
 
     /**
      * Carga el gráfico de tarta con las estadísticas de estados de las películas del usuario.
-     * @param idUsuario el ID del usuario.
-     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     * @param mapa el número de películas por estado.
      */
-    private void cargarPieEstados(int idUsuario) throws SQLException {
+    private void cargarPieEstados(Map<PeliculaEstado, Integer> mapa) {
         logger.log(Level.INFO, "Cargando gráfico de estados...");
-        Map<PeliculaEstado, Integer> mapa = miListaDAO.getEstadisticasEstados(idUsuario);
         ObservableList<PieChart.Data> datos = FXCollections.observableArrayList();
         int suma = 0;
         for (Map.Entry<PeliculaEstado, Integer> e : mapa.entrySet()) {
@@ -121,15 +153,14 @@ public class EstadisticasController {
 
     /**
      * Carga el gráfico de barras con las estadísticas de géneros de las películas del usuario.
-     * @param idUsuario el ID del usuario.
-     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     * @param generos el número de películas por género.
      */
-    private void cargarBarGeneros(int idUsuario) throws SQLException {
+    private void cargarBarGeneros(Map<String, Integer> generos) {
         logger.log(Level.INFO, "Cargando gráfico de géneros...");
         XYChart.Series<String, Number> series = new XYChart.Series<>();
         series.setName("Cantidad por género");
 
-        for (Map.Entry<String, Integer> e : miListaDAO.getConteoGenerosByUsuario(idUsuario).entrySet()) {
+        for (Map.Entry<String, Integer> e : generos.entrySet()) {
             series.getData().add(new XYChart.Data<>(e.getKey(), e.getValue())); //añade texto eje x cantidad eje y
         }
 
@@ -2,12 +2,16 @@ package org.dam2.adp.cinesphere.controller;
 
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import org.dam2.adp.cinesphere.DAO.CachePeliculas;
+import org.dam2.adp.cinesphere.DAO.CacheReferencias;
+import org.dam2.adp.cinesphere.DAO.DAOAsincrono;
 import org.dam2.adp.cinesphere.DAO.UsuarioDAO;
 import org.dam2.adp.cinesphere.database.Conexion;
 import org.dam2.adp.cinesphere.database.DatabaseSchema;
 import org.dam2.adp.cinesphere.model.Rol;
 import org.dam2.adp.cinesphere.model.Usuario;
 import org.dam2.adp.cinesphere.util.AlertUtils;
+import org.dam2.adp.cinesphere.util.HiloFX;
 import org.dam2.adp.cinesphere.util.Navigation;
 import org.dam2.adp.cinesphere.util.SessionManager;
 import org.mindrot.jbcrypt.BCrypt;
@@ -78,14 +82,36 @@ public class LoginController {
     }
 
     /**
-     * Intenta establecer la conexión a la base de datos y actualiza la UI.
+     * Establece la conexión a la base de datos en segundo plano y actualiza la UI al terminar.
      */
     private void conectar() {
-        if (establecerConexion()) {
-            actualizarUiConectado(true);
-        } else {
-            actualizarUiConectado(false);
-        }
+        String seleccion = cbBaseDatos.getValue();
+        btnConectar.setDisable(true);
+        cbBaseDatos.setDisable(true);
+        habilitarFormulario(false);
+        lblEstadoConexion.setText("Estado: Conectando...");
+        lblEstadoConexion.setStyle("-fx-text-fill: #7f8c8d;");
+
+        HiloFX.alTerminar(DAOAsincrono.ejecutar(() -> establecerConexion(seleccion)),
+                r -> {
+                    logger.log(Level.INFO, "Conexión establecida.");
+                    finalizarConexion(true);
+                },
+                e -> {
+                    logger.log(Level.SEVERE, "Fallo de conexión", e);
+                    AlertUtils.error("No se pudo conectar:\n" + e.getMessage());
+                    finalizarConexion(false);
+                });
+    }
+
+    /**
+     * Vuelve a habilitar la selección de BD y muestra el resultado de la conexión.
+     * @param exito true si la conexión fue exitosa.
+     */
+    private void finalizarConexion(boolean exito) {
+        btnConectar.setDisable(false);
+        cbBaseDatos.setDisable(false);
+        actualizarUiConectado(exito);
     }
 
     /**
@@ -107,29 +133,36 @@ public class LoginController {
 
     /**
      * Intenta iniciar sesión con los datos introducidos por el usuario.
+     * La consulta y la comprobación de la contraseña se hacen en segundo plano.
      */
     private void intentarLogin() {
         if (!validarPreLogin()) return;
 
         String nombreUsuario = txtUsuario.getText();
         String password = txtPassword.getText();
-
-        try {
-            if (usuarioDAO == null) usuarioDAO = new UsuarioDAO();
-
-            Usuario u = usuarioDAO.findByName(nombreUsuario);
-
-            if (u != null && BCrypt.checkpw(password, u.getPassw())) {
-                realizarLoginExitoso(u);
-            } else {
-                AlertUtils.error("Usuario o contraseña incorrectos.");
-                logger.log(Level.WARNING, "Login fallido para: " + nombreUsuario);
-            }
-
-        } catch (Exception ex) {
-            logger.log(Level.SEVERE, "Error durante el inicio de sesión", ex);
-            AlertUtils.error("Error crítico al iniciar sesión: " + ex.getMessage());
-        }
+        if (usuarioDAO == null) usuarioDAO = new UsuarioDAO();
+        UsuarioDAO dao = usuarioDAO;
+        btnLogin.setDisable(true);
+
+        HiloFX.alTerminar(
+                DAOAsincrono.consultar(() -> {
+                    Usuario u = dao.findByName(nombreUsuario);
+                    return u != null && BCrypt.checkpw(password, u.getPassw()) ? u : null;
+                }),
+                u -> {
+                    btnLogin.setDisable(false);
+                    if (u != null) {
+                        realizarLoginExitoso(u);
+                    } else {
+                        AlertUtils.error("Usuario o contraseña incorrectos.");
+                        logger.log(Level.WARNING, "Login fallido para: " + nombreUsuario);
+                    }
+                },
+                ex -> {
+                    btnLogin.setDisable(false);
+                    logger.log(Level.SEVERE, "Error durante el inicio de sesión", ex);
+                    AlertUtils.error("Error crítico al iniciar sesión: " + ex.getMessage());
+                });
     }
 
     /**
@@ -159,30 +192,24 @@ public class LoginController {
     }
 
     /**
-     * Establece la conexión a la base de datos.
-     * @return true si la conexión se ha establecido correctamente, false en caso contrario.
+     * Establece la conexión a la base de datos. Se ejecuta fuera del hilo de JavaFX.
+     * @param seleccion la base de datos elegida en el ComboBox.
+     * @throws Exception si no se puede conectar o inicializar el esquema.
      */
-    private boolean establecerConexion() {
-        String seleccion = cbBaseDatos.getValue();
-
+    private void establecerConexion(String seleccion) throws Exception {
         String archivoConfig = seleccion.startsWith("SQLite")
                 ? "config-sqlite.properties"
                 : "config-postgres.properties";
 
         logger.log(Level.INFO, "Conectando a: " + seleccion);
 
-        try {
-            Conexion.getInstance().disconnect();
-            Conexion.getInstance().connect(archivoConfig);
-            DatabaseSchema.inicializar();
-            crearAdminPorDefecto();
-            logger.log(Level.INFO, "Conexión establecida.");
-            return true;
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Fallo de conexión", e);
-            AlertUtils.error("No se pudo conectar:\n" + e.getMessage());
-            return false;
-        }
+        Conexion.getInstance().disconnect();
+        Conexion.getInstance().connect(archivoConfig);
+        DatabaseSchema.inicializar();
+        CacheReferencias.invalidar();
+        CachePeliculas.invalidar();
+        CacheReferencias.precargar();
+        crearAdminPorDefecto();
     }
 
     /**
@@ -5,15 +5,27 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.control.Button;
 import javafx.scene.layout.StackPane;
+import org.dam2.adp.cinesphere.util.HiloFX;
 import org.dam2.adp.cinesphere.util.Navigation;
 import org.dam2.adp.cinesphere.util.SessionManager;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Controlador principal que gestiona la navegación y el contenido de la ventana principal.
+ * <p>
+ * Las vistas de las pestañas se cargan una sola vez por sesión y se conservan con su controlador,
+ * así que volver a una pestaña no repite el análisis del FXML ni las consultas de su {@code initialize}.
+ * Si sus datos cambian en otra vista, se marcan como obsoletas y se refrescan al volver a mostrarlas.
  */
 public class MainController {
 
@@ -32,6 +44,27 @@ public class MainController {
 
     private static final Logger logger = Logger.getLogger(MainController.class.getName());
 
+    /** Vistas que se conservan cargadas al cambiar de pestaña. */
+    private static final Set<String> VISTAS_CACHEABLES =
+            Set.of("peliculas_lista.fxml", "milista.fxml", "estadisticas.fxml", "settings.fxml");
+
+    /** Vistas que se cargan en segundo plano al iniciar sesión, mientras se muestra el catálogo. */
+    private static final List<String> VISTAS_PRECARGADAS = List.of("milista.fxml", "estadisticas.fxml");
+
+    /**
+     * Vista ya cargada.
+     * @param vista el nodo raíz de la vista.
+     * @param controlador su controlador.
+     */
+    private record VistaCargada(Node vista, Object controlador) {
+    }
+
+    // Solo se acceden desde el hilo de JavaFX.
+    private final Map<String, VistaCargada> vistas = new HashMap<>();
+    private final Map<String, CompletableFuture<VistaCargada>> precargas = new HashMap<>();
+    private final Set<String> obsoletas = new HashSet<>();
+    private String vistaActual;
+
     /**
      * Inicializa el controlador principal, configurando los listeners de los botones de navegación
      * y cargando la vista inicial.
@@ -49,24 +82,149 @@ public class MainController {
         btnLogout.setOnAction(e -> logout());
 
         loadView("peliculas_lista.fxml");
+        precargarVistas();
         logger.log(Level.INFO, "MainController inicializado y vista por defecto cargada.");
     }
 
     /**
-     * Carga una vista FXML en el área de contenido principal.
+     * Muestra una vista FXML en el área de contenido principal. Las vistas cacheables se cargan
+     * solo la primera vez; después se muestra la misma instancia, refrescada si estaba obsoleta.
      *
      * @param fxml el nombre del archivo FXML a cargar.
      */
     public void loadView(String fxml) {
+        vistaActual = fxml;
+
+        VistaCargada cargada = vistas.get(fxml);
+        if (cargada != null) {
+            logger.log(Level.INFO, "Mostrando vista en caché: " + fxml);
+            mostrar(fxml, cargada);
+            return;
+        }
+        if (precargas.containsKey(fxml)) {
+            // Se mostrará en cuanto termine la precarga, si sigue siendo la vista pedida.
+            logger.log(Level.INFO, "Esperando a la precarga de la vista: " + fxml);
+            return;
+        }
+
         try {
             logger.log(Level.INFO, "Cargando vista: " + fxml);
-            Node view = FXMLLoader.load(getClass().getResource("/view/" + fxml));
-            contentArea.getChildren().setAll(view);
+            cargada = cargar(fxml);
+            if (VISTAS_CACHEABLES.contains(fxml)) {
+                vistas.put(fxml, cargada);
+                obsoletas.remove(fxml);
+            }
+            contentArea.getChildren().setAll(cargada.vista());
         } catch (IOException e) {
             logger.log(Level.SEVERE, "Error al cargar la vista FXML: " + fxml, e);
         }
     }
 
+    /**
+     * Marca vistas cacheadas como obsoletas porque han cambiado sus datos. La vista que se está
+     * mostrando se refresca en el momento; las demás, la próxima vez que se muestren.
+     *
+     * @param fxml los nombres de los archivos FXML de las vistas.
+     */
+    public void marcarObsoletas(String... fxml) {
+        for (String vista : fxml) {
+            if (!VISTAS_CACHEABLES.contains(vista)) continue;
+            obsoletas.add(vista);
+            VistaCargada cargada = vistas.get(vista);
+            if (cargada != null && vista.equals(vistaActual)) {
+                refrescarSiObsoleta(vista, cargada);
+            }
+        }
+    }
+
+    /**
+     * Pone una vista ya cargada en el área de contenido, refrescándola antes si estaba obsoleta.
+     *
+     * @param fxml el nombre del archivo FXML de la vista.
+     * @param cargada la vista.
+     */
+    private void mostrar(String fxml, VistaCargada cargada) {
+        refrescarSiObsoleta(fxml, cargada);
+        contentArea.getChildren().setAll(cargada.vista());
+    }
+
+    /**
+     * Refresca una vista si está marcada como obsoleta y su controlador lo permite.
+     *
+     * @param fxml el nombre del archivo FXML de la vista.
+     * @param cargada la vista.
+     */
+    private void refrescarSiObsoleta(String fxml, VistaCargada cargada) {
+        if (obsoletas.remove(fxml) && cargada.controlador() instanceof VistaRefrescable refrescable) {
+            logger.log(Level.INFO, "Refrescando vista obsoleta: " + fxml);
+            refrescable.refrescar();
+        }
+    }
+
+    /**
+     * Carga las vistas de {@link #VISTAS_PRECARGADAS} en un hilo aparte, una detrás de otra, y las
+     * guarda en la caché al terminar. Los nodos pueden crearse fuera del hilo de JavaFX porque aún
+     * no forman parte de ninguna escena; las consultas de sus controladores ya vuelven a él con {@link HiloFX}.
+     */
+    private void precargarVistas() {
+        Map<String, CompletableFuture<VistaCargada>> pendientes = new LinkedHashMap<>();
+        for (String fxml : VISTAS_PRECARGADAS) {
+            if (vistas.containsKey(fxml)) continue;
+            CompletableFuture<VistaCargada> futuro = new CompletableFuture<>();
+            pendientes.put(fxml, futuro);
+            HiloFX.alTerminar(futuro,
+                    cargada -> terminarPrecarga(fxml, cargada),
+                    e -> {
+                        logger.log(Level.WARNING, "No se pudo precargar la vista " + fxml + "; se cargará al abrirla.", e);
+                        terminarPrecarga(fxml, null);
+                    });
+        }
+        precargas.putAll(pendientes);
+
+        Thread hilo = new Thread(() -> {
+            long inicio = System.currentTimeMillis();
+            pendientes.forEach((fxml, futuro) -> {
+                try {
+                    futuro.complete(cargar(fxml));
+                } catch (IOException | RuntimeException e) {
+                    futuro.completeExceptionally(e);
+                }
+            });
+            logger.log(Level.INFO, pendientes.size() + " vistas precargadas en " + (System.currentTimeMillis() - inicio) + " ms.");
+        }, "cinesphere-precarga-vistas");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Guarda una vista precargada y la muestra si se pidió mientras se cargaba.
+     *
+     * @param fxml el nombre del archivo FXML de la vista.
+     * @param cargada la vista, o null si la precarga falló.
+     */
+    private void terminarPrecarga(String fxml, VistaCargada cargada) {
+        precargas.remove(fxml);
+        if (cargada != null) {
+            vistas.putIfAbsent(fxml, cargada);
+        }
+        if (fxml.equals(vistaActual)) {
+            loadView(fxml);
+        }
+    }
+
+    /**
+     * Carga un archivo FXML junto con su controlador.
+     *
+     * @param fxml el nombre del archivo FXML.
+     * @return la vista cargada.
+     * @throws IOException si no se puede cargar el FXML.
+     */
+    private VistaCargada cargar(String fxml) throws IOException {
+        FXMLLoader loader = new FXMLLoader(getClass().getResource("/view/" + fxml));
+        Node vista = loader.load();
+        return new VistaCargada(vista, loader.getController());
+    }
+
     /**
      * Cierra la sesión del usuario actual y navega a la pantalla de login.
      */
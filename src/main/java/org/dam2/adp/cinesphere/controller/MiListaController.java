@@ -4,31 +4,28 @@ import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
 import javafx.scene.control.TextField;
-import javafx.scene.layout.TilePane;
-import org.dam2.adp.cinesphere.DAO.GeneroDAO;
+import org.dam2.adp.cinesphere.DAO.CacheReferencias;
+import org.dam2.adp.cinesphere.DAO.DAOAsincrono;
 import org.dam2.adp.cinesphere.DAO.MiListaDAO;
-import org.dam2.adp.cinesphere.component.MovieCard;
-import org.dam2.adp.cinesphere.model.Pelicula;
+import org.dam2.adp.cinesphere.DAO.PaginaPeliculas;
+import org.dam2.adp.cinesphere.component.MovieGrid;
+import org.dam2.adp.cinesphere.model.Genero;
 import org.dam2.adp.cinesphere.model.Usuario;
+import org.dam2.adp.cinesphere.util.HiloFX;
 import org.dam2.adp.cinesphere.util.Navigation;
 import org.dam2.adp.cinesphere.util.SessionManager;
 
-import java.sql.SQLException;
-import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Controlador para la vista "Mi Lista", que muestra las películas guardadas por el usuario.
  */
-public class MiListaController {
+public class MiListaController implements VistaRefrescable {
 
     @FXML
-    private TilePane tilePeliculas;
-    @FXML
-    private ScrollPane scroll;
+    private MovieGrid grid;
 
     @FXML
     private TextField txtBuscar;
@@ -46,12 +43,9 @@ public class MiListaController {
     private Button btnLimpiar;
 
     @FXML
-    private Button btnFirst, btnPrev, btnNext, btnLast;
-    @FXML
-    private Label lblPage;
+    private Label lblTotal;
 
     private final MiListaDAO miListaDAO = new MiListaDAO();
-    private final GeneroDAO generoDAO = new GeneroDAO();
     private Usuario usuario;
 
     private Integer filtroYear = null;
@@ -59,14 +53,17 @@ public class MiListaController {
     private Integer filtroGeneroId = null;
     private String filtroBusqueda = null;
 
-    private int page = 1;
-    private int pageSize = 18;
-    private int totalPages = 1;
+    /** Películas que se piden en cada carga al desplazarse por la rejilla. */
+    private static final int TAMANO_PAGINA = 48;
+
+    private String cursorSiguiente = null;
+    private boolean cargando = false;
+    private int peticionActual = 0;
 
     private static final Logger logger = Logger.getLogger(MiListaController.class.getName());
 
     /**
-     * Inicializa el controlador, configurando los listeners y cargando la primera página de películas.
+     * Inicializa el controlador, configurando los listeners y cargando las primeras películas.
      */
     @FXML
     private void initialize() {
@@ -78,100 +75,93 @@ public class MiListaController {
             return;
         }
 
-        scroll.widthProperty().addListener((obs, oldVal, newVal) -> {
-            ajustarTamanoPagina(newVal.doubleValue());
-            actualizarTotalPaginas();
-            cargarPagina(page);
-        });
+        grid.setOnFinAlcanzado(this::cargarSiguiente);
 
         for (int y = 2024; y >= 1950; y--) cbYear.getItems().add(y);
         cbRating.getItems().addAll(1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0);
-        try {
-            generoDAO.findAll().forEach(g -> cbGenero.getItems().add(g.getNombreGenero()));
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error al cargar géneros para el ComboBox", e);
-        }
+        cargarGeneros();
 
         btnFiltrar.setOnAction(e -> aplicarFiltros());
         btnLimpiar.setOnAction(e -> limpiarFiltros());
         btnBuscar.setOnAction(e -> aplicarFiltros());
 
-        btnFirst.setOnAction(e -> cambiarPagina(1));
-        btnPrev.setOnAction(e -> cambiarPagina(page - 1));
-        btnNext.setOnAction(e -> cambiarPagina(page + 1));
-        btnLast.setOnAction(e -> cambiarPagina(totalPages));
-
-        ajustarTamanoPagina(scroll.getWidth());
-        actualizarTotalPaginas();
-        cargarPagina(1);
+        recargar();
         logger.log(Level.INFO, "MiListaController inicializado correctamente.");
     }
 
     /**
-     * Cambia a una página específica si está dentro de los límites.
-     *
-     * @param nuevaPagina El número de la página a la que se quiere navegar.
+     * Vuelve a cargar los géneros y las películas de la lista con los filtros actuales, después de que
+     * se hayan añadido, quitado o cambiado películas desde el detalle o tras una importación.
      */
-    private void cambiarPagina(int nuevaPagina) {
-        if (nuevaPagina >= 1 && nuevaPagina <= totalPages) {
-            page = nuevaPagina;
-            cargarPagina(page);
-        }
+    @Override
+    public void refrescar() {
+        cargarGeneros();
+        recargar();
     }
 
     /**
-     * Ajusta el número de películas por página basándose en el ancho del ScrollPane.
-     *
-     * @param scrollWidth El ancho actual del ScrollPane.
+     * Carga en segundo plano los géneros del ComboBox de filtros.
      */
-    private void ajustarTamanoPagina(double scrollWidth) {
-        if (scrollWidth <= 0) {
-            pageSize = 18;
-            return;
-        }
-        int cardWidth = 200;
-        int numColumns = (int) Math.floor(scrollWidth / cardWidth);
-        if (numColumns == 0) numColumns = 1;
-        pageSize = numColumns * 3;
+    private void cargarGeneros() {
+        HiloFX.alTerminar(DAOAsincrono.consultar(CacheReferencias.generos()::todos),
+                generos -> cbGenero.getItems().setAll(generos.stream().map(Genero::getNombreGenero).toList()),
+                e -> logger.log(Level.SEVERE, "Error al cargar géneros para el ComboBox", e));
     }
 
     /**
-     * Calcula y actualiza el número total de páginas basándose en los filtros actuales.
+     * Vacía la rejilla y carga desde el principio las películas que cumplen los filtros actuales.
      */
-    private void actualizarTotalPaginas() {
-        try {
-            int total = miListaDAO.countPeliculas(usuario.getIdUsuario(), filtroYear, filtroRating, filtroGeneroId, filtroBusqueda);
-            totalPages = (int) Math.ceil((double) total / pageSize);
-            if (totalPages == 0) totalPages = 1;
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error al actualizar el total de páginas", e);
-            totalPages = 1;
-        }
+    private void recargar() {
+        grid.limpiar();
+        cursorSiguiente = null;
+        cargarPagina(null);
     }
 
     /**
-     * Carga y muestra las películas de una página específica, aplicando los filtros actuales.
+     * Carga la página siguiente cuando la rejilla llega al final de lo cargado, si hay más películas
+     * y no se está cargando ya otra.
+     */
+    private void cargarSiguiente() {
+        if (cargando || cursorSiguiente == null) return;
+        cargarPagina(cursorSiguiente);
+    }
+
+    /**
+     * Carga en segundo plano la página indicada por un cursor, aplicando los filtros actuales,
+     * y la añade a la rejilla al terminar. Si mientras tanto se han cambiado los filtros, el resultado se descarta.
      *
-     * @param pagina El número de página a cargar.
+     * @param cursor El cursor de la página a cargar, o null para la primera.
      */
-    private void cargarPagina(int pagina) {
-        try {
-            tilePeliculas.getChildren().clear();
-            List<Pelicula> lista = miListaDAO.findFiltered(usuario.getIdUsuario(), filtroYear, filtroRating, filtroGeneroId, filtroBusqueda, pagina, pageSize);
-
-            for (Pelicula p : lista) {
-                MovieCard card = new MovieCard(p);
-                card.setOnMouseClicked(event -> {
-                    SessionManager.getInstance().set("selectedPeliculaId", p.getIdPelicula());
-                    Navigation.navigate("peliculas_detalle.fxml");
+    private void cargarPagina(String cursor) {
+        int peticion = cursor == null ? ++peticionActual : peticionActual;
+        cargando = true;
+        int idUsuario = usuario.getIdUsuario();
+        Integer year = filtroYear;
+        Double rating = filtroRating;
+        Integer idGenero = filtroGeneroId;
+        String busqueda = filtroBusqueda;
+
+        HiloFX.alTerminar(
+                DAOAsincrono.consultar(() -> miListaDAO.findPagina(idUsuario, year, rating, idGenero, busqueda, cursor, TAMANO_PAGINA)),
+                pagina -> {
+                    if (peticion == peticionActual) mostrarPagina(pagina);
+                },
+                e -> {
+                    if (peticion == peticionActual) cargando = false;
+                    logger.log(Level.SEVERE, "Error al cargar las películas de la lista", e);
                 });
-                tilePeliculas.getChildren().add(card);
-            }
-            lblPage.setText(pagina + " / " + totalPages);
+    }
 
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error al cargar la página " + pagina, e);
-        }
+    /**
+     * Añade a la rejilla una página ya cargada y actualiza el total.
+     *
+     * @param pagina La página a añadir.
+     */
+    private void mostrarPagina(PaginaPeliculas pagina) {
+        cargando = false;
+        cursorSiguiente = pagina.siguiente();
+        grid.anadir(pagina.peliculas());
+        lblTotal.setText(grid.getNumeroPeliculas() + " de " + pagina.total() + " películas");
     }
 
     /**
@@ -182,18 +172,21 @@ public class MiListaController {
         filtroRating = cbRating.getValue();
         filtroBusqueda = txtBuscar.getText().trim();
 
-        if (cbGenero.getValue() != null) {
-            try {
-                filtroGeneroId = generoDAO.findByName(cbGenero.getValue()).getIdGenero();
-            } catch (Exception e) {
-                filtroGeneroId = null;
-            }
-        } else {
+        String genero = cbGenero.getValue();
+        if (genero == null) {
             filtroGeneroId = null;
+            recargar();
+            return;
         }
-        page = 1;
-        actualizarTotalPaginas();
-        cargarPagina(page);
+        HiloFX.alTerminar(DAOAsincrono.consultar(() -> CacheReferencias.generos().porNombre(genero)),
+                g -> {
+                    filtroGeneroId = g != null ? g.getIdGenero() : null;
+                    recargar();
+                },
+                e -> {
+                    filtroGeneroId = null;
+                    recargar();
+                });
     }
 
     /**
@@ -208,8 +201,6 @@ public class MiListaController {
         filtroRating = null;
         filtroGeneroId = null;
         filtroBusqueda = null;
-        page = 1;
-        actualizarTotalPaginas();
-        cargarPagina(page);
+        recargar();
     }
 }
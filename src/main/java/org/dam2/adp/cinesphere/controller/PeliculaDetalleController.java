@@ -2,23 +2,25 @@ package org.dam2.adp.cinesphere.controller;
 
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.FlowPane;
 import javafx.scene.layout.HBox;
+import org.dam2.adp.cinesphere.DAO.DAOAsincrono;
 import org.dam2.adp.cinesphere.DAO.MiListaDAO;
 import org.dam2.adp.cinesphere.DAO.PeliculaDAO;
 import org.dam2.adp.cinesphere.component.Chip;
 import org.dam2.adp.cinesphere.component.RatingDisplay;
 import org.dam2.adp.cinesphere.model.*;
 import org.dam2.adp.cinesphere.util.AlertUtils;
+import org.dam2.adp.cinesphere.util.CacheImagenes;
+import org.dam2.adp.cinesphere.util.HiloFX;
 import org.dam2.adp.cinesphere.util.Navigation;
 import org.dam2.adp.cinesphere.util.SessionManager;
 import org.dam2.adp.cinesphere.util.Utils;
 
 import java.awt.Desktop;
 import java.net.URI;
-import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -50,9 +52,14 @@ public class PeliculaDetalleController {
 
     private Pelicula pelicula;
     private Usuario usuario;
+    private boolean actualizandoControles = false;
+    private CompletableFuture<Void> ultimaEscritura = CompletableFuture.completedFuture(null);
 
     private static final Logger logger = Logger.getLogger(PeliculaDetalleController.class.getName());
 
+    /** Ancho del póster en la vista de detalle, el mismo que el fitWidth de imgPoster. */
+    public static final double ANCHO_POSTER = 300;
+
     /**
      * Inicializa el controlador obteniendo la sesión actual y cargando los datos de la película seleccionada.
      * Configura la visibilidad de los controles administrativos si corresponde.
@@ -100,7 +107,7 @@ public class PeliculaDetalleController {
 
         cbEstado.valueProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal != null) {
-                cambiarEstado(newVal);
+                if (!actualizandoControles) cambiarEstado(newVal);
                 gestionarAccesibilidadPuntuacion(newVal);
 
                 if (newVal != PeliculaEstado.TERMINADA) {
@@ -110,7 +117,7 @@ public class PeliculaDetalleController {
         });
 
         cbPuntuacion.valueProperty().addListener((obs, oldVal, newVal) -> {
-            if (newVal != null) cambiarPuntuacion(newVal);
+            if (newVal != null && !actualizandoControles) cambiarPuntuacion(newVal);
         });
     }
 
@@ -125,82 +132,101 @@ public class PeliculaDetalleController {
     }
 
     /**
-     * Recupera la información de la película desde la base de datos y actualiza la interfaz gráfica.
+     * Película y entrada de la lista del usuario, leídas juntas en segundo plano.
+     * @param pelicula la película con sus relaciones.
+     * @param entrada la entrada en la lista del usuario, o null si no la tiene guardada.
+     */
+    private record Detalle(Pelicula pelicula, MiLista entrada) {
+    }
+
+    /**
+     * Recupera en segundo plano la película y su entrada en la lista del usuario, y actualiza la
+     * interfaz gráfica al terminar.
      * @param idPelicula El ID de la película a cargar.
      */
     private void cargarDatos(int idPelicula) {
         logger.log(Level.INFO, "Cargando datos para la película ID: " + idPelicula);
-        try {
-            pelicula = peliculaDAO.findByIdEager(idPelicula);
-            if (pelicula == null) {
-                logger.log(Level.SEVERE, "No se encontró la película con ID: " + idPelicula);
-                return;
-            }
-
-            String clasificacionStr = (pelicula.getClasificacion() != null && pelicula.getClasificacion().getNombreClasificacion() != null)
-                    ? pelicula.getClasificacion().getNombreClasificacion()
-                    : "Sin clasificar";
+        HiloFX.alTerminar(
+                DAOAsincrono.consultar(() -> {
+                    Pelicula p = peliculaDAO.findByIdEager(idPelicula);
+                    return p == null ? null : new Detalle(p, miListaDAO.findAll(usuario.getIdUsuario(), idPelicula));
+                }),
+                detalle -> {
+                    if (detalle == null) {
+                        logger.log(Level.SEVERE, "No se encontró la película con ID: " + idPelicula);
+                        return;
+                    }
+                    mostrarPelicula(detalle.pelicula());
+                    mostrarEstadoMiLista(detalle.entrada());
+                },
+                e -> logger.log(Level.SEVERE, "Error al cargar los datos de la película", e));
+    }
 
-            lblTitulo.setText(pelicula.getTituloPelicula());
-            lblSubtitulo.setText(pelicula.getYearPelicula() + " • " + clasificacionStr);
-            lblClasificacion.setText(clasificacionStr);
-            lblSinopsis.setText("Sinopsis no disponible aún.");
+    /**
+     * Rellena la interfaz con los datos de la película.
+     * @param cargada La película ya cargada con sus géneros, actores y directores.
+     */
+    private void mostrarPelicula(Pelicula cargada) {
+        pelicula = cargada;
 
-            if (ratingContainer != null) {
-                ratingContainer.getChildren().clear();
-                ratingContainer.getChildren().add(new RatingDisplay(pelicula.getRatingPelicula()));
-            }
+        String clasificacionStr = (pelicula.getClasificacion() != null && pelicula.getClasificacion().getNombreClasificacion() != null)
+                ? pelicula.getClasificacion().getNombreClasificacion()
+                : "Sin clasificar";
 
-            String rutaImagen = pelicula.getGeneros().stream().findFirst()
-                    .map(g -> Utils.obtenerRutaImagenPorGenero(g.getNombreGenero()))
-                    .orElse("/img/noImage.png");
+        lblTitulo.setText(pelicula.getTituloPelicula());
+        lblSubtitulo.setText(pelicula.getYearPelicula() + " • " + clasificacionStr);
+        lblClasificacion.setText(clasificacionStr);
+        lblSinopsis.setText("Sinopsis no disponible aún.");
 
-            try {
-                imgPoster.setImage(new Image(getClass().getResource(rutaImagen).toExternalForm()));
-            } catch (Exception e) {
-                logger.log(Level.WARNING, "No se pudo cargar la imagen: " + rutaImagen);
-                imgPoster.setImage(new Image(getClass().getResource("/img/noImage.png").toExternalForm()));
-            }
+        if (ratingContainer != null) {
+            ratingContainer.getChildren().clear();
+            ratingContainer.getChildren().add(new RatingDisplay(pelicula.getRatingPelicula()));
+        }
 
-            flowGeneros.getChildren().setAll(
-                pelicula.getGeneros().stream().map(g -> new Chip(g.getNombreGenero())).collect(Collectors.toList())
-            );
-            flowDirectores.getChildren().setAll(
-                pelicula.getDirectores().stream().map(d -> new Chip(d.getNombreDirector())).collect(Collectors.toList())
-            );
-            flowActores.getChildren().setAll(
-                pelicula.getActores().stream().map(a -> new Chip(a.getNombreActor())).collect(Collectors.toList())
-            );
+        String rutaImagen = pelicula.getGeneros().stream().findFirst()
+                .map(g -> Utils.obtenerRutaImagenPorGenero(g.getNombreGenero()))
+                .orElse(Utils.IMAGEN_POR_DEFECTO);
+        imgPoster.setImage(CacheImagenes.obtener(rutaImagen, ANCHO_POSTER));
 
-            actualizarEstadoMiLista();
-            btnMiLista.setOnAction(e -> addDeleteEnMiLista());
-            btnTrailer.setOnAction(e -> abrirTrailer());
+        flowGeneros.getChildren().setAll(
+            pelicula.getGeneros().stream().map(g -> new Chip(g.getNombreGenero())).collect(Collectors.toList())
+        );
+        flowDirectores.getChildren().setAll(
+            pelicula.getDirectores().stream().map(d -> new Chip(d.getNombreDirector())).collect(Collectors.toList())
+        );
+        flowActores.getChildren().setAll(
+            pelicula.getActores().stream().map(a -> new Chip(a.getNombreActor())).collect(Collectors.toList())
+        );
 
-            logger.log(Level.INFO, "Datos de la película '" + pelicula.getTituloPelicula() + "' cargados correctamente.");
+        btnMiLista.setOnAction(e -> addDeleteEnMiLista());
+        btnTrailer.setOnAction(e -> abrirTrailer());
 
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error al cargar los datos de la película", e);
-        }
+        logger.log(Level.INFO, "Datos de la película '" + pelicula.getTituloPelicula() + "' cargados correctamente.");
     }
 
     /**
-     * Sincroniza los controles de UI con el estado actual de la película en la lista del usuario.
-     * @throws Exception si ocurre un error al acceder a la base de datos.
+     * Sincroniza los controles de UI con el estado de la película en la lista del usuario,
+     * sin volver a escribir en la base de datos los valores que se muestran.
+     * @param ml La entrada de la lista, o null si la película no está guardada.
      */
-    private void actualizarEstadoMiLista() throws Exception {
-        MiLista ml = miListaDAO.findAll(usuario.getIdUsuario(), pelicula.getIdPelicula());
+    private void mostrarEstadoMiLista(MiLista ml) {
         boolean enLista = ml != null;
 
-        btnMiLista.setText(enLista ? "En tu lista" : "Añadir a mi lista");
-        cbEstado.setDisable(!enLista);
-        cbPuntuacion.setDisable(!enLista || ml.getEstado() != PeliculaEstado.TERMINADA);
+        actualizandoControles = true;
+        try {
+            btnMiLista.setText(enLista ? "En tu lista" : "Añadir a mi lista");
+            cbEstado.setDisable(!enLista);
+            cbPuntuacion.setDisable(!enLista || ml.getEstado() != PeliculaEstado.TERMINADA);
 
-        if (enLista) {
-            cbEstado.setValue(ml.getEstado());
-            cbPuntuacion.setValue(ml.getPuntuacion());
-        } else {
-            cbEstado.setValue(null);
-            cbPuntuacion.setValue(null);
+            if (enLista) {
+                cbEstado.setValue(ml.getEstado());
+                cbPuntuacion.setValue(ml.getPuntuacion());
+            } else {
+                cbEstado.setValue(null);
+                cbPuntuacion.setValue(null);
+            }
+        } finally {
+            actualizandoControles = false;
         }
         logger.log(Level.INFO, "Estado de 'Mi Lista' actualizado. Película en lista: " + enLista);
     }
@@ -209,19 +235,29 @@ public class PeliculaDetalleController {
      * Alterna la presencia de la película actual en la lista personal del usuario.
      */
     private void addDeleteEnMiLista() {
-        try {
-            MiLista ml = miListaDAO.findAll(usuario.getIdUsuario(), pelicula.getIdPelicula());
+        int idUsuario = usuario.getIdUsuario();
+        Pelicula actual = pelicula;
+        btnMiLista.setDisable(true);
+        CompletableFuture<MiLista> cambio = encolarEscritura(() -> {
+            MiLista ml = miListaDAO.findAll(idUsuario, actual.getIdPelicula());
             if (ml == null) {
-                miListaDAO.insert(new MiLista(pelicula, usuario, PeliculaEstado.PENDIENTE, null, null));
-                logger.log(Level.INFO, "Película '" + pelicula.getTituloPelicula() + "' añadida a Mi Lista.");
+                miListaDAO.insert(new MiLista(actual, usuario, PeliculaEstado.PENDIENTE, null, null));
+                logger.log(Level.INFO, "Película '" + actual.getTituloPelicula() + "' añadida a Mi Lista.");
             } else {
-                miListaDAO.delete(usuario.getIdUsuario(), pelicula.getIdPelicula());
-                logger.log(Level.INFO, "Película '" + pelicula.getTituloPelicula() + "' eliminada de Mi Lista.");
+                miListaDAO.delete(idUsuario, actual.getIdPelicula());
+                logger.log(Level.INFO, "Película '" + actual.getTituloPelicula() + "' eliminada de Mi Lista.");
             }
-            actualizarEstadoMiLista();
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error al añadir/eliminar de Mi Lista", e);
-        }
+            return miListaDAO.findAll(idUsuario, actual.getIdPelicula());
+        });
+        HiloFX.alTerminar(cambio,
+                ml -> {
+                    btnMiLista.setDisable(false);
+                    mostrarEstadoMiLista(ml);
+                },
+                e -> {
+                    btnMiLista.setDisable(false);
+                    logger.log(Level.SEVERE, "Error al añadir/eliminar de Mi Lista", e);
+                });
     }
 
     /**
@@ -229,12 +265,16 @@ public class PeliculaDetalleController {
      * @param estado El nuevo estado de la película.
      */
     private void cambiarEstado(PeliculaEstado estado) {
-        try {
-            miListaDAO.updateEstado(usuario.getIdUsuario(), pelicula.getIdPelicula(), estado);
-            logger.log(Level.INFO, "Estado de la película '" + pelicula.getTituloPelicula() + "' cambiado a: " + estado);
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error al cambiar el estado de la película", e);
-        }
+        int idUsuario = usuario.getIdUsuario();
+        Pelicula actual = pelicula;
+        encolarEscritura(() -> {
+            miListaDAO.updateEstado(idUsuario, actual.getIdPelicula(), estado);
+            logger.log(Level.INFO, "Estado de la película '" + actual.getTituloPelicula() + "' cambiado a: " + estado);
+            return null;
+        }).exceptionally(e -> {
+            logger.log(Level.SEVERE, "Error al cambiar el estado de la película", HiloFX.causa(e));
+            return null;
+        });
     }
 
     /**
@@ -242,12 +282,32 @@ public class PeliculaDetalleController {
      * @param puntuacion La nueva puntuación de la película.
      */
     private void cambiarPuntuacion(int puntuacion) {
-        try {
-            miListaDAO.updatePuntuacion(usuario.getIdUsuario(), pelicula.getIdPelicula(), puntuacion);
-            logger.log(Level.INFO, "Puntuación de la película '" + pelicula.getTituloPelicula() + "' cambiada a: " + puntuacion);
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error al cambiar la puntuación de la película", e);
-        }
+        int idUsuario = usuario.getIdUsuario();
+        Pelicula actual = pelicula;
+        encolarEscritura(() -> {
+            miListaDAO.updatePuntuacion(idUsuario, actual.getIdPelicula(), puntuacion);
+            logger.log(Level.INFO, "Puntuación de la película '" + actual.getTituloPelicula() + "' cambiada a: " + puntuacion);
+            return null;
+        }).exceptionally(e -> {
+            logger.log(Level.SEVERE, "Error al cambiar la puntuación de la película", HiloFX.causa(e));
+            return null;
+        });
+    }
+
+    /**
+     * Ejecuta una escritura en segundo plano después de las anteriores de esta vista,
+     * para que los cambios rápidos de estado o puntuación lleguen a la base de datos en orden.
+     * @param escritura la escritura a ejecutar.
+     * @param <T> el tipo del resultado.
+     * @return un futuro con el resultado de la escritura.
+     */
+    private <T> CompletableFuture<T> encolarEscritura(DAOAsincrono.Consulta<T> escritura) {
+        CompletableFuture<T> resultado = ultimaEscritura
+                .handle((r, e) -> null)
+                .thenCompose(v -> DAOAsincrono.consultar(escritura));
+        ultimaEscritura = resultado.handle((r, e) -> null);
+        resultado.thenRun(() -> Navigation.marcarObsoletas("milista.fxml", "estadisticas.fxml"));
+        return resultado;
     }
 
     /**
@@ -268,15 +328,20 @@ public class PeliculaDetalleController {
      */
     private void eliminarPelicula() {
         if (AlertUtils.confirmacion("Eliminar Película", "¿Borrar '" + pelicula.getTituloPelicula() + "'?", "Esta acción es irreversible y la eliminará de las listas de todos los usuarios.")) {
-            try {
-                peliculaDAO.delete(pelicula.getIdPelicula());
-                AlertUtils.info("Película eliminada.");
-                logger.log(Level.INFO, "Película '" + pelicula.getTituloPelicula() + "' eliminada por un administrador.");
-                Navigation.navigate("peliculas_lista.fxml");
-            } catch (SQLException e) {
-                logger.log(Level.SEVERE, "Error al eliminar la película", e);
-                AlertUtils.error("Error al eliminar: " + e.getMessage());
-            }
+            HiloFX.alTerminar(encolarEscritura(() -> {
+                        peliculaDAO.delete(pelicula.getIdPelicula());
+                        return null;
+                    }),
+                    r -> {
+                        AlertUtils.info("Película eliminada.");
+                        logger.log(Level.INFO, "Película '" + pelicula.getTituloPelicula() + "' eliminada por un administrador.");
+                        Navigation.marcarObsoletas("peliculas_lista.fxml");
+                        Navigation.navigate("peliculas_lista.fxml");
+                    },
+                    e -> {
+                        logger.log(Level.SEVERE, "Error al eliminar la película", e);
+                        AlertUtils.error("Error al eliminar: " + e.getMessage());
+                    });
         }
     }
 }
@@ -9,8 +9,8 @@ import org.dam2.adp.cinesphere.DAO.*;
 import org.dam2.adp.cinesphere.database.Conexion;
 import org.dam2.adp.cinesphere.model.*;
 import org.dam2.adp.cinesphere.util.AlertUtils;
+import org.dam2.adp.cinesphere.util.Navigation;
 
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
@@ -71,7 +71,6 @@ public class PeliculaFormController {
      */
     private void guardarPelicula() {
         logger.log(Level.INFO, "Iniciando proceso de guardado de película...");
-        Connection conn = Conexion.getInstance().getConnection();
         try {
             if (txtTitulo.getText().isBlank() || txtYear.getText().isBlank()) {
                 AlertUtils.error("El título y el año son obligatorios.");
@@ -99,46 +98,40 @@ public class PeliculaFormController {
             }
 
             String clasifNombre = txtClasificacion.getText().isBlank() ? "Not Rated" : txtClasificacion.getText().trim();
-            Clasificacion clasificacion = clasificacionDAO.findById(clasifNombre);
-            if (clasificacion == null) {
-                clasificacion = new Clasificacion(clasifNombre);
-                clasificacionDAO.insert(clasificacion);
-                logger.log(Level.INFO, "Nueva clasificación creada: " + clasifNombre);
-            }
-
-            conn.setAutoCommit(false);
-            logger.log(Level.INFO, "Transacción iniciada.");
 
             Pelicula p = new Pelicula();
             p.setTituloPelicula(titulo);
             p.setYearPelicula(year);
             p.setRatingPelicula(rating);
             p.setDuracionPelicula(duracion);
-            p.setClasificacion(clasificacion);
-
-            peliculaDAO.insert(p);
-            logger.log(Level.INFO, "Película insertada en la base de datos: " + p.getTituloPelicula());
 
-            guardarGeneros(p, txtGeneros.getText());
-            guardarDirectores(p, txtDirectores.getText());
-            guardarActores(p, txtActores.getText());
-
-            conn.commit();
-            conn.setAutoCommit(true);
+            Conexion.getInstance().enTransaccion(() -> {
+                logger.log(Level.INFO, "Transacción iniciada.");
+
+                Clasificacion clasificacion = CacheReferencias.clasificaciones().porNombre(clasifNombre);
+                if (clasificacion == null) {
+                    clasificacion = new Clasificacion(clasifNombre);
+                    clasificacionDAO.insert(clasificacion);
+                    logger.log(Level.INFO, "Nueva clasificación creada: " + clasifNombre);
+                }
+                p.setClasificacion(clasificacion);
+
+                peliculaDAO.insert(p);
+                logger.log(Level.INFO, "Película insertada en la base de datos: " + p.getTituloPelicula());
+
+                guardarGeneros(p, txtGeneros.getText());
+                guardarDirectores(p, txtDirectores.getText());
+                guardarActores(p, txtActores.getText());
+                return p;
+            });
             logger.log(Level.INFO, "Transacción completada con éxito (commit).");
+            Navigation.marcarObsoletas("peliculas_lista.fxml");
 
             AlertUtils.info("Película guardada correctamente.");
             cerrarVentana();
 
         } catch (Exception e) {
-            try {
-                logger.log(Level.SEVERE, "Fallo al guardar la película. Realizando Rollback...", e);
-                conn.rollback();
-                conn.setAutoCommit(true);
-                logger.log(Level.INFO, "Rollback realizado con éxito.");
-            } catch (SQLException ex) {
-                logger.log(Level.SEVERE, "Error al realizar el rollback", ex);
-            }
+            logger.log(Level.SEVERE, "Fallo al guardar la película. Se ha realizado rollback.", e);
             AlertUtils.error("Error al guardar (se han deshecho los cambios): " + e.getMessage());
         }
     }
@@ -151,7 +144,7 @@ public class PeliculaFormController {
      */
     private void guardarGeneros(Pelicula p, String texto) throws SQLException {
         for (String nombre : dividir(texto)) {
-            Genero g = generoDAO.findByName(nombre);
+            Genero g = CacheReferencias.generos().porNombre(nombre);
             if (g == null) {
                 g = generoDAO.insert(new Genero(nombre));
                 logger.log(Level.FINE, "Nuevo género creado y añadido a la película: " + nombre);
@@ -168,7 +161,7 @@ public class PeliculaFormController {
      */
     private void guardarDirectores(Pelicula p, String texto) throws SQLException {
         for (String nombre : dividir(texto)) {
-            Director d = directorDAO.findByName(nombre);
+            Director d = CacheReferencias.directores().porNombre(nombre);
             if (d == null) {
                 d = directorDAO.insert(new Director(nombre));
                 logger.log(Level.FINE, "Nuevo director creado y añadido a la película: " + nombre);
@@ -185,7 +178,7 @@ public class PeliculaFormController {
      */
     private void guardarActores(Pelicula p, String texto) throws SQLException {
         for (String nombre : dividir(texto)) {
-            Actor a = actorDAO.findByName(nombre);
+            Actor a = CacheReferencias.actores().porNombre(nombre);
             if (a == null) {
                 a = actorDAO.insert(new Actor(nombre));
                 logger.log(Level.FINE, "Nuevo actor creado y añadido a la película: " + nombre);
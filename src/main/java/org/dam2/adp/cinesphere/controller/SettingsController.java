@@ -7,6 +7,8 @@ import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.VBox;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
@@ -14,9 +16,10 @@ import org.dam2.adp.cinesphere.DAO.UsuarioDAO;
 import org.dam2.adp.cinesphere.model.Rol;
 import org.dam2.adp.cinesphere.model.Usuario;
 import org.dam2.adp.cinesphere.util.AlertUtils;
-import org.dam2.adp.cinesphere.util.CsvImporter;
 import org.dam2.adp.cinesphere.util.Navigation;
 import org.dam2.adp.cinesphere.util.SessionManager;
+import org.dam2.adp.cinesphere.util.TareaImportacion;
+import org.dam2.adp.cinesphere.util.importer.InformeImportacion;
 
 import java.io.BufferedWriter;
 import java.io.File;
@@ -51,9 +54,15 @@ public class SettingsController {
     @FXML private PasswordField txtPassword;
     @FXML private Button btnGuardarPerfil;
     @FXML private Button btnImportarLocal;
+    @FXML private Button btnImportarCarpeta;
     @FXML private Label lblEstadoLocal;
     @FXML private ComboBox<String> cbPredeterminados;
     @FXML private Button btnCargarPredeterminado;
+    @FXML private VBox panelImportacion;
+    @FXML private ProgressBar pbImportacion;
+    @FXML private Label lblProgresoImportacion;
+    @FXML private Button btnCancelarImportacion;
+    @FXML private Label lblInformeImportacion;
 
     private final UsuarioDAO usuarioDAO = new UsuarioDAO();
     private static final Logger logger = Logger.getLogger(SettingsController.class.getName());
@@ -152,6 +161,7 @@ public class SettingsController {
      */
     private void configurarImportacion() {
         btnImportarLocal.setOnAction(e -> importarCsvLocal());
+        btnImportarCarpeta.setOnAction(e -> importarCarpeta());
         btnCargarPredeterminado.setOnAction(e -> importarCsvPredeterminado());
 
         cbPredeterminados.getItems().setAll(
@@ -175,7 +185,22 @@ public class SettingsController {
 
         if (file != null) {
             lblEstadoLocal.setText(file.getName());
-            ejecutarImportacion(file.getAbsolutePath(), false);
+            ejecutarImportacion(new TareaImportacion(file.getAbsolutePath(), false), file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * Abre un selector de directorios e importa a la vez todos los CSV que contiene.
+     */
+    private void importarCarpeta() {
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Seleccionar carpeta con archivos CSV");
+
+        File carpeta = chooser.showDialog(btnImportarCarpeta.getScene().getWindow());
+
+        if (carpeta != null) {
+            lblEstadoLocal.setText(carpeta.getName() + "/" + TareaImportacion.PATRON_DIRECTORIO);
+            ejecutarImportacion(TareaImportacion.directorio(carpeta.getAbsolutePath()), carpeta.getAbsolutePath());
         }
     }
 
@@ -195,7 +220,7 @@ public class SettingsController {
             };
 
             if (rutaRecurso != null) {
-                ejecutarImportacion(rutaRecurso, true);
+                ejecutarImportacion(new TareaImportacion(rutaRecurso, true), rutaRecurso);
             } else {
                 AlertUtils.error("Recurso no encontrado para: " + seleccion);
             }
@@ -203,37 +228,65 @@ public class SettingsController {
     }
 
     /**
-     * Ejecuta la importación en el hilo principal.
-     * @param ruta Ruta del archivo o recurso.
-     * @param esRecursoInterno true si está en el classpath, false si es disco local.
+     * Lanza la importación en un hilo en segundo plano y muestra su avance en la pestaña.
+     * Mientras dura se desactivan los botones de importación; el botón Cancelar la detiene
+     * deshaciendo el lote en curso. Al terminar se muestra el informe de la importación.
+     * @param tarea la tarea de importación.
+     * @param ruta Ruta del archivo, recurso o directorio, para el registro.
      */
-    private void ejecutarImportacion(String ruta, boolean esRecursoInterno) {
+    private void ejecutarImportacion(TareaImportacion tarea, String ruta) {
         btnImportarLocal.setDisable(true);
+        btnImportarCarpeta.setDisable(true);
         btnCargarPredeterminado.setDisable(true);
-        logger.log(Level.INFO, "Iniciando importación síncrona desde: " + ruta);
+        logger.log(Level.INFO, "Iniciando importación en segundo plano desde: " + ruta);
 
         lblEstadoLocal.setText("Procesando...");
+        lblInformeImportacion.setText("");
+        panelImportacion.setVisible(true);
+        panelImportacion.setManaged(true);
+        pbImportacion.progressProperty().bind(tarea.progressProperty());
+        lblProgresoImportacion.textProperty().bind(tarea.messageProperty());
+        btnCancelarImportacion.setDisable(false);
+        btnCancelarImportacion.setOnAction(e -> {
+            btnCancelarImportacion.setDisable(true);
+            tarea.detener();
+        });
 
-        try {
-
-            if (esRecursoInterno) {
-                CsvImporter.importarDesdeRecurso(ruta);
-            } else {
-                CsvImporter.importarLocal(ruta);
-            }
-
-            AlertUtils.info("Importación completada con éxito.");
-            lblEstadoLocal.setText("Finalizado correctamente.");
+        tarea.setOnSucceeded(e -> {
+            InformeImportacion informe = tarea.getValue();
+            finalizarImportacion(informe.cancelada() ? "Importación cancelada." : "Finalizado correctamente.");
+            lblInformeImportacion.setText(informe.resumen());
+            AlertUtils.info(informe.resumen());
             logger.log(Level.INFO, "Importación finalizada.");
+        });
+        tarea.setOnFailed(e -> {
+            Throwable error = tarea.getException();
+            finalizarImportacion("Error en la importación.");
+            logger.log(Level.SEVERE, "Error durante la importación", error);
+            AlertUtils.error("Error al importar: " + error.getMessage());
+        });
+        tarea.setOnCancelled(e -> finalizarImportacion("Importación cancelada."));
 
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error durante la importación", e);
-            AlertUtils.error("Error al importar: " + e.getMessage());
-            lblEstadoLocal.setText("Error en la importación.");
-        } finally {
-            btnImportarLocal.setDisable(false);
-            btnCargarPredeterminado.setDisable(false);
-        }
+        Thread hilo = new Thread(tarea, "cinesphere-importacion");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Restaura los controles de importación cuando termina la tarea, acabe como acabe. Como los lotes
+     * ya confirmados se quedan en la base de datos aunque la importación falle o se cancele, se marcan
+     * siempre como obsoletas las vistas con películas y géneros.
+     * @param estado el texto a mostrar junto al botón de importación.
+     */
+    private void finalizarImportacion(String estado) {
+        Navigation.marcarObsoletas("peliculas_lista.fxml", "milista.fxml");
+        pbImportacion.progressProperty().unbind();
+        lblProgresoImportacion.textProperty().unbind();
+        btnCancelarImportacion.setDisable(true);
+        lblEstadoLocal.setText(estado);
+        btnImportarLocal.setDisable(false);
+        btnImportarCarpeta.setDisable(false);
+        btnCargarPredeterminado.setDisable(false);
     }
 
     /**
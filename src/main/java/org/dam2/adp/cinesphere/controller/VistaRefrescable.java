@@ -0,0 +1,16 @@
+package org.dam2.adp.cinesphere.controller;
+
+/**
+ * Controlador de una vista que {@link MainController} conserva cargada entre cambios de pestaña.
+ * Cuando los datos que muestra cambian en otra vista, se marca como obsoleta con
+ * {@link org.dam2.adp.cinesphere.util.Navigation#marcarObsoletas(String...)} y se refresca
+ * la próxima vez que se muestra, en lugar de volver a cargar el FXML.
+ */
+@FunctionalInterface
+public interface VistaRefrescable {
+
+    /**
+     * Vuelve a leer los datos de la vista. Se llama en el hilo de JavaFX.
+     */
+    void refrescar();
+}
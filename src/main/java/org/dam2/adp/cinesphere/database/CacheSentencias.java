@@ -0,0 +1,176 @@
+package org.dam2.adp.cinesphere.database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caché LRU de sentencias preparadas de una conexión física, indexada por el texto SQL.
+ * Las sentencias se entregan envueltas: su close() las devuelve a la caché en lugar de cerrarlas,
+ * de modo que la siguiente preparación del mismo SQL en esa conexión no vuelve a compilarse.
+ * Una sentencia solo la usa un llamador a la vez; si se pide el mismo SQL mientras está en uso,
+ * se prepara otra. Las sentencias viven lo mismo que su conexión.
+ */
+final class CacheSentencias {
+
+    private static final Logger logger = Logger.getLogger(CacheSentencias.class.getName());
+
+    private final Connection real;
+    private final int capacidad;
+    private final EstadisticasSentencias estadisticas;
+    private final LinkedHashMap<String, PreparedStatement> libres = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param real la conexión física.
+     * @param capacidad número máximo de sentencias libres en la caché.
+     * @param estadisticas los contadores compartidos del pool.
+     */
+    CacheSentencias(Connection real, int capacidad, EstadisticasSentencias estadisticas) {
+        this.real = real;
+        this.capacidad = capacidad;
+        this.estadisticas = estadisticas;
+    }
+
+    /**
+     * Indica si una llamada a prepareStatement se puede servir desde la caché.
+     * Solo se cachean {@code prepareStatement(String)} y {@code prepareStatement(String, int)},
+     * y nunca el SQL marcado con {@link Conexion#SIN_CACHE}.
+     * @param args los argumentos de la llamada.
+     * @return true si la variante es cacheable.
+     */
+    static boolean admite(Object[] args) {
+        return args != null
+                && (args.length == 1 || (args.length == 2 && args[1] instanceof Integer))
+                && args[0] instanceof String sql
+                && !sql.startsWith(Conexion.SIN_CACHE);
+    }
+
+    /**
+     * Devuelve una sentencia preparada para el SQL, reutilizando una libre si la hay.
+     * @param propietaria la conexión que verá el llamador en {@link PreparedStatement#getConnection()}.
+     * @param args los argumentos de prepareStatement.
+     * @return la sentencia envuelta.
+     * @throws SQLException si no se puede preparar.
+     */
+    PreparedStatement preparar(Connection propietaria, Object[] args) throws SQLException {
+        String sql = (String) args[0];
+        String clave = args.length == 1 ? sql : sql + '\u0000' + args[1];
+
+        PreparedStatement st;
+        synchronized (this) {
+            st = libres.remove(clave);
+        }
+        if (st != null && !st.isClosed()) {
+            estadisticas.acierto(sql);
+        } else {
+            estadisticas.fallo(sql);
+            st = args.length == 1 ? real.prepareStatement(sql) : real.prepareStatement(sql, (Integer) args[1]);
+        }
+        return envolver(clave, st, propietaria);
+    }
+
+    /**
+     * Devuelve una sentencia a la caché tras limpiar sus parámetros y su lote.
+     * Si ya hay otra libre con el mismo SQL, o la caché está llena, se cierra la que sobra.
+     * @param clave la clave de la sentencia.
+     * @param st la sentencia real.
+     */
+    private void devolver(String clave, PreparedStatement st) {
+        try {
+            if (st.isClosed()) return;
+            st.clearParameters();
+            st.clearBatch();
+            st.clearWarnings();
+        } catch (SQLException e) {
+            cerrar(st);
+            return;
+        }
+
+        List<PreparedStatement> sobrantes = new ArrayList<>();
+        synchronized (this) {
+            PreparedStatement previa = libres.put(clave, st);
+            if (previa != null) sobrantes.add(previa);
+            Iterator<PreparedStatement> it = libres.values().iterator();
+            while (libres.size() > capacidad) {
+                sobrantes.add(it.next());
+                it.remove();
+            }
+        }
+        for (PreparedStatement s : sobrantes) {
+            estadisticas.descartada();
+            cerrar(s);
+        }
+    }
+
+    /**
+     * Cierra todas las sentencias libres. Se llama al cerrar la conexión física.
+     */
+    void cerrarTodas() {
+        List<PreparedStatement> todas;
+        synchronized (this) {
+            todas = new ArrayList<>(libres.values());
+            libres.clear();
+        }
+        todas.forEach(CacheSentencias::cerrar);
+    }
+
+    private static void cerrar(PreparedStatement st) {
+        try {
+            st.close();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Error al cerrar una sentencia cacheada", e);
+        }
+    }
+
+    /**
+     * Crea el envoltorio que se entrega al llamador.
+     * @param clave la clave de la sentencia en la caché.
+     * @param st la sentencia real.
+     * @param propietaria la conexión del llamador.
+     * @return un proxy de {@link PreparedStatement}.
+     */
+    private PreparedStatement envolver(String clave, PreparedStatement st, Connection propietaria) {
+        boolean[] cerrada = {false};
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            if (!cerrada[0]) {
+                                cerrada[0] = true;
+                                devolver(clave, st);
+                            }
+                            return null;
+                        case "isClosed":
+                            return cerrada[0] || st.isClosed();
+                        case "getConnection":
+                            return propietaria;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "CachedStatement[" + st + "]";
+                        default:
+                            break;
+                    }
+                    if (cerrada[0]) {
+                        throw new SQLException("La sentencia ya está cerrada.");
+                    }
+                    try {
+                        return method.invoke(st, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -2,44 +2,81 @@ package org.dam2.adp.cinesphere.database;
 
 import java.io.File;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Gestiona la conexión a la base de datos.
+ * Internamente mantiene un {@link ConnectionPool}: cada llamada a {@link #getConnection()} presta
+ * una conexión que debe cerrarse para devolverla al pool, por lo que varios hilos pueden
+ * ejecutar consultas a la vez.
  */
 public class Conexion {
 
-    private static Conexion instance;
-    private Connection connection;
+    private static volatile Conexion instance;
+    private volatile ConnectionPool pool;
+    private volatile boolean sqlite;
+    private MantenimientoSQLite mantenimientoSQLite;
+    private final ThreadLocal<Connection> transaccionActual = new ThreadLocal<>();
+    private final ThreadLocal<List<Runnable>> accionesAlConfirmar = new ThreadLocal<>();
     private static final Logger logger = Logger.getLogger(Conexion.class.getName());
 
+    /**
+     * Marca que se antepone al SQL generado con un número variable de parámetros, como las inserciones
+     * de varias filas, para que el pool no guarde su sentencia en la caché: cada longitud distinta es
+     * un texto SQL nuevo que casi nunca se repite y desplazaría a las sentencias frecuentes.
+     */
+    public static final String SIN_CACHE = "/* sin cache */ ";
+
     private Conexion() {
     }
 
+    /**
+     * Operación que se ejecuta dentro de una transacción.
+     * @param <T> el tipo del resultado.
+     */
+    @FunctionalInterface
+    public interface OperacionTransaccional<T> {
+        /**
+         * Ejecuta la operación.
+         * @return el resultado de la operación.
+         * @throws SQLException si ocurre un error al acceder a la base de datos.
+         */
+        T ejecutar() throws SQLException;
+    }
+
     /**
      * Obtiene la instancia única de Conexion.
      * @return la instancia de Conexion.
      */
     public static Conexion getInstance() {
-        if (instance == null) {
-            instance = new Conexion();
-            logger.log(Level.INFO, "Instancia de Conexion creada.");
+        Conexion local = instance;
+        if (local == null) {
+            synchronized (Conexion.class) {
+                local = instance;
+                if (local == null) {
+                    local = new Conexion();
+                    instance = local;
+                    logger.log(Level.INFO, "Instancia de Conexion creada.");
+                }
+            }
         }
-        return instance;
+        return local;
     }
 
     /**
      * Conecta a la base de datos utilizando el archivo de configuración especificado.
      * @param configFile el nombre del archivo de configuración.
      */
-    public void connect(String configFile) {
-        if (connection != null) {
+    public synchronized void connect(String configFile) {
+        if (pool != null) {
             logger.log(Level.INFO, "La conexión a la base de datos ya existe. No se creará una nueva.");
             return;
         }
@@ -51,7 +88,9 @@ public class Conexion {
             }
 
             Properties properties = new Properties();
-            properties.load(is);
+            try (is) {
+                properties.load(is);
+            }
 
             String url = properties.getProperty("db.url");
             String user = properties.getProperty("db.user");
@@ -60,24 +99,28 @@ public class Conexion {
 
             Class.forName(driver);
 
-            if (url.startsWith("jdbc:sqlite")) {
+            List<String> sentenciasInicio = new ArrayList<>();
+            boolean esSQLite = url.startsWith("jdbc:sqlite");
+            PerfilSQLite perfil = null;
+
+            if (esSQLite) {
                 logger.log(Level.INFO, "Detectada base de datos SQLite.");
                 File dbDir = new File("database");
                 if (!dbDir.exists()) {
                     dbDir.mkdirs();
                     logger.log(Level.INFO, "Directorio de base de datos creado en: " + dbDir.getAbsolutePath());
                 }
-
-                connection = DriverManager.getConnection(url);
-
-                try (Statement st = connection.createStatement()) {
-                    st.execute("PRAGMA foreign_keys = ON");
-                    logger.log(Level.INFO, "PRAGMA foreign_keys = ON ejecutado para SQLite.");
-                }
-
+                perfil = PerfilSQLite.desde(properties);
+                sentenciasInicio.addAll(perfil.sentenciasInicio());
+                logger.log(Level.INFO, "Perfil de SQLite: " + perfil);
             } else {
                 logger.log(Level.INFO, "Conectando a base de datos SQL estándar.");
-                connection = DriverManager.getConnection(url, user, password);
+            }
+
+            pool = new ConnectionPool(url, user, password, sentenciasInicio, PoolConfig.desde(properties));
+            sqlite = esSQLite;
+            if (perfil != null && perfil.mantenimientoMs() > 0) {
+                mantenimientoSQLite = new MantenimientoSQLite(this, perfil);
             }
 
             logger.log(Level.INFO, "Conectado a la base de datos: " + url);
@@ -89,44 +132,175 @@ public class Conexion {
     }
 
     /**
-     * Obtiene la conexión a la base de datos.
+     * Obtiene una conexión a la base de datos.
+     * Si el hilo actual está dentro de {@link #enTransaccion(OperacionTransaccional)} se devuelve
+     * la conexión de esa transacción; en otro caso se presta una del pool.
+     * En ambos casos la conexión debe cerrarse al terminar de usarla.
      * @return la conexión a la base de datos.
+     * @throws SQLException si no se puede obtener una conexión del pool.
      */
-    public Connection getConnection() {
-        if (connection == null) {
-            logger.log(Level.SEVERE, "La base de datos no está conectada. Se debe llamar a connect() primero.");
-            throw new IllegalStateException("Database is not connected. Call connect() first.");
+    public Connection getConnection() throws SQLException {
+        Connection enCurso = transaccionActual.get();
+        if (enCurso != null) {
+            return sinCierre(enCurso);
         }
-        return connection;
+        return getPool().getConnection();
     }
 
     /**
-     * Cierra la conexión activa con la base de datos.
+     * Ejecuta una operación dentro de una transacción ligada al hilo actual.
+     * Todas las llamadas a {@link #getConnection()} que se hagan desde la operación (por ejemplo,
+     * desde los DAOs) comparten la misma conexión. Si la operación termina sin errores se confirma;
+     * si lanza cualquier excepción se deshace. Las llamadas anidadas se unen a la transacción externa.
+     * @param operacion la operación a ejecutar.
+     * @param <T> el tipo del resultado.
+     * @return el resultado de la operación.
+     * @throws SQLException si la operación o la confirmación fallan.
      */
-    public void disconnect() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                logger.log(Level.INFO, "Conexión a la base de datos cerrada.");
+    public <T> T enTransaccion(OperacionTransaccional<T> operacion) throws SQLException {
+        if (transaccionActual.get() != null) {
+            return operacion.ejecutar();
+        }
+
+        try (Connection conn = getPool().getConnection()) {
+            conn.setAutoCommit(false);
+            transaccionActual.set(conn);
+            try {
+                T resultado = operacion.ejecutar();
+                conn.commit();
+                ejecutarAccionesAlConfirmar();
+                return resultado;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    e.addSuppressed(ex);
+                }
+                throw e;
+            } finally {
+                transaccionActual.remove();
+                accionesAlConfirmar.remove();
             }
-        } catch (SQLException e) {
-            logger.log(Level.SEVERE, "Error al cerrar la conexión a la base de datos", e);
-        } finally {
-            connection = null;
         }
     }
 
+    /**
+     * Indica si el hilo actual está ejecutando una transacción abierta con
+     * {@link #enTransaccion(OperacionTransaccional)}.
+     * @return true si hay una transacción en curso en este hilo.
+     */
+    public boolean enTransaccion() {
+        return transaccionActual.get() != null;
+    }
+
+    /**
+     * Programa una acción para cuando se confirme la transacción del hilo actual, por ejemplo
+     * actualizar una caché con lo que se acaba de insertar. Si la transacción se deshace, la acción
+     * no se ejecuta. Fuera de una transacción cada sentencia se confirma al momento, así que la
+     * acción se ejecuta enseguida.
+     * @param accion la acción a ejecutar.
+     */
+    public void alConfirmar(Runnable accion) {
+        if (transaccionActual.get() == null) {
+            accion.run();
+            return;
+        }
+        List<Runnable> acciones = accionesAlConfirmar.get();
+        if (acciones == null) {
+            acciones = new ArrayList<>();
+            accionesAlConfirmar.set(acciones);
+        }
+        acciones.add(accion);
+    }
+
+    /**
+     * Ejecuta las acciones programadas con {@link #alConfirmar(Runnable)} tras confirmar la transacción.
+     * Un fallo en una acción no afecta a la transacción, que ya está confirmada.
+     */
+    private void ejecutarAccionesAlConfirmar() {
+        List<Runnable> acciones = accionesAlConfirmar.get();
+        if (acciones == null) return;
+        accionesAlConfirmar.remove();
+        for (Runnable accion : acciones) {
+            try {
+                accion.run();
+            } catch (RuntimeException e) {
+                logger.log(Level.WARNING, "Error al ejecutar una acción tras confirmar la transacción", e);
+            }
+        }
+    }
+
+    /**
+     * Cierra el pool y todas sus conexiones.
+     */
+    public synchronized void disconnect() {
+        if (mantenimientoSQLite != null) {
+            mantenimientoSQLite.detener();
+            mantenimientoSQLite = null;
+        }
+        if (pool != null) {
+            pool.close();
+            logger.log(Level.INFO, "Conexión a la base de datos cerrada.");
+        }
+        pool = null;
+        sqlite = false;
+    }
+
+    /**
+     * Obtiene los contadores de aciertos y fallos de la caché de sentencias preparadas.
+     * @return las estadísticas de la caché del pool activo.
+     */
+    public EstadisticasSentencias getEstadisticasSentencias() {
+        return getPool().getEstadisticasSentencias();
+    }
+
     /**
      * Método auxiliar para detectar si estamos en modo SQLite.
      * Necesario para DatabaseSchema.java.
      * @return true si la conexión es SQLite, false en caso contrario.
      */
     public boolean isSQLite() {
-        try {
-            return connection != null && connection.getMetaData().getURL().startsWith("jdbc:sqlite");
-        } catch (SQLException e) {
-            logger.log(Level.WARNING, "No se pudo determinar si la base de datos es SQLite.", e);
-            return false;
+        return pool != null && sqlite;
+    }
+
+    /**
+     * Obtiene el pool activo.
+     * @return el pool de conexiones.
+     */
+    private ConnectionPool getPool() {
+        ConnectionPool actual = pool;
+        if (actual == null) {
+            logger.log(Level.SEVERE, "La base de datos no está conectada. Se debe llamar a connect() primero.");
+            throw new IllegalStateException("Database is not connected. Call connect() first.");
         }
+        return actual;
+    }
+
+    /**
+     * Envuelve la conexión de una transacción para que su close() no la devuelva al pool
+     * antes de que termine la transacción. Las sentencias que crea también la devuelven a ella
+     * en getConnection(), para que no se pueda cerrar ni confirmar la transacción a través de ellas.
+     * @param conn la conexión de la transacción.
+     * @return un envoltorio cuyo close() no hace nada.
+     */
+    private static Connection sinCierre(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "commit", "rollback", "setAutoCommit":
+                            throw new SQLException("La transacción la gestiona Conexion.enTransaccion().");
+                        default:
+                            try {
+                                // Las sentencias devuelven este envoltorio en getConnection(), no la conexión del pool.
+                                return SentenciaEnvuelta.conConexion(method.invoke(conn, args), (Connection) proxy);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
     }
 }
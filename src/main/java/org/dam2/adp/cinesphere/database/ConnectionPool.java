@@ -0,0 +1,472 @@
+package org.dam2.adp.cinesphere.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool acotado de conexiones JDBC.
+ * Mantiene un mínimo de conexiones abiertas, limita el máximo simultáneo, valida cada conexión
+ * al prestarla, cierra las conexiones ociosas que sobran y avisa de las que no se devuelven a tiempo.
+ * Las conexiones entregadas son envoltorios cuyo close() las devuelve al pool, y cada conexión
+ * física guarda sus sentencias preparadas en una {@link CacheSentencias}.
+ */
+public class ConnectionPool {
+
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+
+    /** Las conexiones usadas hace menos de este tiempo no se vuelven a validar al prestarse. */
+    private static final long VENTANA_SIN_VALIDACION_MS = 500;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final List<String> sentenciasInicio;
+
+    private final int minimo;
+    private final int maximo;
+    private final long esperaMaximaMs;
+    private final long ociosidadMaximaMs;
+    private final int timeoutValidacionSeg;
+    private final long umbralFugaMs;
+    private final int cacheSentencias;
+    private final EstadisticasSentencias estadisticasSentencias = new EstadisticasSentencias();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition disponible = lock.newCondition();
+    private final Deque<ConexionFisica> libres = new ArrayDeque<>();
+    private final Map<ConexionFisica, Prestamo> prestadas = new ConcurrentHashMap<>();
+    private int totalAbiertas = 0;
+    private boolean cerrado = false;
+
+    private final ScheduledExecutorService mantenimiento;
+
+    /**
+     * Crea el pool y abre las conexiones mínimas.
+     * @param url la URL JDBC.
+     * @param user el usuario (puede ser null).
+     * @param password la contraseña (puede ser null).
+     * @param sentenciasInicio sentencias que se ejecutan en cada conexión nueva (p. ej. PRAGMAs).
+     * @param config la configuración del pool.
+     * @throws SQLException si no se pueden abrir las conexiones iniciales.
+     */
+    public ConnectionPool(String url, String user, String password, List<String> sentenciasInicio, PoolConfig config) throws SQLException {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.sentenciasInicio = List.copyOf(sentenciasInicio);
+        this.minimo = config.minimo();
+        this.maximo = Math.max(config.maximo(), Math.max(1, config.minimo()));
+        this.esperaMaximaMs = config.esperaMaximaMs();
+        this.ociosidadMaximaMs = config.ociosidadMaximaMs();
+        this.timeoutValidacionSeg = config.timeoutValidacionSeg();
+        this.umbralFugaMs = config.umbralFugaMs();
+        this.cacheSentencias = Math.max(0, config.cacheSentencias());
+
+        try {
+            for (int i = 0; i < minimo; i++) {
+                libres.push(abrirConexion());
+                totalAbiertas++;
+            }
+        } catch (SQLException | RuntimeException e) {
+            // Sin esto, las conexiones ya abiertas quedarían vivas (en PostgreSQL, sesiones en el servidor).
+            libres.forEach(ConexionFisica::cerrar);
+            libres.clear();
+            totalAbiertas = 0;
+            throw e;
+        }
+
+        mantenimiento = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cinesphere-pool-mantenimiento");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodo = Math.max(1000, (umbralFugaMs > 0 ? Math.min(ociosidadMaximaMs, umbralFugaMs) : ociosidadMaximaMs) / 2);
+        mantenimiento.scheduleWithFixedDelay(this::mantener, periodo, periodo, TimeUnit.MILLISECONDS);
+
+        logger.log(Level.INFO, "Pool de conexiones creado (min=" + minimo + ", max=" + maximo + ") para " + url);
+    }
+
+    /**
+     * Presta una conexión del pool, esperando como máximo el tiempo configurado.
+     * La conexión devuelta debe cerrarse (idealmente con try-with-resources) para devolverla al pool.
+     * @return una conexión válida.
+     * @throws SQLException si el pool está cerrado, agotado o no se puede abrir una conexión.
+     */
+    public Connection getConnection() throws SQLException {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaMaximaMs);
+        while (true) {
+            ConexionFisica fisica = reservar(limite);
+            if (fisica.estaViva(timeoutValidacionSeg)) {
+                prestadas.put(fisica, new Prestamo(Thread.currentThread().getName(), umbralFugaMs > 0));
+                return fisica.envolver();
+            }
+            logger.log(Level.WARNING, "Conexión descartada al fallar la validación.");
+            descartar(fisica);
+        }
+    }
+
+    /**
+     * Reserva una conexión libre o abre una nueva si no se ha alcanzado el máximo.
+     * @param limite instante (nanoTime) a partir del cual se deja de esperar.
+     * @return la conexión física reservada.
+     * @throws SQLException si se agota la espera o el pool está cerrado.
+     */
+    private ConexionFisica reservar(long limite) throws SQLException {
+        lock.lock();
+        try {
+            while (true) {
+                if (cerrado) {
+                    throw new SQLException("El pool de conexiones está cerrado.");
+                }
+                ConexionFisica libre = libres.pollFirst();
+                if (libre != null) {
+                    return libre;
+                }
+                if (totalAbiertas < maximo) {
+                    totalAbiertas++;
+                    break;
+                }
+                long restante = limite - System.nanoTime();
+                if (restante <= 0) {
+                    throw new SQLException("Tiempo de espera agotado: no hay conexiones libres (max=" + maximo + ").");
+                }
+                try {
+                    disponible.awaitNanos(restante);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Interrumpido esperando una conexión.", e);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            return abrirConexion();
+        } catch (SQLException e) {
+            lock.lock();
+            try {
+                totalAbiertas--;
+                disponible.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Devuelve una conexión al pool, restaurando su estado por defecto.
+     * @param fisica la conexión física a devolver.
+     */
+    private void devolver(ConexionFisica fisica) {
+        prestadas.remove(fisica);
+        boolean reutilizable = fisica.restaurar();
+
+        lock.lock();
+        try {
+            if (reutilizable && !cerrado) {
+                fisica.ultimoUso = System.currentTimeMillis();
+                libres.addFirst(fisica);
+                disponible.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        descartar(fisica);
+    }
+
+    /**
+     * Cierra una conexión física y libera su hueco en el pool.
+     * @param fisica la conexión a descartar.
+     */
+    private void descartar(ConexionFisica fisica) {
+        fisica.cerrar();
+        lock.lock();
+        try {
+            totalAbiertas--;
+            disponible.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tarea periódica: cierra las conexiones ociosas por encima del mínimo y registra posibles fugas.
+     */
+    private void mantener() {
+        List<ConexionFisica> aCerrar = new ArrayList<>();
+        long ahora = System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            Iterator<ConexionFisica> it = libres.descendingIterator();
+            while (it.hasNext() && totalAbiertas - aCerrar.size() > minimo) {
+                ConexionFisica c = it.next();
+                if (ahora - c.ultimoUso > ociosidadMaximaMs) {
+                    it.remove();
+                    aCerrar.add(c);
+                }
+            }
+            totalAbiertas -= aCerrar.size();
+        } finally {
+            lock.unlock();
+        }
+        aCerrar.forEach(ConexionFisica::cerrar);
+        if (!aCerrar.isEmpty()) {
+            logger.log(Level.FINE, "Cerradas " + aCerrar.size() + " conexiones ociosas.");
+        }
+
+        if (umbralFugaMs <= 0) return;
+        for (Prestamo p : prestadas.values()) {
+            if (!p.avisado && ahora - p.desde > umbralFugaMs) {
+                p.avisado = true;
+                logger.log(Level.WARNING, "Posible fuga de conexión: prestada al hilo '" + p.hilo + "' hace "
+                        + (ahora - p.desde) + " ms sin devolverse.", p.origen);
+            }
+        }
+    }
+
+    /**
+     * Cierra todas las conexiones y detiene el mantenimiento.
+     * Las conexiones prestadas se cierran al devolverse.
+     */
+    public void close() {
+        List<ConexionFisica> aCerrar;
+        lock.lock();
+        try {
+            cerrado = true;
+            aCerrar = new ArrayList<>(libres);
+            totalAbiertas -= libres.size();
+            libres.clear();
+            disponible.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        mantenimiento.shutdownNow();
+        aCerrar.forEach(ConexionFisica::cerrar);
+        if (cacheSentencias > 0) {
+            logger.log(Level.INFO, estadisticasSentencias.resumen(10));
+        }
+        if (!prestadas.isEmpty()) {
+            logger.log(Level.WARNING, "Pool cerrado con " + prestadas.size() + " conexiones aún prestadas.");
+        }
+        logger.log(Level.INFO, "Pool de conexiones cerrado.");
+    }
+
+    /**
+     * Obtiene el número de conexiones físicas abiertas (libres y prestadas).
+     * @return el número de conexiones abiertas.
+     */
+    public int getTotalAbiertas() {
+        lock.lock();
+        try {
+            return totalAbiertas;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene el número de conexiones prestadas en este momento.
+     * @return el número de conexiones en uso.
+     */
+    public int getEnUso() {
+        return prestadas.size();
+    }
+
+    /**
+     * Obtiene los contadores de la caché de sentencias preparadas de todas las conexiones.
+     * @return las estadísticas de la caché.
+     */
+    public EstadisticasSentencias getEstadisticasSentencias() {
+        return estadisticasSentencias;
+    }
+
+    /**
+     * Abre una conexión física nueva y ejecuta las sentencias de inicio.
+     * @return la conexión física.
+     * @throws SQLException si no se puede abrir.
+     */
+    private ConexionFisica abrirConexion() throws SQLException {
+        Connection c = (user == null || user.isBlank())
+                ? DriverManager.getConnection(url)
+                : DriverManager.getConnection(url, user, password);
+        try (Statement st = c.createStatement()) {
+            for (String sql : sentenciasInicio) {
+                st.execute(sql);
+            }
+        } catch (SQLException e) {
+            c.close();
+            throw e;
+        }
+        return new ConexionFisica(c);
+    }
+
+    /**
+     * Datos de un préstamo activo, usados para detectar fugas.
+     */
+    private static final class Prestamo {
+        final long desde = System.currentTimeMillis();
+        final String hilo;
+        final Throwable origen;
+        volatile boolean avisado = false;
+
+        Prestamo(String hilo, boolean trazar) {
+            this.hilo = hilo;
+            this.origen = trazar ? new Throwable("Conexión prestada aquí") : null;
+        }
+    }
+
+    /**
+     * Conexión física gestionada por el pool.
+     */
+    private final class ConexionFisica {
+        final Connection real;
+        final CacheSentencias sentencias;
+        volatile long ultimoUso = System.currentTimeMillis();
+
+        ConexionFisica(Connection real) {
+            this.real = real;
+            this.sentencias = cacheSentencias > 0 ? new CacheSentencias(real, cacheSentencias, estadisticasSentencias) : null;
+        }
+
+        /**
+         * Comprueba que la conexión sigue operativa.
+         * Si se ha usado hace muy poco se da por buena sin consultar a la base de datos.
+         * @param timeoutSeg segundos máximos de validación.
+         * @return true si la conexión es válida.
+         */
+        boolean estaViva(int timeoutSeg) {
+            if (System.currentTimeMillis() - ultimoUso < VENTANA_SIN_VALIDACION_MS) {
+                return true;
+            }
+            try {
+                return !real.isClosed() && real.isValid(timeoutSeg);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Deshace cualquier transacción pendiente y restablece el autocommit.
+         * @return true si la conexión puede reutilizarse.
+         */
+        boolean restaurar() {
+            try {
+                if (real.isClosed()) return false;
+                if (!real.getAutoCommit()) {
+                    real.rollback();
+                    real.setAutoCommit(true);
+                }
+                if (real.isReadOnly()) {
+                    real.setReadOnly(false);
+                }
+                real.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "No se pudo restaurar la conexión devuelta; se descarta.", e);
+                return false;
+            }
+        }
+
+        /**
+         * Cierra la conexión física ignorando errores.
+         */
+        void cerrar() {
+            if (sentencias != null) {
+                sentencias.cerrarTodas();
+            }
+            try {
+                real.close();
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "Error al cerrar conexión física", e);
+            }
+        }
+
+        /**
+         * Crea el envoltorio que se entrega al usuario del pool.
+         * @return un proxy de {@link Connection}.
+         */
+        Connection envolver() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new ManejadorConexion(this));
+        }
+    }
+
+    /**
+     * Intercepta close() para devolver la conexión al pool en lugar de cerrarla, y prepareStatement()
+     * para servir las sentencias desde la caché de la conexión.
+     */
+    private final class ManejadorConexion implements InvocationHandler {
+        private final ConexionFisica fisica;
+        private boolean devuelta = false;
+
+        ManejadorConexion(ConexionFisica fisica) {
+            this.fisica = fisica;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!devuelta) {
+                        devuelta = true;
+                        devolver(fisica);
+                    }
+                    return null;
+                case "isClosed":
+                    return devuelta || fisica.real.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) return proxy;
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) return true;
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + fisica.real + "]";
+                default:
+                    break;
+            }
+            if (devuelta) {
+                throw new SQLException("La conexión ya se ha devuelto al pool.");
+            }
+            if (fisica.sentencias != null && method.getName().equals("prepareStatement") && CacheSentencias.admite(args)) {
+                return fisica.sentencias.preparar((Connection) proxy, args);
+            }
+            try {
+                // Las sentencias devuelven este envoltorio en getConnection(), no la conexión física.
+                return SentenciaEnvuelta.conConexion(method.invoke(fisica.real, args), (Connection) proxy);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -7,18 +7,18 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
- * Inicializa el esquema de la base de datos.
+ * Inicializa el esquema de la base de datos: crea las tablas base y aplica las
+ * migraciones pendientes con {@link MotorMigraciones}.
  */
 public class DatabaseSchema {
 
     private static final Logger logger = Logger.getLogger(DatabaseSchema.class.getName());
 
     /**
-     * Inicializa las tablas de la base de datos si no existen.
+     * Inicializa las tablas de la base de datos si no existen y aplica las migraciones pendientes.
      */
     public static void inicializar() {
-        try {
-            Connection conn = Conexion.getInstance().getConnection();
+        try (Connection conn = Conexion.getInstance().getConnection()) {
             boolean isSQLite = Conexion.getInstance().isSQLite();
             logger.log(Level.INFO, "Iniciando inicialización del esquema para " + (isSQLite ? "SQLite" : "PostgreSQL"));
 
@@ -116,6 +116,13 @@ public class DatabaseSchema {
 
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Error al inicializar el esquema de la base de datos", e);
+            return;
+        }
+
+        try {
+            new MotorMigraciones().migrar();
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Error al aplicar las migraciones del esquema", e);
         }
     }
 }
@@ -0,0 +1,128 @@
+package org.dam2.adp.cinesphere.database;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores de aciertos y fallos de la caché de sentencias preparadas, por texto SQL.
+ * Una instancia la comparten todas las conexiones de un {@link ConnectionPool}.
+ */
+public final class EstadisticasSentencias {
+
+    /** Número máximo de sentencias distintas con contador propio; el resto solo suma al total. */
+    private static final int MAXIMO_SENTENCIAS = 512;
+
+    /**
+     * Contadores de una sentencia en un instante dado.
+     *
+     * @param sql      el texto SQL de la sentencia.
+     * @param aciertos veces que se reutilizó una sentencia ya preparada.
+     * @param fallos   veces que hubo que prepararla.
+     */
+    public record Entrada(String sql, long aciertos, long fallos) {
+
+        /**
+         * Proporción de preparaciones servidas desde la caché.
+         * @return un valor entre 0 y 1.
+         */
+        public double tasaAciertos() {
+            long total = aciertos + fallos;
+            return total == 0 ? 0 : (double) aciertos / total;
+        }
+    }
+
+    private static final class Contador {
+        final LongAdder aciertos = new LongAdder();
+        final LongAdder fallos = new LongAdder();
+    }
+
+    private final Map<String, Contador> porSentencia = new ConcurrentHashMap<>();
+    private final Contador total = new Contador();
+    private final LongAdder descartadas = new LongAdder();
+
+    EstadisticasSentencias() {
+    }
+
+    void acierto(String sql) {
+        total.aciertos.increment();
+        Contador c = contador(sql);
+        if (c != null) c.aciertos.increment();
+    }
+
+    void fallo(String sql) {
+        total.fallos.increment();
+        Contador c = contador(sql);
+        if (c != null) c.fallos.increment();
+    }
+
+    void descartada() {
+        descartadas.increment();
+    }
+
+    private Contador contador(String sql) {
+        Contador c = porSentencia.get(sql);
+        if (c == null && porSentencia.size() < MAXIMO_SENTENCIAS) {
+            c = porSentencia.computeIfAbsent(sql, k -> new Contador());
+        }
+        return c;
+    }
+
+    /**
+     * Obtiene los contadores globales de la caché.
+     * @return una entrada con el total de aciertos y fallos (su sql es "*").
+     */
+    public Entrada total() {
+        return new Entrada("*", total.aciertos.sum(), total.fallos.sum());
+    }
+
+    /**
+     * Obtiene el número de sentencias cerradas por desalojo LRU.
+     * @return las sentencias desalojadas.
+     */
+    public long getDescartadas() {
+        return descartadas.sum();
+    }
+
+    /**
+     * Obtiene los contadores de cada sentencia, de la más usada a la menos usada.
+     * @return la lista de entradas.
+     */
+    public List<Entrada> porSentencia() {
+        List<Entrada> entradas = new ArrayList<>();
+        porSentencia.forEach((sql, c) -> entradas.add(new Entrada(sql, c.aciertos.sum(), c.fallos.sum())));
+        entradas.sort(Comparator.comparingLong((Entrada e) -> e.aciertos() + e.fallos()).reversed());
+        return entradas;
+    }
+
+    /**
+     * Busca los contadores de las sentencias cuyo SQL contiene un fragmento.
+     * @param fragmento el texto a buscar (por ejemplo, "UPDATE milista").
+     * @return las entradas que coinciden.
+     */
+    public List<Entrada> buscar(String fragmento) {
+        return porSentencia().stream().filter(e -> e.sql().contains(fragmento)).toList();
+    }
+
+    /**
+     * Resume los contadores globales y las sentencias más usadas.
+     * @param limite número de sentencias a incluir.
+     * @return el resumen en texto.
+     */
+    public String resumen(int limite) {
+        Entrada t = total();
+        StringBuilder sb = new StringBuilder(String.format("Caché de sentencias: %d aciertos, %d fallos (%.1f%%), %d desalojadas",
+                t.aciertos(), t.fallos(), t.tasaAciertos() * 100, getDescartadas()));
+        porSentencia().stream().limit(limite).forEach(e -> sb.append(String.format("%n  %5.1f%% %6d/%-6d %s",
+                e.tasaAciertos() * 100, e.aciertos(), e.aciertos() + e.fallos(), abreviar(e.sql()))));
+        return sb.toString();
+    }
+
+    private static String abreviar(String sql) {
+        String linea = sql.replaceAll("\\s+", " ").trim();
+        return linea.length() <= 120 ? linea : linea.substring(0, 117) + "...";
+    }
+}
@@ -0,0 +1,65 @@
+package org.dam2.adp.cinesphere.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Tarea periódica de mantenimiento de SQLite: ejecuta {@code PRAGMA optimize} para refrescar las
+ * estadísticas del planificador y, en modo WAL, un {@code wal_checkpoint(PASSIVE)} para que el
+ * fichero -wal no crezca sin límite. Al detenerse hace una última pasada de optimize.
+ */
+class MantenimientoSQLite {
+
+    private static final Logger logger = Logger.getLogger(MantenimientoSQLite.class.getName());
+
+    private final Conexion conexion;
+    private final PerfilSQLite perfil;
+    private final ScheduledExecutorService planificador;
+
+    /**
+     * Arranca la tarea con el periodo del perfil.
+     * @param conexion la conexión de la que tomar conexiones del pool.
+     * @param perfil el perfil de SQLite activo.
+     */
+    MantenimientoSQLite(Conexion conexion, PerfilSQLite perfil) {
+        this.conexion = conexion;
+        this.perfil = perfil;
+        this.planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "cinesphere-sqlite-mantenimiento");
+            t.setDaemon(true);
+            return t;
+        });
+        long periodo = perfil.mantenimientoMs();
+        planificador.scheduleWithFixedDelay(this::ejecutar, periodo, periodo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ejecuta una pasada de mantenimiento. Los errores se registran y no detienen la tarea.
+     */
+    void ejecutar() {
+        try (Connection conn = conexion.getConnection();
+             Statement st = conn.createStatement()) {
+            st.execute("PRAGMA optimize");
+            if (perfil.esWal()) {
+                st.execute("PRAGMA wal_checkpoint(PASSIVE)");
+            }
+            logger.log(Level.FINE, "Mantenimiento de SQLite completado.");
+        } catch (SQLException | RuntimeException e) {
+            logger.log(Level.WARNING, "Error en el mantenimiento periódico de SQLite", e);
+        }
+    }
+
+    /**
+     * Detiene la tarea y hace una última pasada antes de cerrar el pool.
+     */
+    void detener() {
+        planificador.shutdownNow();
+        ejecutar();
+    }
+}
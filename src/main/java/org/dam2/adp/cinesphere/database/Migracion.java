@@ -0,0 +1,37 @@
+package org.dam2.adp.cinesphere.database;
+
+import java.util.List;
+
+/**
+ * Cambio de esquema numerado. El {@link MotorMigraciones} aplica las migraciones en orden de
+ * versión y registra cada una en la tabla {@code schema_version} al terminar.
+ *
+ * @param version     el número de versión; debe ser único y creciente.
+ * @param descripcion una descripción breve del cambio.
+ * @param pasos       los pasos de la migración; deben poder repetirse sin error por si se interrumpe.
+ */
+public record Migracion(int version, String descripcion, List<PasoMigracion> pasos) {
+
+    /**
+     * Crea una migración.
+     * @param version el número de versión.
+     * @param descripcion la descripción del cambio.
+     * @param pasos los pasos de la migración.
+     * @return la migración.
+     */
+    public static Migracion de(int version, String descripcion, PasoMigracion... pasos) {
+        return new Migracion(version, descripcion, List.of(pasos));
+    }
+
+    /**
+     * Indica si todos los pasos pueden ejecutarse dentro de una misma transacción.
+     * @param sqlite true si la base de datos es SQLite.
+     * @return true si la migración es transaccional.
+     */
+    public boolean esTransaccional(boolean sqlite) {
+        for (PasoMigracion paso : pasos) {
+            if (!paso.admiteTransaccion(sqlite)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,41 @@
+package org.dam2.adp.cinesphere.database;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Catálogo de migraciones de la aplicación. Para cambiar el esquema se añade una migración
+ * con la siguiente versión; nunca se modifica una ya publicada.
+ */
+public final class Migraciones {
+
+    /** Todas las migraciones, en orden de versión. */
+    public static final List<Migracion> TODAS = List.of(
+            new Migracion(1, "Índices secundarios de filtros, búsquedas y claves ajenas", indicesPlan()),
+            Migracion.de(2, "Puntos de control de importaciones reanudables", PasoMigracion.sql("""
+                    CREATE TABLE IF NOT EXISTS punto_control_importacion (
+                        huella VARCHAR(64) PRIMARY KEY,
+                        origen VARCHAR(255) NOT NULL,
+                        registro BIGINT NOT NULL,
+                        posicion BIGINT NOT NULL,
+                        lotes INTEGER NOT NULL,
+                        actualizado TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    )"""))
+    );
+
+    private Migraciones() {
+    }
+
+    /**
+     * Pasos que crean los índices de {@link PlanIndices}, más el índice de trigramas en PostgreSQL.
+     * @return los pasos.
+     */
+    private static List<PasoMigracion> indicesPlan() {
+        List<PasoMigracion> pasos = new ArrayList<>();
+        for (PlanIndices.Indice indice : PlanIndices.INDICES) {
+            pasos.add(PasoMigracion.indice(indice));
+        }
+        pasos.add(PasoMigracion.opcional("índice de trigramas para la búsqueda por título", PlanIndices.indiceTitulo()));
+        return pasos;
+    }
+}
@@ -0,0 +1,124 @@
+package org.dam2.adp.cinesphere.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Aplica las migraciones de esquema pendientes.
+ * La versión actual se guarda en la tabla {@code schema_version}, con una fila por migración aplicada.
+ * Las migraciones transaccionales se aplican junto con su registro en una única transacción;
+ * las que contienen pasos no transaccionales (índices concurrentes en PostgreSQL) se aplican
+ * paso a paso y se registran al final, por lo que sus pasos deben poder repetirse.
+ */
+public class MotorMigraciones {
+
+    private static final Logger logger = Logger.getLogger(MotorMigraciones.class.getName());
+
+    private static final String SQL_CREATE_TABLA = """
+            CREATE TABLE IF NOT EXISTS schema_version (
+                version INTEGER PRIMARY KEY,
+                descripcion VARCHAR(200) NOT NULL,
+                aplicada TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+            )""";
+    private static final String SQL_VERSION_ACTUAL = "SELECT COALESCE(MAX(version), 0) FROM schema_version";
+    private static final String SQL_REGISTRAR = "INSERT INTO schema_version(version, descripcion) VALUES (?, ?)";
+
+    private final List<Migracion> migraciones;
+
+    /**
+     * Crea un motor con las migraciones de la aplicación.
+     */
+    public MotorMigraciones() {
+        this(Migraciones.TODAS);
+    }
+
+    /**
+     * Crea un motor con una lista de migraciones.
+     * @param migraciones las migraciones, en cualquier orden.
+     */
+    public MotorMigraciones(List<Migracion> migraciones) {
+        List<Migracion> ordenadas = new ArrayList<>(migraciones);
+        ordenadas.sort(Comparator.comparingInt(Migracion::version));
+        for (int i = 1; i < ordenadas.size(); i++) {
+            if (ordenadas.get(i).version() == ordenadas.get(i - 1).version()) {
+                throw new IllegalArgumentException("Versión de migración repetida: " + ordenadas.get(i).version());
+            }
+        }
+        this.migraciones = List.copyOf(ordenadas);
+    }
+
+    /**
+     * Aplica en orden las migraciones posteriores a la versión actual del esquema.
+     * Si una migración falla se detiene, para no aplicar las siguientes sobre un esquema incompleto.
+     * @return la versión del esquema al terminar.
+     * @throws SQLException si falla una migración o el acceso a la tabla de versiones.
+     */
+    public int migrar() throws SQLException {
+        Conexion conexion = Conexion.getInstance();
+        boolean sqlite = conexion.isSQLite();
+
+        int actual;
+        try (Connection conn = conexion.getConnection();
+             Statement st = conn.createStatement()) {
+            st.executeUpdate(SQL_CREATE_TABLA);
+            try (ResultSet rs = st.executeQuery(SQL_VERSION_ACTUAL)) {
+                rs.next();
+                actual = rs.getInt(1);
+            }
+        }
+
+        for (Migracion m : migraciones) {
+            if (m.version() <= actual) continue;
+
+            long inicio = System.currentTimeMillis();
+            logger.log(Level.INFO, "Aplicando migración " + m.version() + ": " + m.descripcion());
+            if (m.esTransaccional(sqlite)) {
+                conexion.enTransaccion(() -> {
+                    try (Connection conn = conexion.getConnection()) {
+                        aplicarPasos(conn, m, sqlite);
+                        registrar(conn, m);
+                    }
+                    return null;
+                });
+            } else {
+                try (Connection conn = conexion.getConnection()) {
+                    aplicarPasos(conn, m, sqlite);
+                    registrar(conn, m);
+                }
+            }
+            actual = m.version();
+            logger.log(Level.INFO, "Migración " + m.version() + " aplicada en " + (System.currentTimeMillis() - inicio) + " ms.");
+        }
+
+        logger.log(Level.INFO, "Esquema en la versión " + actual + ".");
+        return actual;
+    }
+
+    /**
+     * Ejecuta los pasos de una migración en orden.
+     */
+    private static void aplicarPasos(Connection conn, Migracion m, boolean sqlite) throws SQLException {
+        for (PasoMigracion paso : m.pasos()) {
+            paso.aplicar(conn, sqlite);
+        }
+    }
+
+    /**
+     * Registra una migración como aplicada.
+     */
+    private static void registrar(Connection conn, Migracion m) throws SQLException {
+        try (PreparedStatement st = conn.prepareStatement(SQL_REGISTRAR)) {
+            st.setInt(1, m.version());
+            st.setString(2, m.descripcion());
+            st.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.dam2.adp.cinesphere.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Paso de una {@link Migracion}.
+ */
+@FunctionalInterface
+public interface PasoMigracion {
+
+    Logger logger = Logger.getLogger(PasoMigracion.class.getName());
+
+    /**
+     * Ejecuta el paso.
+     * @param conn la conexión de la migración.
+     * @param sqlite true si la base de datos es SQLite.
+     * @throws SQLException si el paso falla.
+     */
+    void aplicar(Connection conn, boolean sqlite) throws SQLException;
+
+    /**
+     * Indica si el paso puede ejecutarse dentro de una transacción.
+     * @param sqlite true si la base de datos es SQLite.
+     * @return true por defecto.
+     */
+    default boolean admiteTransaccion(boolean sqlite) {
+        return true;
+    }
+
+    /**
+     * Paso que ejecuta sentencias SQL en orden.
+     * @param sentencias las sentencias a ejecutar.
+     * @return el paso.
+     */
+    static PasoMigracion sql(String... sentencias) {
+        return (conn, sqlite) -> {
+            try (Statement st = conn.createStatement()) {
+                for (String sentencia : sentencias) {
+                    st.executeUpdate(sentencia);
+                }
+            }
+        };
+    }
+
+    /**
+     * Paso que crea un índice del {@link PlanIndices}.
+     * En PostgreSQL se construye con {@code CONCURRENTLY}, de modo que no bloquea las escrituras
+     * sobre la tabla; por eso el paso no admite transacción en ese motor. Si un índice único no se
+     * puede crear por datos duplicados, se crea como índice normal.
+     * @param indice el índice.
+     * @return el paso.
+     */
+    static PasoMigracion indice(PlanIndices.Indice indice) {
+        return new PasoMigracion() {
+            @Override
+            public void aplicar(Connection conn, boolean sqlite) throws SQLException {
+                boolean concurrente = !sqlite;
+                if (concurrente) eliminarSiInvalido(conn, indice.nombre());
+                try (Statement st = conn.createStatement()) {
+                    st.executeUpdate(indice.sql(indice.unico(), concurrente));
+                } catch (SQLException e) {
+                    if (!indice.unico()) throw e;
+                    logger.log(Level.WARNING, "No se pudo crear el índice único " + indice.nombre()
+                            + " (¿datos duplicados?). Se crea sin restricción de unicidad.", e);
+                    if (concurrente) eliminarSiInvalido(conn, indice.nombre());
+                    try (Statement st = conn.createStatement()) {
+                        st.executeUpdate(indice.sql(false, concurrente));
+                    }
+                }
+            }
+
+            @Override
+            public boolean admiteTransaccion(boolean sqlite) {
+                return sqlite;
+            }
+        };
+    }
+
+    /**
+     * Paso que, si falla, solo registra un aviso. Para mejoras que dependen de algo que puede no
+     * estar disponible, como una extensión de PostgreSQL.
+     * @param descripcion qué se pierde si el paso falla.
+     * @param paso el paso.
+     * @return el paso opcional.
+     */
+    static PasoMigracion opcional(String descripcion, PasoMigracion paso) {
+        return new PasoMigracion() {
+            @Override
+            public void aplicar(Connection conn, boolean sqlite) {
+                try {
+                    paso.aplicar(conn, sqlite);
+                } catch (SQLException e) {
+                    logger.log(Level.WARNING, "Paso opcional omitido: " + descripcion, e);
+                }
+            }
+
+            @Override
+            public boolean admiteTransaccion(boolean sqlite) {
+                return paso.admiteTransaccion(sqlite);
+            }
+        };
+    }
+
+    /**
+     * Elimina un índice de PostgreSQL que haya quedado inválido tras una construcción
+     * concurrente interrumpida; si no, {@code IF NOT EXISTS} lo daría por creado.
+     * @param conn la conexión, en modo autocommit.
+     * @param nombre el nombre del índice.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    private static void eliminarSiInvalido(Connection conn, String nombre) throws SQLException {
+        boolean invalido = false;
+        try (PreparedStatement st = conn.prepareStatement(
+                "SELECT NOT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ?")) {
+            st.setString(1, nombre);
+            try (ResultSet rs = st.executeQuery()) {
+                if (rs.next()) invalido = rs.getBoolean(1);
+            }
+        }
+        if (invalido) {
+            logger.log(Level.WARNING, "Eliminando índice inválido " + nombre + " para reconstruirlo.");
+            try (Statement st = conn.createStatement()) {
+                st.executeUpdate("DROP INDEX CONCURRENTLY IF EXISTS " + nombre);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.dam2.adp.cinesphere.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Perfil de rendimiento de SQLite que se aplica a cada conexión del pool.
+ * Se lee de las propiedades {@code db.sqlite.*} del archivo de configuración.
+ *
+ * @param journalMode      modo del diario (WAL permite lectores concurrentes mientras se escribe).
+ * @param synchronous      nivel de sincronización con disco (NORMAL es seguro con WAL).
+ * @param mmapSize         bytes del fichero que se leen mediante memoria mapeada (0 lo desactiva).
+ * @param cacheSize        tamaño de la caché de páginas; negativo en KiB, positivo en páginas.
+ * @param tempStore        dónde se guardan las tablas e índices temporales.
+ * @param busyTimeoutMs    espera máxima cuando la base de datos está bloqueada por otra conexión.
+ * @param mantenimientoMs  periodo de la tarea de optimize/wal_checkpoint (0 la desactiva).
+ */
+public record PerfilSQLite(String journalMode,
+                           String synchronous,
+                           long mmapSize,
+                           int cacheSize,
+                           String tempStore,
+                           int busyTimeoutMs,
+                           long mantenimientoMs) {
+
+    private static final Set<String> JOURNAL_MODES = Set.of("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+    private static final Set<String> SYNCHRONOUS = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+    private static final Set<String> TEMP_STORE = Set.of("DEFAULT", "FILE", "MEMORY");
+
+    /**
+     * Construye el perfil a partir de las propiedades, usando valores por defecto si faltan.
+     * @param properties las propiedades cargadas del archivo de configuración.
+     * @return el perfil de SQLite.
+     * @throws IllegalArgumentException si algún valor no es válido.
+     */
+    public static PerfilSQLite desde(Properties properties) {
+        return new PerfilSQLite(
+                opcion(properties, "db.sqlite.journalMode", "WAL", JOURNAL_MODES),
+                opcion(properties, "db.sqlite.synchronous", "NORMAL", SYNCHRONOUS),
+                largo(properties, "db.sqlite.mmapSize", 268_435_456L),
+                entero(properties, "db.sqlite.cacheSize", -20_000),
+                opcion(properties, "db.sqlite.tempStore", "MEMORY", TEMP_STORE),
+                entero(properties, "db.sqlite.busyTimeoutMs", 5_000),
+                largo(properties, "db.sqlite.maintenanceIntervalMs", 600_000)
+        );
+    }
+
+    /**
+     * Obtiene las sentencias que se ejecutan en cada conexión nueva.
+     * @return los PRAGMAs del perfil, empezando por {@code foreign_keys}.
+     */
+    public List<String> sentenciasInicio() {
+        List<String> sentencias = new ArrayList<>();
+        sentencias.add("PRAGMA foreign_keys = ON");
+        sentencias.add("PRAGMA busy_timeout = " + busyTimeoutMs);
+        sentencias.add("PRAGMA journal_mode = " + journalMode);
+        sentencias.add("PRAGMA synchronous = " + synchronous);
+        sentencias.add("PRAGMA mmap_size = " + mmapSize);
+        sentencias.add("PRAGMA cache_size = " + cacheSize);
+        sentencias.add("PRAGMA temp_store = " + tempStore);
+        return sentencias;
+    }
+
+    /**
+     * Indica si el diario está en modo WAL, en cuyo caso tiene sentido hacer checkpoints.
+     * @return true si el modo es WAL.
+     */
+    public boolean esWal() {
+        return "WAL".equals(journalMode);
+    }
+
+    private static String opcion(Properties properties, String clave, String porDefecto, Set<String> validas) {
+        String valor = properties.getProperty(clave);
+        if (valor == null || valor.isBlank()) return porDefecto;
+        String normalizado = valor.trim().toUpperCase(Locale.ROOT);
+        if (!validas.contains(normalizado)) {
+            throw new IllegalArgumentException("Valor no válido para " + clave + ": " + valor);
+        }
+        return normalizado;
+    }
+
+    private static int entero(Properties properties, String clave, int porDefecto) {
+        String valor = properties.getProperty(clave);
+        return valor == null || valor.isBlank() ? porDefecto : Integer.parseInt(valor.trim());
+    }
+
+    private static long largo(Properties properties, String clave, long porDefecto) {
+        String valor = properties.getProperty(clave);
+        return valor == null || valor.isBlank() ? porDefecto : Long.parseLong(valor.trim());
+    }
+}
@@ -0,0 +1,91 @@
+package org.dam2.adp.cinesphere.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Índices secundarios y restricciones de unicidad que respaldan las consultas de los DAOs.
+ * Los crea la migración 1 de {@link Migraciones}; los índices nuevos deben añadirse en una
+ * migración posterior para que lleguen a las bases de datos existentes.
+ */
+public final class PlanIndices {
+
+    /**
+     * Definición de un índice.
+     * @param nombre el nombre del índice.
+     * @param tabla la tabla indexada.
+     * @param columnas las columnas, separadas por comas.
+     * @param unico si el índice impone unicidad.
+     */
+    record Indice(String nombre, String tabla, String columnas, boolean unico) {
+
+        /**
+         * Genera la sentencia CREATE INDEX del índice.
+         * @param unico si se debe crear como índice único.
+         * @param concurrente si se debe construir sin bloquear la tabla (solo PostgreSQL).
+         * @return la sentencia SQL.
+         */
+        String sql(boolean unico, boolean concurrente) {
+            return "CREATE " + (unico ? "UNIQUE " : "") + "INDEX " + (concurrente ? "CONCURRENTLY " : "")
+                    + "IF NOT EXISTS " + nombre + " ON " + tabla + " (" + columnas + ")";
+        }
+    }
+
+    /**
+     * Índices del plan. Los únicos corresponden a datos que el código ya trata como únicos:
+     * los nombres de los diccionarios (búsquedas findByName) y el par título/año de las películas
+     * (comprobación de duplicados al importar y al crear películas).
+     */
+    static final List<Indice> INDICES = List.of(
+            // Filtros de PeliculaDAO y MiListaDAO.
+            new Indice("idx_pelicula_year", "pelicula", "yearpelicula", false),
+            new Indice("idx_pelicula_rating", "pelicula", "ratingpelicula", false),
+            new Indice("idx_peliculagenero_genero", "peliculagenero", "idgenero, idpelicula", false),
+            new Indice("idx_milista_usuario_estado", "milista", "idusuario, estado", false),
+            // Duplicados y búsquedas por nombre.
+            new Indice("ux_pelicula_titulo_year", "pelicula", "titulopelicula, yearpelicula", true),
+            new Indice("ux_actor_nombre", "actor", "nombreactor", true),
+            new Indice("ux_director_nombre", "director", "nombredirector", true),
+            new Indice("ux_genero_nombre", "genero", "nombregenero", true),
+            new Indice("idx_usuario_email", "usuario", "email", false),
+            // Claves ajenas que se recorren al borrar o al cargar relaciones.
+            new Indice("idx_peliculaactor_actor", "peliculaactor", "idactor", false),
+            new Indice("idx_peliculadirector_director", "peliculadirector", "iddirector", false),
+            new Indice("idx_milista_pelicula", "milista", "idpelicula", false)
+    );
+
+    /**
+     * Índice de trigramas para la búsqueda por título con {@code LIKE '%texto%'}, que un índice
+     * B-tree no puede resolver. Solo existe en PostgreSQL y necesita la extensión pg_trgm.
+     */
+    private static final String SQL_EXTENSION_TRGM = "CREATE EXTENSION IF NOT EXISTS pg_trgm";
+    private static final String SQL_INDICE_TITULO_TRGM =
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pelicula_titulo_trgm ON pelicula USING gin (LOWER(titulopelicula) gin_trgm_ops)";
+
+    private PlanIndices() {
+    }
+
+    /**
+     * Paso que crea el índice de trigramas del título. En SQLite no hace nada.
+     * @return el paso.
+     */
+    static PasoMigracion indiceTitulo() {
+        return new PasoMigracion() {
+            @Override
+            public void aplicar(Connection conn, boolean sqlite) throws SQLException {
+                if (sqlite) return;
+                try (Statement st = conn.createStatement()) {
+                    st.executeUpdate(SQL_EXTENSION_TRGM);
+                    st.executeUpdate(SQL_INDICE_TITULO_TRGM);
+                }
+            }
+
+            @Override
+            public boolean admiteTransaccion(boolean sqlite) {
+                return sqlite;
+            }
+        };
+    }
+}
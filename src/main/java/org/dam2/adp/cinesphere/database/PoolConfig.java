@@ -0,0 +1,51 @@
+package org.dam2.adp.cinesphere.database;
+
+import java.util.Properties;
+
+/**
+ * Parámetros de configuración del pool de conexiones.
+ * Se leen de las propiedades {@code db.pool.*} del archivo de configuración.
+ *
+ * @param minimo               conexiones que se mantienen abiertas aunque estén ociosas.
+ * @param maximo               conexiones simultáneas como máximo.
+ * @param esperaMaximaMs       tiempo máximo de espera por una conexión libre.
+ * @param ociosidadMaximaMs    tiempo tras el cual se cierra una conexión ociosa por encima del mínimo.
+ * @param timeoutValidacionSeg segundos máximos para validar una conexión al prestarla.
+ * @param umbralFugaMs         tiempo prestada a partir del cual se avisa de una posible fuga (0 desactiva).
+ * @param cacheSentencias      sentencias preparadas que se guardan por conexión (0 desactiva la caché).
+ */
+public record PoolConfig(int minimo,
+                         int maximo,
+                         long esperaMaximaMs,
+                         long ociosidadMaximaMs,
+                         int timeoutValidacionSeg,
+                         long umbralFugaMs,
+                         int cacheSentencias) {
+
+    /**
+     * Construye la configuración a partir de las propiedades, usando valores por defecto si faltan.
+     * @param properties las propiedades cargadas del archivo de configuración.
+     * @return la configuración del pool.
+     */
+    public static PoolConfig desde(Properties properties) {
+        return new PoolConfig(
+                entero(properties, "db.pool.minSize", 1),
+                entero(properties, "db.pool.maxSize", 8),
+                largo(properties, "db.pool.connectionTimeoutMs", 10_000),
+                largo(properties, "db.pool.idleTimeoutMs", 300_000),
+                entero(properties, "db.pool.validationTimeoutSec", 2),
+                largo(properties, "db.pool.leakDetectionThresholdMs", 60_000),
+                entero(properties, "db.pool.statementCacheSize", 64)
+        );
+    }
+
+    private static int entero(Properties properties, String clave, int porDefecto) {
+        String valor = properties.getProperty(clave);
+        return valor == null || valor.isBlank() ? porDefecto : Integer.parseInt(valor.trim());
+    }
+
+    private static long largo(Properties properties, String clave, long porDefecto) {
+        String valor = properties.getProperty(clave);
+        return valor == null || valor.isBlank() ? porDefecto : Long.parseLong(valor.trim());
+    }
+}
@@ -0,0 +1,52 @@
+package org.dam2.adp.cinesphere.database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Envoltorio de una sentencia cuyo {@link Statement#getConnection()} devuelve la conexión que tiene
+ * el llamador, no la que hay debajo. Así, cerrar o confirmar a través de la sentencia pasa por los
+ * mismos controles que hacerlo con la conexión: el pool no presta la conexión física y la transacción
+ * de {@link Conexion#enTransaccion(Conexion.OperacionTransaccional)} no se cierra ni se confirma a medias.
+ */
+final class SentenciaEnvuelta {
+
+    private SentenciaEnvuelta() {
+    }
+
+    /**
+     * Envuelve una sentencia si hace falta.
+     * @param resultado lo que ha devuelto el método de la conexión; si no es una sentencia se devuelve tal cual.
+     * @param propietaria la conexión que debe ver el llamador.
+     * @return la sentencia envuelta, del mismo tipo que la original, o el resultado sin cambios.
+     */
+    static Object conConexion(Object resultado, Connection propietaria) {
+        if (!(resultado instanceof Statement st)) return resultado;
+        Class<?> tipo = st instanceof CallableStatement ? CallableStatement.class
+                : st instanceof PreparedStatement ? PreparedStatement.class
+                : Statement.class;
+        return Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[]{tipo},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getConnection":
+                            return propietaria;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            try {
+                                return method.invoke(st, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+}
@@ -0,0 +1,119 @@
+package org.dam2.adp.cinesphere.util;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+import java.lang.ref.SoftReference;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Caché de las imágenes de la aplicación, indexada por la ruta del recurso y el ancho al que se
+ * decodifica. Las tarjetas y el detalle de las películas comparten así una sola {@link Image} por
+ * género y tamaño, en lugar de volver a leer y decodificar el PNG cada vez que se pinta una.
+ * <p>
+ * Las imágenes se guardan con referencias blandas ({@link SoftReference}): el recolector puede
+ * liberarlas si falta memoria, y entonces se vuelven a cargar la siguiente vez que se piden.
+ * Si un recurso no existe se usa {@link Utils#IMAGEN_POR_DEFECTO}.
+ */
+public final class CacheImagenes {
+
+    private static final Logger logger = Logger.getLogger(CacheImagenes.class.getName());
+
+    /**
+     * Clave de una imagen decodificada.
+     * @param url la URL del recurso.
+     * @param ancho el ancho al que se decodifica, o 0 para el tamaño original.
+     */
+    private record Clave(String url, double ancho) {
+    }
+
+    private static final Map<Clave, SoftReference<Image>> imagenes = new ConcurrentHashMap<>();
+
+    /** URL de cada ruta ya resuelta; las que no existen se guardan como cadena vacía. */
+    private static final Map<String, String> urls = new ConcurrentHashMap<>();
+
+    private CacheImagenes() {
+    }
+
+    /**
+     * Obtiene una imagen decodificada al ancho indicado, conservando la proporción.
+     * Si se pide desde el hilo de JavaFX y no está en caché, se carga en segundo plano.
+     * @param ruta la ruta del recurso, por ejemplo la de {@link Utils#obtenerRutaImagenPorGenero(String)}.
+     * @param ancho el ancho en píxeles, o 0 para el tamaño original.
+     * @return la imagen compartida; no debe modificarse.
+     */
+    public static Image obtener(String ruta, double ancho) {
+        String url = url(ruta);
+        if (url.isEmpty()) {
+            url = url(Utils.IMAGEN_POR_DEFECTO);
+        }
+        Clave clave = new Clave(url, ancho);
+        Image cacheada = valida(imagenes.get(clave));
+        if (cacheada != null) return cacheada;
+
+        // Se decodifica fuera del mapa: hacerlo dentro de compute() bloquearía, mientras dura la
+        // decodificación, a quien pida otra imagen que caiga en el mismo cubo del mapa.
+        Image nueva = new Image(url, ancho, 0, true, true, Platform.isFxApplicationThread());
+        SoftReference<Image> nuevaRef = new SoftReference<>(nueva);
+        while (true) {
+            SoftReference<Image> previa = imagenes.putIfAbsent(clave, nuevaRef);
+            if (previa == null) return nueva;
+            // Si otro hilo la ha cargado a la vez, se usa la suya para que todos compartan la misma.
+            Image ganadora = valida(previa);
+            if (ganadora != null) return ganadora;
+            if (imagenes.replace(clave, previa, nuevaRef)) return nueva;
+        }
+    }
+
+    /**
+     * Obtiene la imagen de una entrada de la caché si todavía se puede usar.
+     * @param ref la referencia guardada, o null.
+     * @return la imagen, o null si no hay, la ha liberado el recolector o falló su carga.
+     */
+    private static Image valida(SoftReference<Image> ref) {
+        Image imagen = ref == null ? null : ref.get();
+        return imagen != null && !imagen.isError() ? imagen : null;
+    }
+
+    /**
+     * Decodifica en un hilo aparte todas las imágenes de género a los anchos indicados, para que
+     * las primeras páginas del catálogo no tengan que esperar a cargarlas.
+     * @param anchos los anchos a los que se usan las imágenes.
+     */
+    public static void precargarEnSegundoPlano(double... anchos) {
+        Thread hilo = new Thread(() -> {
+            long inicio = System.currentTimeMillis();
+            int cargadas = 0;
+            for (String ruta : Utils.rutasImagenesGenero()) {
+                for (double ancho : anchos) {
+                    obtener(ruta, ancho);
+                    cargadas++;
+                }
+            }
+            logger.log(Level.INFO, cargadas + " imágenes precargadas en " + (System.currentTimeMillis() - inicio) + " ms.");
+        }, "cinesphere-precarga-imagenes");
+        hilo.setDaemon(true);
+        hilo.setPriority(Thread.MIN_PRIORITY);
+        hilo.start();
+    }
+
+    /**
+     * Resuelve la URL de un recurso una sola vez.
+     * @param ruta la ruta del recurso.
+     * @return la URL, o una cadena vacía si el recurso no existe.
+     */
+    private static String url(String ruta) {
+        return urls.computeIfAbsent(ruta, r -> {
+            URL url = CacheImagenes.class.getResource(r);
+            if (url == null) {
+                logger.log(Level.WARNING, "No se encontró la imagen " + r + "; se usará " + Utils.IMAGEN_POR_DEFECTO);
+                return "";
+            }
+            return url.toExternalForm();
+        });
+    }
+}
@@ -3,76 +3,333 @@ package org.dam2.adp.cinesphere.util;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
-import org.dam2.adp.cinesphere.DAO.*;
 import org.dam2.adp.cinesphere.model.*;
+import org.dam2.adp.cinesphere.util.importer.EscritorCompartido;
+import org.dam2.adp.cinesphere.util.importer.EscritorImportacion;
+import org.dam2.adp.cinesphere.util.importer.FilaImportacion;
+import org.dam2.adp.cinesphere.util.importer.ImportPipeline;
+import org.dam2.adp.cinesphere.util.importer.InformeImportacion;
+import org.dam2.adp.cinesphere.util.importer.LectorCsvMapeado;
+import org.dam2.adp.cinesphere.util.importer.ProgresoImportacion;
+import org.dam2.adp.cinesphere.util.importer.PuntoControl;
+import org.dam2.adp.cinesphere.util.importer.RegistroCsv;
 
 import java.io.*;
+import java.net.URL;
+import java.net.URLConnection;
 import java.nio.charset.StandardCharsets;
-import java.sql.SQLException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Clase utilitaria encargada de importar películas y sus datos relacionados.
- * Procesa el archivo CSV e inserta los datos normalizados en la base de datos.
+ * La lectura del CSV, la limpieza de campos y la escritura en la base de datos se ejecutan
+ * en paralelo mediante un {@link ImportPipeline}; la escritura se hace por lotes,
+ * con una transacción por lote. Los archivos locales se leen con {@link LectorCsvMapeado};
+ * los recursos y los Reader, con commons-csv.
  */
 public class CsvImporter {
 
     private static final Logger logger = Logger.getLogger(CsvImporter.class.getName());
 
+    /** Columnas que usa el importador, en el orden de los campos de {@link RegistroCsv}. */
     private static final List<String> CABECERAS_ESPERADAS = List.of(
             "Title", "Director", "Stars", "IMDb-Rating", "Category",
             "Duration", "Censor-board-rating", "ReleaseYear"
     );
 
-    private static final PeliculaDAO peliculaDAO = new PeliculaDAO();
-    private static final DirectorDAO directorDAO = new DirectorDAO();
-    private static final ActorDAO actorDAO = new ActorDAO();
-    private static final GeneroDAO generoDAO = new GeneroDAO();
-    private static final ClasificacionDAO clasificacionDAO = new ClasificacionDAO();
+    /** Número de filas que se escriben por defecto en cada transacción. */
+    public static final int TAMANO_LOTE_POR_DEFECTO = 500;
 
-    private static final PeliculaDirectorDAO peliculaDirectorDAO = new PeliculaDirectorDAO();
-    private static final PeliculaActorDAO peliculaActorDAO = new PeliculaActorDAO();
-    private static final PeliculaGeneroDAO peliculaGeneroDAO = new PeliculaGeneroDAO();
-
-    private static final Map<String, Director> cacheDirectores = new HashMap<>();
-    private static final Map<String, Actor> cacheActores = new HashMap<>();
-    private static final Map<String, Genero> cacheGeneros = new HashMap<>();
-    private static final Map<String, Clasificacion> cacheClasificaciones = new HashMap<>();
+    /**
+     * Trabajo de importación que se envuelve para construir su informe.
+     */
+    @FunctionalInterface
+    private interface Importacion {
+        void ejecutar() throws Exception;
+    }
 
     /**
      * Importa un archivo CSV desde una ruta local.
      * @param csvPath la ruta del archivo CSV.
+     * @return el informe de la importación.
+     * @throws Exception si ocurre un error durante la importación.
+     */
+    public static InformeImportacion importarLocal(String csvPath) throws Exception {
+        return importarLocal(csvPath, TAMANO_LOTE_POR_DEFECTO);
+    }
+
+    /**
+     * Importa un archivo CSV desde una ruta local agrupando las filas en lotes.
+     * @param csvPath la ruta del archivo CSV.
+     * @param tamanoLote el número de filas que se escriben en cada transacción.
+     * @return el informe de la importación.
+     * @throws Exception si ocurre un error durante la importación.
+     */
+    public static InformeImportacion importarLocal(String csvPath, int tamanoLote) throws Exception {
+        return importarLocal(csvPath, tamanoLote, new ProgresoImportacion());
+    }
+
+    /**
+     * Importa un archivo CSV desde una ruta local actualizando un progreso que se puede
+     * observar y cancelar desde otro hilo. Cada lote guarda un {@link PuntoControl}; si una
+     * importación anterior del mismo archivo se interrumpió, se reanuda desde el primer registro
+     * que no llegó a confirmarse.
+     * @param csvPath la ruta del archivo CSV.
+     * @param tamanoLote el número de filas que se escriben en cada transacción.
+     * @param progreso los contadores de la importación.
+     * @return el informe de la importación, marcado como cancelado si se canceló.
+     * @throws Exception si ocurre un error durante la importación.
+     */
+    public static InformeImportacion importarLocal(String csvPath, int tamanoLote, ProgresoImportacion progreso) throws Exception {
+        return importarLocal(csvPath, tamanoLote, 1, progreso);
+    }
+
+    /**
+     * Importa un archivo CSV local mapeándolo en memoria. Con más de una región, el archivo se
+     * divide en tramos que se leen en paralelo, cada uno desde un hilo lector; en ese caso los
+     * registros no se leen en orden y la importación no guarda punto de control.
+     * @param csvPath la ruta del archivo CSV.
+     * @param tamanoLote el número de filas que se escriben en cada transacción.
+     * @param regiones el número de tramos que se leen en paralelo; 1 para leer en orden y poder reanudar.
+     * @param progreso los contadores de la importación.
+     * @return el informe de la importación, marcado como cancelado si se canceló.
+     * @throws Exception si ocurre un error durante la importación.
+     */
+    public static InformeImportacion importarLocal(String csvPath, int tamanoLote, int regiones,
+                                                   ProgresoImportacion progreso) throws Exception {
+        validarLote(tamanoLote);
+        return importarArchivo(Path.of(csvPath), regiones, progreso,
+                EscritorImportacion.paraConexionActual(), ImportPipeline.porDefecto(tamanoLote));
+    }
+
+    /**
+     * Importa todos los archivos CSV de un directorio.
+     * @param directorio la ruta del directorio.
+     * @param patron el patrón glob de los archivos a importar, por ejemplo {@code *.csv}.
+     * @param tamanoLote el número de filas que se escriben en cada transacción.
+     * @param progreso el progreso global, que suma los de todos los archivos.
+     * @return el informe global, con el informe de cada archivo.
+     * @throws Exception si no se puede leer el directorio.
+     */
+    public static InformeImportacion importarDirectorio(String directorio, String patron, int tamanoLote,
+                                                        ProgresoImportacion progreso) throws Exception {
+        validarLote(tamanoLote);
+        Path carpeta = Path.of(directorio);
+        List<Path> archivos = new ArrayList<>();
+        try (DirectoryStream<Path> contenido = Files.newDirectoryStream(carpeta, patron)) {
+            for (Path archivo : contenido) {
+                if (Files.isRegularFile(archivo)) archivos.add(archivo);
+            }
+        }
+        if (archivos.isEmpty()) {
+            throw new IllegalArgumentException("No hay archivos " + patron + " en " + directorio);
+        }
+        archivos.sort(Comparator.naturalOrder());
+
+        long bytes = 0;
+        for (Path archivo : archivos) bytes += Files.size(archivo);
+        progreso.setBytesTotales(bytes);
+
+        logger.log(Level.INFO, "Importando " + archivos.size() + " archivos desde " + directorio);
+        LocalDateTime inicio = LocalDateTime.now();
+        int simultaneos = Math.min(archivos.size(), Runtime.getRuntime().availableProcessors());
+        EscritorImportacion escritor = new EscritorCompartido(EscritorImportacion.paraConexionActual());
+
+        AtomicInteger contadorHilos = new AtomicInteger();
+        ExecutorService hilos = Executors.newFixedThreadPool(simultaneos, r -> {
+            Thread t = new Thread(r, "cinesphere-import-archivo-" + contadorHilos.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        List<InformeImportacion> informes = new ArrayList<>(archivos.size());
+        try {
+            List<Future<InformeImportacion>> futuros = new ArrayList<>(archivos.size());
+            // Cada progreso se crea al empezar su archivo, para que su duración no incluya la espera en la cola.
+            ProgresoImportacion[] progresos = new ProgresoImportacion[archivos.size()];
+            for (int i = 0; i < archivos.size(); i++) {
+                Path archivo = archivos.get(i);
+                int indice = i;
+                futuros.add(hilos.submit(() -> {
+                    progresos[indice] = new ProgresoImportacion(progreso);
+                    return importarArchivo(archivo, 1, progresos[indice], escritor,
+                            ImportPipeline.porDefecto(tamanoLote, simultaneos));
+                }));
+            }
+            for (int i = 0; i < archivos.size(); i++) {
+                try {
+                    informes.add(futuros.get(i).get());
+                } catch (ExecutionException e) {
+                    Throwable causa = e.getCause();
+                    logger.log(Level.SEVERE, "Error al importar " + archivos.get(i), causa);
+                    informes.add(InformeImportacion.de(archivos.get(i).getFileName().toString(), LocalDateTime.now(), progresos[i])
+                            .conError(causa.getMessage()));
+                }
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        InformeImportacion informe = InformeImportacion.de(carpeta.getFileName() + "/" + patron, inicio, progreso)
+                .conArchivos(informes);
+        logger.log(Level.INFO, informe.resumen());
+        return informe;
+    }
+
+    /**
+     * Importa un archivo CSV local mapeándolo en memoria.
+     * @param archivo el archivo.
+     * @param regiones el número de tramos que se leen en paralelo; con 1 se guarda punto de control.
+     * @param progreso los contadores de la importación.
+     * @param escritor el escritor de los lotes.
+     * @param pipeline el pipeline de la importación.
+     * @return el informe de la importación.
      * @throws Exception si ocurre un error durante la importación.
      */
-    public static void importarLocal(String csvPath) throws Exception {
-        logger.log(Level.INFO, "Iniciando importación desde la ruta: " + csvPath);
-        try (Reader reader = new FileReader(csvPath, StandardCharsets.UTF_8)) {
-            importar(reader);
+    private static InformeImportacion importarArchivo(Path archivo, int regiones, ProgresoImportacion progreso,
+                                                      EscritorImportacion escritor,
+                                                      ImportPipeline<RegistroCsv, FilaImportacion> pipeline) throws Exception {
+        logger.log(Level.INFO, "Iniciando importación desde la ruta: " + archivo);
+        LocalDateTime inicio = LocalDateTime.now();
+        LectorCsvMapeado lector = LectorCsvMapeado.abrir(archivo, CABECERAS_ESPERADAS);
+        validarCabeceras(lector.getCabeceras());
+        progreso.setBytesTotales(lector.getTamano());
+
+        List<LectorCsvMapeado.Region> partes;
+        if (regiones > 1) {
+            progreso.setPuntoControl(null);
+            partes = lector.dividir(regiones);
+        } else {
+            PuntoControl punto = PuntoControl.abrir(archivo.toFile());
+            progreso.setPuntoControl(punto);
+            if (punto.esReanudacion()) {
+                logger.log(Level.INFO, "Reanudando la importación de " + punto);
+            }
+            partes = List.of(lector.desde(punto.getPosicionInicial(), punto.getRegistroInicial()));
+        }
+        progreso.sumarBytes(partes.isEmpty() ? lector.getTamano() : partes.get(0).getPosicion());
+
+        List<Iterator<RegistroCsv>> origenes = new ArrayList<>(partes.size());
+        for (LectorCsvMapeado.Region region : partes) {
+            origenes.add(registros(region, progreso));
+        }
+        try {
+            return conInforme(archivo.getFileName().toString(), inicio, progreso,
+                    () -> procesar(origenes, progreso, escritor, pipeline));
+        } finally {
+            partes.forEach(LectorCsvMapeado.Region::close);
         }
     }
 
     /**
      * Importa un archivo CSV desde los recursos de la aplicación.
      * @param resourcePath la ruta del recurso CSV.
+     * @return el informe de la importación.
+     * @throws Exception si ocurre un error durante la importación.
+     */
+    public static InformeImportacion importarDesdeRecurso(String resourcePath) throws Exception {
+        return importarDesdeRecurso(resourcePath, TAMANO_LOTE_POR_DEFECTO);
+    }
+
+    /**
+     * Importa un archivo CSV desde los recursos de la aplicación agrupando las filas en lotes.
+     * @param resourcePath la ruta del recurso CSV.
+     * @param tamanoLote el número de filas que se escriben en cada transacción.
+     * @return el informe de la importación.
      * @throws Exception si ocurre un error durante la importación.
      */
-    public static void importarDesdeRecurso(String resourcePath) throws Exception {
+    public static InformeImportacion importarDesdeRecurso(String resourcePath, int tamanoLote) throws Exception {
+        return importarDesdeRecurso(resourcePath, tamanoLote, new ProgresoImportacion());
+    }
+
+    /**
+     * Importa un archivo CSV desde los recursos de la aplicación actualizando un progreso
+     * que se puede observar y cancelar desde otro hilo.
+     * @param resourcePath la ruta del recurso CSV.
+     * @param tamanoLote el número de filas que se escriben en cada transacción.
+     * @param progreso los contadores de la importación.
+     * @return el informe de la importación, marcado como cancelado si se canceló.
+     * @throws Exception si ocurre un error durante la importación.
+     */
+    public static InformeImportacion importarDesdeRecurso(String resourcePath, int tamanoLote, ProgresoImportacion progreso) throws Exception {
         logger.log(Level.INFO, "Iniciando importación desde recurso: " + resourcePath);
-        InputStream is = CsvImporter.class.getResourceAsStream(resourcePath);
-        if (is == null) throw new IllegalArgumentException("Recurso no encontrado: " + resourcePath);
-        try (Reader reader = new InputStreamReader(is, StandardCharsets.UTF_8)) {
-            importar(reader);
+        LocalDateTime inicio = LocalDateTime.now();
+        URL recurso = CsvImporter.class.getResource(resourcePath);
+        if (recurso == null) throw new IllegalArgumentException("Recurso no encontrado: " + resourcePath);
+        URLConnection conexion = recurso.openConnection();
+        progreso.setBytesTotales(conexion.getContentLengthLong());
+        validarLote(tamanoLote);
+        try (Reader reader = new InputStreamReader(new EntradaContada(conexion.getInputStream(), progreso), StandardCharsets.UTF_8)) {
+            return conInforme(resourcePath, inicio, progreso, () -> importar(reader, tamanoLote, progreso));
         }
     }
 
+    /**
+     * Ejecuta una importación y construye su informe final.
+     * Una cancelación no se trata como error: se devuelve el informe con lo importado hasta entonces.
+     * Si la importación termina, se elimina su punto de control.
+     * @param origen el nombre del archivo o recurso, para el informe.
+     * @param inicio el momento en que empezó la importación.
+     * @param progreso los contadores de la importación.
+     * @param importacion el trabajo a ejecutar.
+     * @return el informe de la importación.
+     * @throws Exception si ocurre un error durante la importación.
+     */
+    private static InformeImportacion conInforme(String origen, LocalDateTime inicio, ProgresoImportacion progreso,
+                                                 Importacion importacion) throws Exception {
+        try {
+            importacion.ejecutar();
+            if (progreso.getPuntoControl() != null) progreso.getPuntoControl().eliminar();
+        } catch (CancellationException e) {
+            logger.log(Level.INFO, "Importación cancelada. " + progreso);
+        }
+        InformeImportacion informe = InformeImportacion.de(origen, inicio, progreso);
+        logger.log(Level.INFO, informe.resumen());
+        return informe;
+    }
+
     /**
      * Procesa un Reader que contiene datos CSV.
      * @param reader el Reader con los datos CSV.
      * @throws Exception si ocurre un error durante la importación.
      */
     public static void importar(Reader reader) throws Exception {
+        importar(reader, TAMANO_LOTE_POR_DEFECTO);
+    }
+
+    /**
+     * Procesa un Reader que contiene datos CSV escribiendo las películas por lotes.
+     * @param reader el Reader con los datos CSV.
+     * @param tamanoLote el número de filas que se escriben en cada transacción.
+     * @throws Exception si ocurre un error durante la importación.
+     */
+    public static void importar(Reader reader, int tamanoLote) throws Exception {
+        importar(reader, tamanoLote, new ProgresoImportacion());
+    }
+
+    /**
+     * Procesa un Reader que contiene datos CSV escribiendo las películas por lotes con commons-csv.
+     * Las importaciones desde un Reader no guardan punto de control.
+     * @param reader el Reader con los datos CSV.
+     * @param tamanoLote el número de filas que se escriben en cada transacción.
+     * @param progreso los contadores de la importación.
+     * @throws java.util.concurrent.CancellationException si se cancela el progreso; el lote en curso se deshace.
+     * @throws Exception si ocurre un error durante la importación.
+     */
+    public static void importar(Reader reader, int tamanoLote, ProgresoImportacion progreso) throws Exception {
+        validarLote(tamanoLote);
+        progreso.setPuntoControl(null);
         CSVParser parser = CSVFormat.DEFAULT
                 .builder()
                 .setHeader()
@@ -83,176 +340,211 @@ public class CsvImporter {
                 .parse(reader);
 
         Map<String, Integer> headerMap = parser.getHeaderMap();
-        if (headerMap == null || headerMap.isEmpty()) {
-            throw new IllegalArgumentException("El archivo CSV está vacío o sin cabeceras.");
-        }
+        validarCabeceras(headerMap == null ? List.of() : List.copyOf(headerMap.keySet()));
 
-        for (String columna : CABECERAS_ESPERADAS) {
-            if (!headerMap.containsKey(columna)) {
-                throw new IllegalArgumentException("Falta columna obligatoria: " + columna);
+        Iterator<CSVRecord> registros = parser.iterator();
+        Iterator<RegistroCsv> origen = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return registros.hasNext();
             }
-        }
 
-        int processedRows = 0;
-        for (CSVRecord row : parser) {
-            try {
-                if (!row.isConsistent() || row.get("Title").isBlank()) continue;
-                procesarFila(row);
-                processedRows++;
-            } catch (Exception e) {
-                logger.log(Level.SEVERE, "Error en fila " + row.getRecordNumber(), e);
+            @Override
+            public RegistroCsv next() {
+                return aRegistro(registros.next());
             }
-        }
-        logger.log(Level.INFO, "Importación finalizada. Filas procesadas: " + processedRows);
+        };
+        procesar(List.of(origen), progreso, EscritorImportacion.paraConexionActual(), ImportPipeline.porDefecto(tamanoLote));
     }
 
     /**
-     * Procesa una fila de un archivo CSV.
-     * @param row el registro CSV a procesar.
-     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     * Ejecuta el pipeline sobre uno o varios orígenes de registros.
+     * Varios hilos limpian y convierten los campos y el hilo llamante escribe cada lote en una única
+     * transacción con el {@link EscritorImportacion} adecuado a la base de datos conectada
+     * (COPY en PostgreSQL, inserciones por lotes en SQLite).
+     * @param origenes los orígenes; cada uno lo lee un hilo.
+     * @param progreso los contadores de la importación.
+     * @param escritor el escritor de los lotes.
+     * @param pipeline el pipeline que ejecuta la importación.
+     * @throws Exception si ocurre un error durante la importación.
      */
-    private static void procesarFila(CSVRecord row) throws SQLException {
-        String titulo = row.get("Title").trim();
-        Integer year = pasarAEntero(row.get("ReleaseYear"));
-
-
-        if (year == null) return;
-        if (peliculaDAO.findByTituloAndYear(titulo, year) != null) return;
-
-
-        Double rating = pasarADouble(row.get("IMDb-Rating"));
-        String duracionStr = row.get("Duration").replace("min", "").trim();
-        Integer duracion = pasarAEntero(duracionStr);
-        String clasifStr = row.get("Censor-board-rating");
-
-        Clasificacion clasificacion = obtenerClasificacion(clasifStr);
-
-        Pelicula p = new Pelicula();
-        p.setTituloPelicula(titulo);
-        p.setYearPelicula(year);
-        p.setRatingPelicula(rating);
-        p.setDuracionPelicula(duracion);
-        p.setClasificacion(clasificacion);
-
-        peliculaDAO.insert(p);
-
-
-        procesarDirectores(p, row.get("Director"));
-        procesarActores(p, row.get("Stars"));
-        procesarGeneros(p, row.get("Category"));
+    private static void procesar(List<Iterator<RegistroCsv>> origenes, ProgresoImportacion progreso,
+                                 EscritorImportacion escritor,
+                                 ImportPipeline<RegistroCsv, FilaImportacion> pipeline) throws Exception {
+        PuntoControl punto = progreso.getPuntoControl();
+        pipeline.ejecutar(
+                origenes,
+                registro -> {
+                    FilaImportacion fila = normalizar(registro);
+                    if (fila == null && punto != null) punto.completar(registro.numero());
+                    return fila;
+                },
+                lote -> escritor.escribir(lote, progreso),
+                progreso);
+
+        logger.log(Level.INFO, "Importación finalizada. " + progreso);
     }
 
     /**
-     * Procesa los directores de una película.
-     * @param p la película.
-     * @param rawData los datos en crudo de los directores.
-     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     * Comprueba que el tamaño de lote es válido.
+     * @param tamanoLote el número de filas por transacción.
+     * @throws IllegalArgumentException si no es mayor que cero.
      */
-    private static void procesarDirectores(Pelicula p, String rawData) throws SQLException {
-        for (String nombre : splitAndClean(rawData)) {
-            Director d = obtenerDirector(nombre);
-            peliculaDirectorDAO.insert(p.getIdPelicula(), d.getIdDirector());
+    private static void validarLote(int tamanoLote) {
+        if (tamanoLote < 1) {
+            throw new IllegalArgumentException("El tamaño de lote debe ser mayor que cero: " + tamanoLote);
         }
     }
 
     /**
-     * Procesa los actores de una película.
-     * @param p la película.
-     * @param rawData los datos en crudo de los actores.
-     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     * Comprueba que el CSV tiene todas las columnas que usa el importador, sin distinguir mayúsculas.
+     * @param cabeceras las cabeceras del archivo.
+     * @throws IllegalArgumentException si el archivo no tiene cabeceras o le falta alguna columna.
      */
-    private static void procesarActores(Pelicula p, String rawData) throws SQLException {
-        for (String nombre : splitAndClean(rawData)) {
-            Actor a = obtenerActor(nombre);
-            peliculaActorDAO.insert(p.getIdPelicula(), a.getIdActor());
+    private static void validarCabeceras(List<String> cabeceras) {
+        if (cabeceras.isEmpty()) {
+            throw new IllegalArgumentException("El archivo CSV está vacío o sin cabeceras.");
+        }
+        for (String columna : CABECERAS_ESPERADAS) {
+            if (cabeceras.stream().noneMatch(columna::equalsIgnoreCase)) {
+                throw new IllegalArgumentException("Falta columna obligatoria: " + columna);
+            }
         }
     }
 
     /**
-     * Procesa los géneros de una película.
-     * @param p la película.
-     * @param rawData los datos en crudo de los géneros.
-     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     * Adapta una región del archivo mapeado a registros del importador. Se recorre en la etapa
+     * lectora del pipeline: suma los bytes leídos al progreso y registra cada registro en el punto de control.
+     * @param region la región a leer.
+     * @param progreso los contadores de la importación.
+     * @return los registros de la región.
      */
-    private static void procesarGeneros(Pelicula p, String rawData) throws SQLException {
-        for (String nombre : splitAndClean(rawData)) {
-            Genero g = obtenerGenero(nombre);
-            peliculaGeneroDAO.insert(p.getIdPelicula(), g.getIdGenero());
-        }
+    private static Iterator<RegistroCsv> registros(LectorCsvMapeado.Region region, ProgresoImportacion progreso) {
+        PuntoControl punto = progreso.getPuntoControl();
+        return new Iterator<>() {
+            private long leido = region.getPosicion();
+
+            @Override
+            public boolean hasNext() {
+                return region.hasNext();
+            }
+
+            @Override
+            public RegistroCsv next() {
+                String[] c = region.next();
+                progreso.sumarBytes(region.getPosicion() - leido);
+                leido = region.getPosicion();
+                if (punto != null) punto.registrar(region.getNumero(), region.getInicioRegistro());
+                return new RegistroCsv(region.getNumero(), c[0], c[1], c[2], c[3], c[4], c[5], c[6], c[7],
+                        region.isCompleto());
+            }
+        };
     }
 
     /**
-     * Obtiene o crea una clasificación.
-     * @param nombre el nombre de la clasificación.
-     * @return la clasificación.
-     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     * Flujo que suma al progreso los bytes que se leen, para estimar cuánto falta.
      */
-    private static Clasificacion obtenerClasificacion(String nombre) throws SQLException {
-        if (nombre == null || nombre.isBlank()) nombre = "Not Rated";
+    private static final class EntradaContada extends FilterInputStream {
+
+        private final ProgresoImportacion progreso;
 
-        if (cacheClasificaciones.containsKey(nombre)) return cacheClasificaciones.get(nombre);
+        EntradaContada(InputStream in, ProgresoImportacion progreso) {
+            super(in);
+            this.progreso = progreso;
+        }
 
-        Clasificacion c = clasificacionDAO.findById(nombre);
-        if (c == null) {
-            c = new Clasificacion(nombre);
-            clasificacionDAO.insert(c);
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) progreso.sumarBytes(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) progreso.sumarBytes(n);
+            return n;
         }
-        cacheClasificaciones.put(nombre, c);
-        return c;
     }
 
     /**
-     * Obtiene o crea un director.
-     * @param nombre el nombre del director.
-     * @return el director.
-     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     * Copia las columnas que usa el importador a un registro independiente del parser.
+     * Se ejecuta en la etapa lectora del pipeline.
+     * @param row el registro CSV.
+     * @return el registro crudo.
      */
-    private static Director obtenerDirector(String nombre) throws SQLException {
-        if (cacheDirectores.containsKey(nombre)) return cacheDirectores.get(nombre);
-
-        Director d = directorDAO.findByName(nombre);
-        if (d == null) {
-            d = new Director(nombre);
-            directorDAO.insert(d);
-        }
-        cacheDirectores.put(nombre, d);
-        return d;
+    private static RegistroCsv aRegistro(CSVRecord row) {
+        return new RegistroCsv(
+                row.getRecordNumber(),
+                columna(row, "Title"),
+                columna(row, "Director"),
+                columna(row, "Stars"),
+                columna(row, "IMDb-Rating"),
+                columna(row, "Category"),
+                columna(row, "Duration"),
+                columna(row, "Censor-board-rating"),
+                columna(row, "ReleaseYear"),
+                row.isConsistent());
     }
 
     /**
-     * Obtiene o crea un actor.
-     * @param nombre el nombre del actor.
-     * @return el actor.
-     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     * Obtiene el valor de una columna, o null si la fila no la tiene.
+     * @param row el registro CSV.
+     * @param nombre el nombre de la columna.
+     * @return el valor de la columna.
      */
-    private static Actor obtenerActor(String nombre) throws SQLException {
-        if (cacheActores.containsKey(nombre)) return cacheActores.get(nombre);
+    private static String columna(CSVRecord row, String nombre) {
+        return row.isSet(nombre) ? row.get(nombre) : null;
+    }
 
-        Actor a = actorDAO.findByName(nombre);
-        if (a == null) {
-            a = new Actor(nombre);
-            actorDAO.insert(a);
+    /**
+     * Convierte un registro crudo en una fila lista para escribir.
+     * Se ejecuta en los hilos trabajadores del pipeline, por lo que no accede a la base de datos.
+     * @param registro el registro crudo.
+     * @return la fila, o null si el registro está mal formado o incompleto.
+     */
+    private static FilaImportacion normalizar(RegistroCsv registro) {
+        try {
+            if (!registro.completo() || registro.titulo() == null || registro.titulo().isBlank()) return null;
+            Pelicula p = construirPelicula(registro);
+            return p == null ? null : new FilaImportacion(registro.numero(), p);
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Error en fila " + registro.numero(), e);
+            return null;
         }
-        cacheActores.put(nombre, a);
-        return a;
     }
 
     /**
-     * Obtiene o crea un género.
-     * @param nombre el nombre del género.
-     * @return el género.
-     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     * Construye una película (sin IDs) a partir de un registro del CSV.
+     * @param registro el registro crudo.
+     * @return la película con sus directores, actores y géneros por nombre, o null si la fila no tiene año.
      */
-    private static Genero obtenerGenero(String nombre) throws SQLException {
-        if (cacheGeneros.containsKey(nombre)) return cacheGeneros.get(nombre);
+    private static Pelicula construirPelicula(RegistroCsv registro) {
+        String titulo = registro.titulo().trim();
+        Integer year = pasarAEntero(registro.year());
+        if (year == null) return null;
 
-        Genero g = generoDAO.findByName(nombre);
-        if (g == null) {
-            g = new Genero(nombre);
-            generoDAO.insert(g);
-        }
-        cacheGeneros.put(nombre, g);
-        return g;
+        String duracionStr = registro.duracion() == null ? null : registro.duracion().replace("min", "").trim();
+
+        Pelicula p = new Pelicula();
+        p.setTituloPelicula(titulo);
+        p.setYearPelicula(year);
+        p.setRatingPelicula(pasarADouble(registro.rating()));
+        p.setDuracionPelicula(pasarAEntero(duracionStr));
+        p.setClasificacion(new Clasificacion(registro.clasificacion()));
+
+        List<Director> directores = new ArrayList<>();
+        for (String nombre : splitAndClean(registro.directores())) directores.add(new Director(nombre));
+        List<Actor> actores = new ArrayList<>();
+        for (String nombre : splitAndClean(registro.actores())) actores.add(new Actor(nombre));
+        List<Genero> generos = new ArrayList<>();
+        for (String nombre : splitAndClean(registro.generos())) generos.add(new Genero(nombre));
+
+        p.setDirectores(directores);
+        p.setActores(actores);
+        p.setGeneros(generos);
+        return p;
     }
 
     /**
@@ -0,0 +1,63 @@
+package org.dam2.adp.cinesphere.util;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Utilidades para volver al hilo de JavaFX con el resultado de una tarea en segundo plano.
+ */
+public final class HiloFX {
+
+    /**
+     * Ejecutor que corre las tareas en el hilo de JavaFX: directamente si ya se está en él,
+     * o mediante {@link Platform#runLater(Runnable)} en otro caso.
+     */
+    public static final Executor EJECUTOR = tarea -> {
+        if (Platform.isFxApplicationThread()) {
+            tarea.run();
+        } else {
+            Platform.runLater(tarea);
+        }
+    };
+
+    private HiloFX() {
+    }
+
+    /**
+     * Entrega el resultado de un futuro en el hilo de JavaFX.
+     * @param futuro el futuro de la tarea en segundo plano.
+     * @param exito lo que se hace con el resultado si la tarea termina bien.
+     * @param error lo que se hace con la causa real del fallo si la tarea falla.
+     * @param <T> el tipo del resultado.
+     * @return un futuro que se completa cuando se ha ejecutado el callback correspondiente.
+     */
+    public static <T> CompletableFuture<Void> alTerminar(CompletableFuture<T> futuro, Consumer<? super T> exito,
+                                                         Consumer<? super Throwable> error) {
+        return futuro.handleAsync((resultado, fallo) -> {
+            if (fallo == null) {
+                exito.accept(resultado);
+            } else {
+                error.accept(causa(fallo));
+            }
+            return null;
+        }, EJECUTOR);
+    }
+
+    /**
+     * Obtiene la causa real de un fallo, quitando los envoltorios de {@link CompletableFuture}.
+     * @param fallo la excepción recibida.
+     * @return la excepción original.
+     */
+    public static Throwable causa(Throwable fallo) {
+        Throwable actual = fallo;
+        while ((actual instanceof CompletionException || actual instanceof ExecutionException) && actual.getCause() != null) {
+            actual = actual.getCause();
+        }
+        return actual;
+    }
+}
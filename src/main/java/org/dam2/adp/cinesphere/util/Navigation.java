@@ -56,6 +56,19 @@ public class Navigation {
         }
     }
 
+    /**
+     * Marca vistas de la ventana principal como obsoletas porque han cambiado sus datos, para que
+     * se refresquen la próxima vez que se muestren. Puede llamarse desde cualquier hilo.
+     * @param fxml Los archivos FXML de las vistas afectadas.
+     */
+    public static void marcarObsoletas(String... fxml) {
+        HiloFX.EJECUTOR.execute(() -> {
+            if (mainController != null) {
+                mainController.marcarObsoletas(fxml);
+            }
+        });
+    }
+
     /**
      * Cambia la escena actual por una nueva e inyecta el CSS personalizado.
      * @param fxml El archivo FXML de la escena a cargar.
@@ -0,0 +1,91 @@
+package org.dam2.adp.cinesphere.util;
+
+import javafx.concurrent.Task;
+import org.dam2.adp.cinesphere.util.importer.InformeImportacion;
+import org.dam2.adp.cinesphere.util.importer.ProgresoImportacion;
+
+/**
+ * Tarea de JavaFX que ejecuta una importación de CSV fuera del hilo de la interfaz.
+ * Publica el avance en {@link #progressProperty()} y {@link #messageProperty()} tras cada lote.
+ * Para detenerla conservando lo ya importado se usa {@link #detener()}: el lote en curso se deshace
+ * y la tarea termina con éxito devolviendo un informe marcado como cancelado.
+ */
+public class TareaImportacion extends Task<InformeImportacion> {
+
+    /** Patrón de los archivos que se importan de un directorio. */
+    public static final String PATRON_DIRECTORIO = "*.csv";
+
+    /**
+     * Importación que ejecuta la tarea.
+     */
+    @FunctionalInterface
+    private interface Importacion {
+        InformeImportacion ejecutar(ProgresoImportacion progreso) throws Exception;
+    }
+
+    private final Importacion importacion;
+    private final ProgresoImportacion progreso = new ProgresoImportacion();
+
+    private TareaImportacion(Importacion importacion) {
+        this.importacion = importacion;
+    }
+
+    /**
+     * @param ruta la ruta del archivo o del recurso CSV.
+     * @param esRecursoInterno true si la ruta es un recurso del classpath, false si es un archivo local.
+     */
+    public TareaImportacion(String ruta, boolean esRecursoInterno) {
+        this(esRecursoInterno
+                ? p -> CsvImporter.importarDesdeRecurso(ruta, CsvImporter.TAMANO_LOTE_POR_DEFECTO, p)
+                : p -> CsvImporter.importarLocal(ruta, CsvImporter.TAMANO_LOTE_POR_DEFECTO, p));
+    }
+
+    /**
+     * Crea una tarea que importa a la vez todos los CSV de un directorio.
+     * @param directorio la ruta del directorio.
+     * @return la tarea; su valor es el informe global, con el detalle de cada archivo.
+     */
+    public static TareaImportacion directorio(String directorio) {
+        return new TareaImportacion(p -> CsvImporter.importarDirectorio(
+                directorio, PATRON_DIRECTORIO, CsvImporter.TAMANO_LOTE_POR_DEFECTO, p));
+    }
+
+    /**
+     * Ejecuta la importación en el hilo de la tarea.
+     * @return el informe de la importación.
+     * @throws Exception si la importación falla.
+     */
+    @Override
+    protected InformeImportacion call() throws Exception {
+        updateMessage("Preparando importación...");
+        progreso.setOyente(p -> {
+            double fraccion = p.getFraccion();
+            updateProgress(fraccion < 0 ? -1 : fraccion, 1);
+            updateMessage(p.getEstado());
+        });
+        InformeImportacion informe = importacion.ejecutar(progreso);
+        updateProgress(1, 1);
+        updateMessage(progreso.getEstado());
+        return informe;
+    }
+
+    /**
+     * Pide que la importación se detenga tras deshacer el lote en curso.
+     * La tarea termina con éxito y su valor es el informe de lo importado hasta ese momento.
+     */
+    public void detener() {
+        progreso.cancelar();
+        updateMessage("Cancelando...");
+    }
+
+    /**
+     * Cancela la tarea. Además de cambiar su estado, detiene la escritura en la base de datos.
+     * @param mayInterruptIfRunning se ignora; el hilo no se interrumpe para no cortar una transacción a medias.
+     * @return true si la tarea se ha cancelado.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        progreso.cancelar();
+        return super.cancel(false);
+    }
+}
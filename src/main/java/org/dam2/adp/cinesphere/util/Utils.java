@@ -2,6 +2,9 @@ package org.dam2.adp.cinesphere.util;
 
 import java.time.LocalDate;
 import java.time.Period;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Clase de utilidades generales para la aplicación.
@@ -10,61 +13,50 @@ public class Utils {
 
     private static final String EMAIL_REGEX = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$";
 
+    /** Imagen que se muestra cuando el género no tiene una propia. */
+    public static final String IMAGEN_POR_DEFECTO = "/img/noImage.png";
+
+    private static final Map<String, String> IMAGENES_POR_GENERO = Map.ofEntries(
+            Map.entry("Action", "/img/Action.png"),
+            Map.entry("Drama", "/img/Drama.png"),
+            Map.entry("Adventure", "/img/Aventure.png"),
+            Map.entry("Comedy", "/img/Comedy.png"),
+            Map.entry("Crime", "/img/Crime.png"),
+            Map.entry("Sci-Fi", "/img/Scifi.png"),
+            Map.entry("Fantasy", "/img/Fantasy.png"),
+            Map.entry("Biography", "/img/Biography.png"),
+            Map.entry("Romance", "/img/Romance.png"),
+            Map.entry("Family", "/img/Family.png"),
+            Map.entry("Horror", "/img/Horror.png"),
+            Map.entry("Music", "/img/Music.png"),
+            Map.entry("Thriller", "/img/Thriller.png"),
+            Map.entry("War", "/img/War.png"),
+            Map.entry("Mystery", "/img/Mistey.png"),
+            Map.entry("History", "/img/History.png"),
+            Map.entry("Western", "/img/Western.png"),
+            Map.entry("Sport", "/img/Sport.png"),
+            Map.entry("Animation", "/img/Animation.png"),
+            Map.entry("Film-Noir", "/img/Film-noir.png"),
+            Map.entry("Musical", "/img/musical.png"));
+
     /**
      * Obtiene la ruta de la imagen asociada a un género.
      * @param nombreGenero el nombre del género.
      * @return la ruta de la imagen.
      */
     public static String obtenerRutaImagenPorGenero(String nombreGenero) {
-        if (nombreGenero == null) return "/img/noImage.png";
-
+        if (nombreGenero == null) return IMAGEN_POR_DEFECTO;
+        return IMAGENES_POR_GENERO.getOrDefault(nombreGenero, IMAGEN_POR_DEFECTO);
+    }
 
-        switch (nombreGenero) {
-            case "Action":
-                return "/img/Action.png";
-            case "Drama":
-                return "/img/Drama.png";
-            case "Adventure":
-                return "/img/Aventure.png";
-            case "Comedy":
-                return "/img/Comedy.png";
-            case "Crime":
-                return "/img/Crime.png";
-            case "Sci-Fi":
-                return "/img/Scifi.png";
-            case "Fantasy":
-                return "/img/Fantasy.png";
-            case "Biography":
-                return "/img/Biography.png";
-            case "Romance":
-                return "/img/Romance.png";
-            case "Family":
-                return "/img/Family.png";
-            case "Horror":
-                return "/img/Horror.png";
-            case "Music":
-                return "/img/Music.png";
-            case "Thriller":
-                return "/img/Thriller.png";
-            case "War":
-                return "/img/War.png";
-            case "Mystery":
-                return "/img/Mistey.png";
-            case "History":
-                return "/img/History.png";
-            case "Western":
-                return "/img/Western.png";
-            case "Sport":
-                return "/img/Sport.png";
-            case "Animation":
-                return "/img/Animation.png";
-            case "Film-Noir":
-                return "/img/Film-noir.png";
-            case "Musical":
-                return "/img/musical.png";
-            default:
-                return "/img/noImage.png";
-        }
+    /**
+     * Obtiene las rutas de todas las imágenes de género, incluida la imagen por defecto.
+     * @return las rutas, sin repetir.
+     */
+    public static Set<String> rutasImagenesGenero() {
+        Set<String> rutas = new LinkedHashSet<>(IMAGENES_POR_GENERO.values());
+        rutas.add(IMAGEN_POR_DEFECTO);
+        return rutas;
     }
 
     /**
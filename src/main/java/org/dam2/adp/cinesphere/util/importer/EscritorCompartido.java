@@ -0,0 +1,39 @@
+package org.dam2.adp.cinesphere.util.importer;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Escritor que comparten varias importaciones simultáneas. Los lotes de todas ellas se escriben
+ * de uno en uno, en el orden en que llegan, con un único {@link EscritorImportacion}; así todas
+ * reutilizan su caché de entidades y de películas existentes, y una película repetida en dos
+ * archivos solo se inserta una vez. Cada lote actualiza el progreso de la importación que lo envía.
+ */
+public class EscritorCompartido implements EscritorImportacion {
+
+    private final EscritorImportacion destino;
+    private final ReentrantLock turno = new ReentrantLock(true);
+
+    /**
+     * @param destino el escritor que hace las escrituras; solo se usa con el turno adquirido.
+     */
+    public EscritorCompartido(EscritorImportacion destino) {
+        this.destino = destino;
+    }
+
+    /**
+     * Espera su turno y escribe el lote desde el hilo llamante.
+     * @param lote las filas a escribir.
+     * @param progreso los contadores de la importación que envía el lote.
+     */
+    @Override
+    public void escribir(List<FilaImportacion> lote, ProgresoImportacion progreso) {
+        turno.lock();
+        try {
+            progreso.comprobarCancelacion();
+            destino.escribir(lote, progreso);
+        } finally {
+            turno.unlock();
+        }
+    }
+}
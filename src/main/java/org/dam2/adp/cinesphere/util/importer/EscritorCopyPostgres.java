@@ -0,0 +1,208 @@
+package org.dam2.adp.cinesphere.util.importer;
+
+import org.dam2.adp.cinesphere.DAO.CachePeliculas;
+import org.dam2.adp.cinesphere.DAO.CacheReferencias;
+import org.dam2.adp.cinesphere.DAO.CacheTotales;
+import org.dam2.adp.cinesphere.database.Conexion;
+import org.dam2.adp.cinesphere.model.*;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Escritor para PostgreSQL que evita las inserciones fila a fila.
+ * Cada lote se vuelca con COPY en tablas temporales de preparación y después se fusiona con
+ * las tablas reales mediante sentencias INSERT ... SELECT, todo dentro de una transacción.
+ * Si un lote falla se reintenta con {@link EscritorJdbc}, que aísla las filas erróneas.
+ */
+public class EscritorCopyPostgres implements EscritorImportacion {
+
+    private static final Logger logger = Logger.getLogger(EscritorCopyPostgres.class.getName());
+
+    private static final String TIPO_DIRECTOR = "D";
+    private static final String TIPO_ACTOR = "A";
+    private static final String TIPO_GENERO = "G";
+
+    private static final String SQL_CREAR_STG_PELICULA = """
+            CREATE TEMP TABLE IF NOT EXISTS stg_pelicula (
+                fila BIGINT, titulo VARCHAR(200), anio INTEGER, rating DOUBLE PRECISION,
+                duracion INTEGER, clasificacion VARCHAR(50)
+            ) ON COMMIT DELETE ROWS""";
+    private static final String SQL_CREAR_STG_RELACION = """
+            CREATE TEMP TABLE IF NOT EXISTS stg_relacion (
+                fila BIGINT, tipo CHAR(1), nombre VARCHAR(100)
+            ) ON COMMIT DELETE ROWS""";
+    private static final String SQL_CREAR_STG_NUEVA = """
+            CREATE TEMP TABLE IF NOT EXISTS stg_nueva (
+                fila BIGINT, idpelicula INTEGER
+            ) ON COMMIT DELETE ROWS""";
+
+    private static final String SQL_COPY_PELICULA =
+            "COPY stg_pelicula (fila, titulo, anio, rating, duracion, clasificacion) FROM STDIN WITH (FORMAT csv)";
+    private static final String SQL_COPY_RELACION =
+            "COPY stg_relacion (fila, tipo, nombre) FROM STDIN WITH (FORMAT csv)";
+
+    private static final String SQL_MERGE_CLASIFICACION = """
+            INSERT INTO clasificacion (nombreclasificacion)
+            SELECT DISTINCT clasificacion FROM stg_pelicula
+            ON CONFLICT DO NOTHING""";
+
+    private static final String SQL_MERGE_PELICULA = """
+            WITH nuevas AS (
+                INSERT INTO pelicula (titulopelicula, yearpelicula, ratingpelicula, duracionpelicula, nombreclasificacion)
+                SELECT s.titulo, s.anio, s.rating, s.duracion, s.clasificacion
+                FROM stg_pelicula s
+                WHERE NOT EXISTS (SELECT 1 FROM pelicula p WHERE p.titulopelicula = s.titulo AND p.yearpelicula = s.anio)
+                ORDER BY s.fila
+                RETURNING idpelicula, titulopelicula, yearpelicula
+            )
+            INSERT INTO stg_nueva (fila, idpelicula)
+            SELECT s.fila, n.idpelicula
+            FROM nuevas n JOIN stg_pelicula s ON s.titulo = n.titulopelicula AND s.anio = n.yearpelicula""";
+
+    private static final String SQL_MERGE_DICCIONARIO = """
+            INSERT INTO %1$s (%2$s)
+            SELECT DISTINCT r.nombre
+            FROM stg_relacion r JOIN stg_nueva n ON n.fila = r.fila
+            WHERE r.tipo = '%3$s'
+              AND NOT EXISTS (SELECT 1 FROM %1$s t WHERE t.%2$s = r.nombre)""";
+
+    private static final String SQL_MERGE_RELACION = """
+            INSERT INTO %1$s (idpelicula, %2$s)
+            SELECT DISTINCT n.idpelicula, (SELECT MIN(t.%2$s) FROM %3$s t WHERE t.%4$s = r.nombre)
+            FROM stg_relacion r JOIN stg_nueva n ON n.fila = r.fila
+            WHERE r.tipo = '%5$s'
+            ON CONFLICT DO NOTHING""";
+
+    private final EscritorJdbc respaldo = new EscritorJdbc();
+    private PeliculasExistentes existentes;
+
+    /**
+     * Escribe un lote mediante COPY y fusión en una única transacción.
+     * @param lote las filas a escribir.
+     * @param progreso los contadores de la importación.
+     */
+    @Override
+    public void escribir(List<FilaImportacion> lote, ProgresoImportacion progreso) {
+        if (lote.isEmpty()) return;
+        try {
+            if (existentes == null) existentes = new PeliculasExistentes();
+            List<FilaImportacion> candidatas = new ArrayList<>(lote.size());
+            Set<String> clavesLote = new HashSet<>();
+            for (FilaImportacion fila : lote) {
+                if (clavesLote.add(fila.clave()) && !existentes.contiene(fila)) candidatas.add(fila);
+            }
+
+            PuntoControl punto = progreso.getPuntoControl();
+            int insertadas = candidatas.isEmpty() && punto == null ? 0
+                    : Conexion.getInstance().enTransaccion(() -> {
+                        int n = candidatas.isEmpty() ? 0 : copiarYFusionar(candidatas);
+                        if (punto != null) punto.confirmar(lote);
+                        progreso.comprobarCancelacion();
+                        return n;
+                    });
+            existentes.registrar(candidatas);
+            CacheTotales.invalidar();
+            // Las películas y los nombres nuevos se insertan con SQL, sin pasar por los DAOs que actualizan las cachés.
+            if (insertadas > 0) {
+                CacheReferencias.invalidar();
+                CachePeliculas.invalidar();
+            }
+            progreso.sumarInsertadas(insertadas);
+            progreso.sumarOmitidas(lote.size() - insertadas);
+        } catch (CancellationException e) {
+            throw e;
+        } catch (SQLException | RuntimeException e) {
+            logger.log(Level.WARNING, "Error al copiar un lote de " + lote.size() + " filas. Se reintenta con inserciones JDBC.", e);
+            respaldo.escribir(lote, progreso);
+        }
+    }
+
+    /**
+     * Vuelca el lote en las tablas de preparación y lo fusiona con las tablas reales.
+     * Se ejecuta dentro de la transacción del lote.
+     * @param lote las filas a escribir, sin duplicados entre sí.
+     * @return el número de películas insertadas.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    private int copiarYFusionar(List<FilaImportacion> lote) throws SQLException {
+        StringBuilder peliculas = new StringBuilder(lote.size() * 64);
+        StringBuilder relaciones = new StringBuilder(lote.size() * 160);
+
+        for (FilaImportacion fila : lote) {
+            Pelicula p = fila.pelicula();
+            long n = fila.numeroFila();
+
+            String clasificacion = p.getClasificacion() == null ? null : p.getClasificacion().getNombreClasificacion();
+            if (clasificacion == null || clasificacion.isBlank()) clasificacion = "Not Rated";
+
+            peliculas.append(n).append(',')
+                    .append(campo(p.getTituloPelicula())).append(',')
+                    .append(campo(p.getYearPelicula())).append(',')
+                    .append(campo(p.getRatingPelicula())).append(',')
+                    .append(campo(p.getDuracionPelicula())).append(',')
+                    .append(campo(clasificacion)).append('\n');
+
+            for (Director d : p.getDirectores()) relacion(relaciones, n, TIPO_DIRECTOR, d.getNombreDirector());
+            for (Actor a : p.getActores()) relacion(relaciones, n, TIPO_ACTOR, a.getNombreActor());
+            for (Genero g : p.getGeneros()) relacion(relaciones, n, TIPO_GENERO, g.getNombreGenero());
+        }
+
+        try (Connection conn = Conexion.getInstance().getConnection();
+             Statement st = conn.createStatement()) {
+            st.execute(SQL_CREAR_STG_PELICULA);
+            st.execute(SQL_CREAR_STG_RELACION);
+            st.execute(SQL_CREAR_STG_NUEVA);
+
+            CopyManager copy = conn.unwrap(PGConnection.class).getCopyAPI();
+            try {
+                copy.copyIn(SQL_COPY_PELICULA, new StringReader(peliculas.toString()));
+                copy.copyIn(SQL_COPY_RELACION, new StringReader(relaciones.toString()));
+            } catch (IOException e) {
+                throw new SQLException("Error enviando datos con COPY", e);
+            }
+
+            st.executeUpdate(SQL_MERGE_CLASIFICACION);
+            int insertadas = st.executeUpdate(SQL_MERGE_PELICULA);
+
+            st.executeUpdate(SQL_MERGE_DICCIONARIO.formatted("director", "nombredirector", TIPO_DIRECTOR));
+            st.executeUpdate(SQL_MERGE_DICCIONARIO.formatted("actor", "nombreactor", TIPO_ACTOR));
+            st.executeUpdate(SQL_MERGE_DICCIONARIO.formatted("genero", "nombregenero", TIPO_GENERO));
+
+            st.executeUpdate(SQL_MERGE_RELACION.formatted("peliculadirector", "iddirector", "director", "nombredirector", TIPO_DIRECTOR));
+            st.executeUpdate(SQL_MERGE_RELACION.formatted("peliculaactor", "idactor", "actor", "nombreactor", TIPO_ACTOR));
+            st.executeUpdate(SQL_MERGE_RELACION.formatted("peliculagenero", "idgenero", "genero", "nombregenero", TIPO_GENERO));
+
+            logger.log(Level.FINE, "Lote copiado: " + lote.size() + " filas, " + insertadas + " películas nuevas.");
+            return insertadas;
+        }
+    }
+
+    /**
+     * Añade una fila de relación al buffer de COPY.
+     */
+    private static void relacion(StringBuilder sb, long fila, String tipo, String nombre) {
+        sb.append(fila).append(',').append(tipo).append(',').append(campo(nombre)).append('\n');
+    }
+
+    /**
+     * Formatea un valor como campo CSV de COPY: vacío sin comillas para NULL y
+     * entre comillas dobles (escapando las internas) para texto.
+     * @param valor el valor a formatear.
+     * @return el campo CSV.
+     */
+    private static String campo(Object valor) {
+        if (valor == null) return "";
+        if (valor instanceof Number) return valor.toString();
+        return '"' + valor.toString().replace("\"", "\"\"") + '"';
+    }
+}
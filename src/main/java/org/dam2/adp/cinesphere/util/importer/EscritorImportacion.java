@@ -0,0 +1,33 @@
+package org.dam2.adp.cinesphere.util.importer;
+
+import org.dam2.adp.cinesphere.database.Conexion;
+
+import java.util.List;
+
+/**
+ * Etapa final de la importación: escribe en la base de datos los lotes de filas normalizadas.
+ * Cada implementación es una estrategia distinta según el motor de base de datos.
+ * Solo se usa desde el hilo escritor del pipeline.
+ */
+public interface EscritorImportacion {
+
+    /**
+     * Escribe un lote de filas y actualiza el progreso con las insertadas, omitidas y fallidas.
+     * Si el progreso tiene un {@link PuntoControl}, se confirma en la misma transacción que el lote.
+     * @param lote las filas a escribir.
+     * @param progreso los contadores de la importación.
+     */
+    void escribir(List<FilaImportacion> lote, ProgresoImportacion progreso);
+
+    /**
+     * Elige la estrategia de escritura adecuada para la base de datos conectada:
+     * COPY en PostgreSQL e inserciones por lotes en el resto.
+     * @return el escritor para esta importación.
+     */
+    static EscritorImportacion paraConexionActual() {
+        if (Conexion.getInstance().isSQLite()) {
+            return new EscritorJdbc();
+        }
+        return new EscritorCopyPostgres();
+    }
+}
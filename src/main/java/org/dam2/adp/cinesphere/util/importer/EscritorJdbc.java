@@ -0,0 +1,100 @@
+package org.dam2.adp.cinesphere.util.importer;
+
+import org.dam2.adp.cinesphere.DAO.*;
+import org.dam2.adp.cinesphere.database.Conexion;
+import org.dam2.adp.cinesphere.model.*;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Escritor genérico basado en los DAOs: cada lote se inserta en una única transacción con
+ * inserciones por lotes (JDBC batch) para las películas y sus tres tablas de relación.
+ * Es la estrategia usada en SQLite y la de respaldo cuando falla la vía rápida de PostgreSQL.
+ */
+public class EscritorJdbc implements EscritorImportacion {
+
+    private static final Logger logger = Logger.getLogger(EscritorJdbc.class.getName());
+
+    private final PeliculaDAO peliculaDAO = new PeliculaDAO();
+    private final PeliculaDirectorDAO peliculaDirectorDAO = new PeliculaDirectorDAO();
+    private final PeliculaActorDAO peliculaActorDAO = new PeliculaActorDAO();
+    private final PeliculaGeneroDAO peliculaGeneroDAO = new PeliculaGeneroDAO();
+
+    private ResolutorEntidades resolutor;
+    private PeliculasExistentes existentes;
+
+    /**
+     * Escribe un lote de filas en una única transacción.
+     * Si el lote falla se deshace entero y se reintenta fila a fila, para que una fila
+     * errónea no impida importar el resto del lote. Si la importación se cancela mientras
+     * se escribe, el lote se deshace y la cancelación se propaga.
+     * @param lote las filas a escribir.
+     * @param progreso los contadores de la importación.
+     */
+    @Override
+    public void escribir(List<FilaImportacion> lote, ProgresoImportacion progreso) {
+        if (lote.isEmpty()) return;
+        try {
+            List<FilaImportacion> insertadas = Conexion.getInstance().enTransaccion(() -> {
+                List<FilaImportacion> filas = insertarLote(lote);
+                if (progreso.getPuntoControl() != null) progreso.getPuntoControl().confirmar(lote);
+                progreso.comprobarCancelacion();
+                return filas;
+            });
+            resolutor.confirmar();
+            existentes.registrar(insertadas);
+            CacheTotales.invalidar();
+            progreso.sumarInsertadas(insertadas.size());
+            progreso.sumarOmitidas(lote.size() - insertadas.size());
+        } catch (CancellationException e) {
+            if (resolutor != null) resolutor.descartar();
+            throw e;
+        } catch (SQLException | RuntimeException e) {
+            // El resolutor puede contener IDs creados en la transacción deshecha.
+            if (resolutor != null) resolutor.descartar();
+            if (lote.size() == 1) {
+                logger.log(Level.SEVERE, "Error en fila " + lote.get(0).numeroFila(), e);
+                if (progreso.getPuntoControl() != null) progreso.getPuntoControl().completar(lote.get(0).numeroFila());
+                progreso.sumarFallidas(1);
+                return;
+            }
+            logger.log(Level.WARNING, "Error al escribir un lote de " + lote.size() + " filas. Reintentando fila a fila.", e);
+            for (FilaImportacion fila : lote) {
+                escribir(List.of(fila), progreso);
+            }
+        }
+    }
+
+    /**
+     * Inserta las películas nuevas del lote y sus relaciones. Se ejecuta dentro de la transacción del lote.
+     * @param lote las filas a insertar.
+     * @return las filas cuyas películas se han insertado.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    private List<FilaImportacion> insertarLote(List<FilaImportacion> lote) throws SQLException {
+        if (resolutor == null) resolutor = new ResolutorEntidades();
+        if (existentes == null) existentes = new PeliculasExistentes();
+
+        Set<String> clavesLote = new HashSet<>();
+        List<FilaImportacion> filasNuevas = new ArrayList<>(lote.size());
+        List<Pelicula> nuevas = new ArrayList<>(lote.size());
+
+        for (FilaImportacion fila : lote) {
+            if (!clavesLote.add(fila.clave())) continue;
+            if (existentes.contiene(fila)) continue;
+            filasNuevas.add(fila);
+            nuevas.add(fila.pelicula());
+        }
+
+        resolutor.resolver(nuevas);
+        peliculaDAO.insertLote(nuevas);
+        peliculaDirectorDAO.insertLote(nuevas);
+        peliculaActorDAO.insertLote(nuevas);
+        peliculaGeneroDAO.insertLote(nuevas);
+        return filasNuevas;
+    }
+}
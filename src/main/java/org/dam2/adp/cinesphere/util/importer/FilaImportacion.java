@@ -0,0 +1,30 @@
+package org.dam2.adp.cinesphere.util.importer;
+
+import org.dam2.adp.cinesphere.model.Pelicula;
+
+/**
+ * Fila del archivo ya convertida en película, junto a su número de registro.
+ *
+ * @param numeroFila el número de registro en el archivo.
+ * @param pelicula   la película construida a partir de la fila, con sus entidades solo por nombre.
+ */
+public record FilaImportacion(long numeroFila, Pelicula pelicula) {
+
+    /**
+     * Clave que identifica la película a efectos de duplicados: título y año.
+     * @return la clave de la película.
+     */
+    public String clave() {
+        return clave(pelicula.getTituloPelicula(), pelicula.getYearPelicula());
+    }
+
+    /**
+     * Construye la clave de duplicados a partir del título y el año.
+     * @param titulo el título de la película.
+     * @param year el año de la película.
+     * @return la clave de la película.
+     */
+    public static String clave(String titulo, Integer year) {
+        return titulo + '\u0000' + year;
+    }
+}
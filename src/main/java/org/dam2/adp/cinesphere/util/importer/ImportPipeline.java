@@ -0,0 +1,232 @@
+package org.dam2.adp.cinesphere.util.importer;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pipeline de importación en tres etapas conectadas por colas acotadas:
+ * <ol>
+ *     <li>Un hilo lector por origen recorre sus registros (p. ej. el parser CSV o una región del archivo).</li>
+ *     <li>Varios hilos trabajadores transforman cada registro (limpieza y conversión de campos).</li>
+ *     <li>Un único escritor, el hilo que llama a {@link #ejecutar}, agrupa los resultados en lotes y los escribe.</li>
+ * </ol>
+ * Las colas tienen capacidad limitada, de modo que si la base de datos es más lenta que la lectura
+ * las etapas anteriores se bloquean en lugar de acumular el archivo entero en memoria.
+ * Si se cancela el {@link ProgresoImportacion}, el lector deja de leer y el escritor no entrega más lotes.
+ *
+ * @param <R> el tipo de registro leído.
+ * @param <F> el tipo de fila transformada.
+ */
+public class ImportPipeline<R, F> {
+
+    private static final Logger logger = Logger.getLogger(ImportPipeline.class.getName());
+
+    /** Marca de fin de datos que cada etapa envía a la siguiente. */
+    private static final Object FIN = new Object();
+
+    private final int trabajadores;
+    private final int capacidadCola;
+    private final int tamanoLote;
+
+    /**
+     * Crea un pipeline.
+     * @param trabajadores el número de hilos de transformación.
+     * @param capacidadCola la capacidad de cada cola entre etapas.
+     * @param tamanoLote el número de filas que se entregan juntas al escritor.
+     */
+    public ImportPipeline(int trabajadores, int capacidadCola, int tamanoLote) {
+        if (trabajadores < 1 || capacidadCola < 1 || tamanoLote < 1) {
+            throw new IllegalArgumentException("Parámetros del pipeline no válidos.");
+        }
+        this.trabajadores = trabajadores;
+        this.capacidadCola = capacidadCola;
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Crea un pipeline con un trabajador por núcleo disponible (descontando el lector y el escritor).
+     * @param tamanoLote el número de filas que se entregan juntas al escritor.
+     * @return el pipeline.
+     */
+    public static <R, F> ImportPipeline<R, F> porDefecto(int tamanoLote) {
+        return porDefecto(tamanoLote, 1);
+    }
+
+    /**
+     * Crea un pipeline para ejecutarse junto a otros, repartiendo entre todos los núcleos disponibles.
+     * @param tamanoLote el número de filas que se entregan juntas al escritor.
+     * @param simultaneos el número de pipelines que se ejecutan a la vez.
+     * @return el pipeline.
+     */
+    public static <R, F> ImportPipeline<R, F> porDefecto(int tamanoLote, int simultaneos) {
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        int trabajadores = Math.max(1, (nucleos - 2) / Math.max(1, simultaneos));
+        return new ImportPipeline<>(trabajadores, Math.max(1024, tamanoLote * 4), tamanoLote);
+    }
+
+    /**
+     * Ejecuta el pipeline completo y espera a que termine.
+     * @param origen los registros a procesar; solo lo recorre el hilo lector.
+     * @param transformacion convierte un registro en una fila; si devuelve null el registro se descarta.
+     * @param escritor recibe lotes de filas; siempre se invoca desde el hilo que llama a este método.
+     * @param progreso los contadores a actualizar; se avisa a su oyente tras cada lote.
+     * @throws java.util.concurrent.CancellationException si se cancela la importación.
+     * @throws Exception si falla la lectura del origen o el escritor.
+     */
+    public void ejecutar(Iterator<R> origen,
+                         Function<R, F> transformacion,
+                         Consumer<List<F>> escritor,
+                         ProgresoImportacion progreso) throws Exception {
+        ejecutar(List.of(origen), transformacion, escritor, progreso);
+    }
+
+    /**
+     * Ejecuta el pipeline leyendo varios orígenes a la vez, cada uno desde su propio hilo lector,
+     * y espera a que termine. Los registros de distintos orígenes llegan a los trabajadores mezclados.
+     * @param origenes los orígenes a procesar; cada uno lo recorre un único hilo.
+     * @param transformacion convierte un registro en una fila; si devuelve null el registro se descarta.
+     * @param escritor recibe lotes de filas; siempre se invoca desde el hilo que llama a este método.
+     * @param progreso los contadores a actualizar; se avisa a su oyente tras cada lote.
+     * @throws java.util.concurrent.CancellationException si se cancela la importación.
+     * @throws Exception si falla la lectura de algún origen o el escritor.
+     */
+    public void ejecutar(List<? extends Iterator<R>> origenes,
+                         Function<R, F> transformacion,
+                         Consumer<List<F>> escritor,
+                         ProgresoImportacion progreso) throws Exception {
+        BlockingQueue<Object> colaRegistros = new ArrayBlockingQueue<>(capacidadCola);
+        BlockingQueue<Object> colaFilas = new ArrayBlockingQueue<>(capacidadCola);
+        AtomicReference<Throwable> errorHilos = new AtomicReference<>();
+        AtomicInteger lectoresActivos = new AtomicInteger(origenes.size());
+
+        AtomicInteger contadorHilos = new AtomicInteger();
+        ExecutorService hilos = Executors.newFixedThreadPool(trabajadores + origenes.size(), r -> {
+            Thread t = new Thread(r, "cinesphere-import-" + contadorHilos.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            for (Iterator<R> origen : origenes) {
+                hilos.execute(() -> leer(origen, colaRegistros, errorHilos, lectoresActivos, progreso));
+            }
+            for (int i = 0; i < trabajadores; i++) {
+                hilos.execute(() -> transformar(colaRegistros, colaFilas, transformacion, errorHilos, progreso));
+            }
+            escribir(colaFilas, escritor, progreso);
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        Throwable error = errorHilos.get();
+        if (error instanceof Exception e) throw e;
+        if (error instanceof Error e) throw e;
+    }
+
+    /**
+     * Etapa lectora: vuelca un origen en la cola de registros. El último lector en terminar
+     * envía la marca de fin a los trabajadores.
+     */
+    private void leer(Iterator<R> origen, BlockingQueue<Object> salida, AtomicReference<Throwable> error,
+                      AtomicInteger lectoresActivos, ProgresoImportacion progreso) {
+        try {
+            while (!progreso.isCancelada() && origen.hasNext()) {
+                salida.put(origen.next());
+                progreso.sumarLeida();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Throwable t) {
+            logger.log(Level.SEVERE, "Error leyendo el origen de la importación", t);
+            error.compareAndSet(null, t);
+        }
+        if (lectoresActivos.decrementAndGet() > 0) return;
+        try {
+            for (int i = 0; i < trabajadores; i++) {
+                salida.put(FIN);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Etapa trabajadora: transforma registros hasta recibir la marca de fin. Envía siempre su propia
+     * marca de fin al escritor, aunque el hilo muera por un {@link Error}, para que este no se quede
+     * esperando; el error se guarda para relanzarlo al terminar.
+     */
+    @SuppressWarnings("unchecked")
+    private void transformar(BlockingQueue<Object> entrada, BlockingQueue<Object> salida,
+                             Function<R, F> transformacion, AtomicReference<Throwable> error,
+                             ProgresoImportacion progreso) {
+        try {
+            while (true) {
+                Object registro = entrada.take();
+                if (registro == FIN) return;
+                F fila = null;
+                try {
+                    fila = transformacion.apply((R) registro);
+                } catch (RuntimeException e) {
+                    logger.log(Level.SEVERE, "Error transformando un registro", e);
+                }
+                if (fila == null) {
+                    progreso.sumarDescartada();
+                } else {
+                    salida.put(fila);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable t) {
+            logger.log(Level.SEVERE, "Error en un hilo trabajador de la importación", t);
+            error.compareAndSet(null, t);
+        } finally {
+            try {
+                salida.put(FIN);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Etapa escritora: agrupa filas en lotes hasta que todos los trabajadores han terminado.
+     */
+    @SuppressWarnings("unchecked")
+    private void escribir(BlockingQueue<Object> entrada, Consumer<List<F>> escritor,
+                          ProgresoImportacion progreso) throws InterruptedException {
+        int trabajadoresActivos = trabajadores;
+        List<F> lote = new ArrayList<>(tamanoLote);
+        while (trabajadoresActivos > 0) {
+            Object fila = entrada.take();
+            if (fila == FIN) {
+                trabajadoresActivos--;
+                continue;
+            }
+            lote.add((F) fila);
+            if (lote.size() >= tamanoLote) {
+                progreso.comprobarCancelacion();
+                escritor.accept(lote);
+                progreso.notificar();
+                lote = new ArrayList<>(tamanoLote);
+            }
+        }
+        progreso.comprobarCancelacion();
+        if (!lote.isEmpty()) {
+            escritor.accept(lote);
+        }
+        progreso.notificar();
+    }
+}
@@ -0,0 +1,105 @@
+package org.dam2.adp.cinesphere.util.importer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resultado final de una importación.
+ *
+ * @param origen        el archivo o recurso importado.
+ * @param inicio        el momento en que empezó la importación.
+ * @param duracionMs    la duración total en milisegundos.
+ * @param leidas        los registros leídos del CSV.
+ * @param descartadas   los registros descartados por incompletos o mal formados.
+ * @param insertadas    las películas insertadas.
+ * @param omitidas      las filas omitidas por ser películas ya existentes.
+ * @param fallidas      las filas que no se pudieron escribir.
+ * @param filasPorSegundo el ritmo medio de lectura.
+ * @param cancelada     true si la importación se canceló antes de terminar.
+ * @param reanudadaDesde los registros que ya se habían importado en una ejecución anterior, o 0.
+ * @param error         el mensaje del error que detuvo la importación, o null si terminó.
+ * @param archivos      en una importación de varios archivos, el informe de cada uno; si no, una lista vacía.
+ */
+public record InformeImportacion(String origen,
+                                 LocalDateTime inicio,
+                                 long duracionMs,
+                                 long leidas,
+                                 long descartadas,
+                                 long insertadas,
+                                 long omitidas,
+                                 long fallidas,
+                                 double filasPorSegundo,
+                                 boolean cancelada,
+                                 long reanudadaDesde,
+                                 String error,
+                                 List<InformeImportacion> archivos) {
+
+    /**
+     * Construye el informe a partir de los contadores de una importación terminada.
+     * @param origen el archivo o recurso importado.
+     * @param inicio el momento en que empezó la importación.
+     * @param progreso los contadores de la importación.
+     * @return el informe.
+     */
+    public static InformeImportacion de(String origen, LocalDateTime inicio, ProgresoImportacion progreso) {
+        return new InformeImportacion(origen, inicio, progreso.getMilisTranscurridos(),
+                progreso.getLeidas(), progreso.getDescartadas(), progreso.getInsertadas(),
+                progreso.getOmitidas(), progreso.getFallidas(), progreso.getFilasPorSegundo(),
+                progreso.isCancelada(),
+                progreso.getPuntoControl() == null ? 0 : progreso.getPuntoControl().getRegistroInicial(),
+                null, List.of());
+    }
+
+    /**
+     * Devuelve una copia del informe que registra el error que detuvo la importación.
+     * @param mensaje el mensaje del error.
+     * @return el informe con el error.
+     */
+    public InformeImportacion conError(String mensaje) {
+        return new InformeImportacion(origen, inicio, duracionMs, leidas, descartadas, insertadas, omitidas,
+                fallidas, filasPorSegundo, cancelada, reanudadaDesde, mensaje, archivos);
+    }
+
+    /**
+     * Devuelve una copia del informe con el detalle de cada archivo importado.
+     * @param informes los informes de los archivos.
+     * @return el informe global.
+     */
+    public InformeImportacion conArchivos(List<InformeImportacion> informes) {
+        return new InformeImportacion(origen, inicio, duracionMs, leidas, descartadas, insertadas, omitidas,
+                fallidas, filasPorSegundo, cancelada, reanudadaDesde, error, List.copyOf(informes));
+    }
+
+    /**
+     * Devuelve el informe en varias líneas, para mostrarlo al usuario.
+     * En una importación de varios archivos se añade una línea por archivo.
+     * @return el resumen del informe.
+     */
+    public String resumen() {
+        StringBuilder sb = new StringBuilder(String.format("""
+                %s: %s%s
+                Duración: %.1f s (%.0f filas/s)
+                Leídas: %d · Insertadas: %d · Omitidas (ya existían): %d
+                Descartadas: %d · Con error: %d""",
+                error != null ? "Importación fallida" : cancelada ? "Importación cancelada" : "Importación completada", origen,
+                reanudadaDesde > 0 ? " (reanudada tras el registro " + reanudadaDesde + ")" : "",
+                duracionMs / 1000.0, filasPorSegundo, leidas, insertadas, omitidas, descartadas, fallidas));
+        if (error != null) {
+            sb.append("\nError: ").append(error);
+        }
+        for (InformeImportacion archivo : archivos) {
+            sb.append(String.format("%n  • %s: %s", archivo.origen(), archivo.lineaArchivo()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Resume en una línea el resultado de un archivo dentro de una importación de varios.
+     * @return la línea del archivo.
+     */
+    private String lineaArchivo() {
+        if (error != null) return "error: " + error;
+        return String.format("%d insertadas, %d omitidas, %d descartadas, %d con error (%.1f s)%s",
+                insertadas, omitidas, descartadas, fallidas, duracionMs / 1000.0, cancelada ? ", cancelada" : "");
+    }
+}
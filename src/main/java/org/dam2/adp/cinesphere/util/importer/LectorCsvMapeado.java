@@ -0,0 +1,386 @@
+package org.dam2.adp.cinesphere.util.importer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Lector de CSV para archivos locales que trabaja directamente sobre el archivo mapeado en memoria.
+ * <p>
+ * Recorre los bytes buscando comas, comillas y saltos de línea, y solo decodifica las columnas
+ * pedidas; el resto de campos se saltan sin crear cadenas. Entiende el formato por defecto de
+ * commons-csv: campos entre comillas dobles con {@code ""} como comilla escapada, saltos de línea
+ * dentro de comillas, finales de línea LF o CRLF y líneas vacías ignoradas. Los valores se devuelven
+ * sin espacios al principio ni al final.
+ * <p>
+ * El archivo se mapea por ventanas de {@value #TAMANO_VENTANA} bytes, de modo que admite archivos de
+ * cualquier tamaño. Con {@link #dividir(int)} se parte en regiones que empiezan en un límite de registro
+ * y se pueden leer en paralelo, cada una desde un hilo.
+ */
+public final class LectorCsvMapeado {
+
+    /** Tamaño máximo de cada ventana mapeada. */
+    static final int TAMANO_VENTANA = 1 << 28;
+
+    private static final byte COMA = ',';
+    private static final byte COMILLA = '"';
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
+
+    private final Path archivo;
+    private final long tamano;
+    private final long inicioDatos;
+    private final List<String> cabeceras;
+    private final int[] indices;
+    private final int[] posicionEnSalida;
+
+    private LectorCsvMapeado(Path archivo, long tamano, long inicioDatos, List<String> cabeceras, List<String> columnas) {
+        this.archivo = archivo;
+        this.tamano = tamano;
+        this.inicioDatos = inicioDatos;
+        this.cabeceras = cabeceras;
+
+        this.indices = new int[columnas.size()];
+        int maximo = -1;
+        for (int i = 0; i < columnas.size(); i++) {
+            indices[i] = indiceDe(columnas.get(i));
+            maximo = Math.max(maximo, indices[i]);
+        }
+        this.posicionEnSalida = new int[maximo + 1];
+        Arrays.fill(posicionEnSalida, -1);
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] >= 0) posicionEnSalida[indices[i]] = i;
+        }
+    }
+
+    /**
+     * Abre un archivo CSV y lee su cabecera.
+     * @param archivo el archivo.
+     * @param columnas las columnas que se quieren leer, sin distinguir mayúsculas; las que no existan se devuelven como null.
+     * @return el lector.
+     * @throws IOException si no se puede leer el archivo.
+     */
+    public static LectorCsvMapeado abrir(Path archivo, List<String> columnas) throws IOException {
+        try (Region cabecera = new Region(archivo, Files.size(archivo), 0, Long.MAX_VALUE, 0, null)) {
+            cabecera.saltarBom();
+            List<String> nombres = cabecera.hasNext() ? Arrays.asList(cabecera.next()) : List.of();
+            return new LectorCsvMapeado(archivo, cabecera.tamano, cabecera.posicion, List.copyOf(nombres), columnas);
+        }
+    }
+
+    /**
+     * Obtiene los nombres de las columnas de la cabecera.
+     * @return las cabeceras, en orden.
+     */
+    public List<String> getCabeceras() {
+        return cabeceras;
+    }
+
+    /**
+     * Obtiene el tamaño del archivo.
+     * @return el tamaño en bytes.
+     */
+    public long getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Obtiene la posición del primer registro de datos, tras la cabecera.
+     * @return la posición en bytes.
+     */
+    public long getInicioDatos() {
+        return inicioDatos;
+    }
+
+    /**
+     * Crea una región que lee desde una posición hasta el final del archivo.
+     * @param desde la posición en bytes de un inicio de registro, o 0 para empezar tras la cabecera.
+     * @param registroInicial el número del registro anterior a la posición.
+     * @return la región.
+     */
+    public Region desde(long desde, long registroInicial) {
+        return new Region(archivo, tamano, Math.max(desde, inicioDatos), tamano, registroInicial, this);
+    }
+
+    /**
+     * Divide los datos en regiones de tamaño parecido que empiezan y terminan en límites de registro.
+     * Hace una pasada previa sobre los bytes siguiendo las comillas, sin decodificar nada, para no
+     * cortar un campo que contenga saltos de línea y para saber el número de registro de cada región.
+     * @param partes el número de regiones deseado.
+     * @return las regiones, en orden; puede haber menos de las pedidas si el archivo es pequeño.
+     * @throws IOException si no se puede leer el archivo.
+     */
+    public List<Region> dividir(int partes) throws IOException {
+        if (partes <= 1) return List.of(desde(0, 0));
+
+        List<Region> regiones = new ArrayList<>(partes);
+        long objetivo = Math.max(1, (tamano - inicioDatos) / partes);
+        long inicioRegion = inicioDatos;
+        long registrosAntes = 0;
+        long registros = 0;
+        boolean entreComillas = false;
+        boolean lineaConDatos = false;
+
+        try (Region escaneo = new Region(archivo, tamano, inicioDatos, tamano, 0, null)) {
+            for (long pos = inicioDatos; pos < tamano; pos++) {
+                byte b = escaneo.en(pos);
+                if (b == COMILLA) {
+                    entreComillas = !entreComillas;
+                } else if (b == LF && !entreComillas) {
+                    if (lineaConDatos) registros++;
+                    lineaConDatos = false;
+                    if (pos + 1 - inicioRegion >= objetivo && regiones.size() < partes - 1) {
+                        regiones.add(new Region(archivo, tamano, inicioRegion, pos + 1, registrosAntes, this));
+                        inicioRegion = pos + 1;
+                        registrosAntes = registros;
+                    }
+                    continue;
+                }
+                if (b != CR) lineaConDatos = true;
+            }
+        }
+        if (inicioRegion < tamano) {
+            regiones.add(new Region(archivo, tamano, inicioRegion, tamano, registrosAntes, this));
+        }
+        return regiones;
+    }
+
+    private int indiceDe(String columna) {
+        for (int i = 0; i < cabeceras.size(); i++) {
+            if (cabeceras.get(i).equalsIgnoreCase(columna)) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Tramo del archivo que se lee registro a registro. Devuelve, para cada registro, un array con las
+     * columnas pedidas al abrir el lector, en ese orden. No es seguro entre hilos: cada región la lee un solo hilo.
+     */
+    public static final class Region implements Iterator<String[]>, AutoCloseable {
+
+        private final Path archivo;
+        private final long tamano;
+        private final long fin;
+        private final LectorCsvMapeado lector;
+
+        private FileChannel canal;
+        private MappedByteBuffer ventana;
+        private long inicioVentana;
+        private long finVentana;
+
+        private long posicion;
+        private long numero;
+        private long inicioRegistro;
+        private int campos;
+        private byte[] campo = new byte[256];
+
+        private Region(Path archivo, long tamano, long desde, long fin, long registroInicial, LectorCsvMapeado lector) {
+            this.archivo = archivo;
+            this.tamano = tamano;
+            this.fin = Math.min(fin, tamano);
+            this.lector = lector;
+            this.posicion = desde;
+            this.numero = registroInicial;
+        }
+
+        /**
+         * Obtiene el número del último registro devuelto.
+         * @return el número de registro, contando desde 1 tras la cabecera.
+         */
+        public long getNumero() {
+            return numero;
+        }
+
+        /**
+         * Obtiene la posición en bytes donde empieza el último registro devuelto.
+         * @return la posición del registro.
+         */
+        public long getInicioRegistro() {
+            return inicioRegistro;
+        }
+
+        /**
+         * Indica si el último registro devuelto tiene tantos campos como la cabecera,
+         * como {@code CSVRecord.isConsistent()} en commons-csv.
+         * @return true si el registro está completo.
+         */
+        public boolean isCompleto() {
+            return lector == null || campos == lector.cabeceras.size();
+        }
+
+        /**
+         * Obtiene la posición en bytes donde empieza el siguiente registro.
+         * @return la posición de lectura.
+         */
+        public long getPosicion() {
+            return posicion;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (posicion < fin) {
+                byte b = en(posicion);
+                if (b == LF || b == CR) {
+                    posicion++;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String[] next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            inicioRegistro = posicion;
+            numero++;
+
+            if (lector == null) {
+                // Lectura de la cabecera: se devuelven todas las columnas.
+                List<String> todas = new ArrayList<>();
+                while (true) {
+                    todas.add(leerCampo(true));
+                    if (!siguienteCampo()) break;
+                }
+                return todas.toArray(new String[0]);
+            }
+
+            String[] salida = new String[lector.indices.length];
+            int[] destino = lector.posicionEnSalida;
+            int columna = 0;
+            while (true) {
+                int indiceSalida = columna < destino.length ? destino[columna] : -1;
+                String valor = leerCampo(indiceSalida >= 0);
+                if (indiceSalida >= 0) salida[indiceSalida] = valor;
+                if (!siguienteCampo()) break;
+                columna++;
+            }
+            campos = columna + 1;
+            return salida;
+        }
+
+        /**
+         * Lee el campo que empieza en la posición actual y deja la posición sobre el separador que lo termina.
+         * @param materializar true para devolver su valor; false para saltarlo sin decodificarlo.
+         * @return el valor del campo sin espacios alrededor, o null si no se materializa.
+         */
+        private String leerCampo(boolean materializar) {
+            int longitud = 0;
+            if (posicion < tamano && en(posicion) == COMILLA) {
+                posicion++;
+                while (posicion < tamano) {
+                    byte b = en(posicion++);
+                    if (b == COMILLA) {
+                        if (posicion < tamano && en(posicion) == COMILLA) {
+                            posicion++;
+                        } else {
+                            break;
+                        }
+                    }
+                    if (materializar) longitud = anadir(longitud, b);
+                }
+                // Lo que haya entre la comilla de cierre y el separador se conserva, como hace commons-csv en modo tolerante.
+                while (posicion < tamano) {
+                    byte b = en(posicion);
+                    if (b == COMA || b == LF) break;
+                    if (materializar) longitud = anadir(longitud, b);
+                    posicion++;
+                }
+            } else {
+                while (posicion < tamano) {
+                    byte b = en(posicion);
+                    if (b == COMA || b == LF) break;
+                    if (materializar) longitud = anadir(longitud, b);
+                    posicion++;
+                }
+            }
+            return materializar ? recortar(longitud) : null;
+        }
+
+        /**
+         * Avanza sobre el separador actual.
+         * @return true si le sigue otro campo del mismo registro; false si el registro ha terminado.
+         */
+        private boolean siguienteCampo() {
+            if (posicion >= tamano) return false;
+            byte b = en(posicion++);
+            return b == COMA;
+        }
+
+        private int anadir(int longitud, byte b) {
+            if (longitud == campo.length) campo = Arrays.copyOf(campo, longitud * 2);
+            campo[longitud] = b;
+            return longitud + 1;
+        }
+
+        private String recortar(int longitud) {
+            int desde = 0;
+            while (desde < longitud && (campo[desde] & 0xFF) <= ' ') desde++;
+            while (longitud > desde && (campo[longitud - 1] & 0xFF) <= ' ') longitud--;
+            return new String(campo, desde, longitud - desde, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Salta la marca de orden de bytes UTF-8 si el archivo empieza por ella.
+         */
+        private void saltarBom() {
+            if (tamano >= 3 && en(0) == (byte) 0xEF && en(1) == (byte) 0xBB && en(2) == (byte) 0xBF) {
+                posicion = 3;
+            }
+        }
+
+        /**
+         * Devuelve el byte de una posición del archivo, mapeando otra ventana si hace falta.
+         * @param pos la posición en bytes.
+         * @return el byte.
+         */
+        private byte en(long pos) {
+            if (pos < inicioVentana || pos >= finVentana || ventana == null) {
+                mapear(pos);
+            }
+            return ventana.get((int) (pos - inicioVentana));
+        }
+
+        private void mapear(long pos) {
+            try {
+                if (canal == null) canal = FileChannel.open(archivo, StandardOpenOption.READ);
+                long longitud = Math.min(TAMANO_VENTANA, tamano - pos);
+                ventana = canal.map(FileChannel.MapMode.READ_ONLY, pos, longitud);
+                inicioVentana = pos;
+                finVentana = pos + longitud;
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo mapear " + archivo, e);
+            }
+        }
+
+        /**
+         * Cierra el canal del archivo. Las ventanas ya mapeadas se liberan cuando se recogen.
+         */
+        @Override
+        public void close() {
+            try {
+                if (canal != null) canal.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            canal = null;
+            ventana = null;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "Region[%d-%d, registro %d]", posicion, fin, numero);
+        }
+    }
+}
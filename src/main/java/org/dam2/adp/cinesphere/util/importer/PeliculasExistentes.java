@@ -0,0 +1,52 @@
+package org.dam2.adp.cinesphere.util.importer;
+
+import org.dam2.adp.cinesphere.DAO.PeliculaDAO;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Conjunto en memoria de las películas (título y año) que ya existen en la base de datos.
+ * Se carga al empezar la importación con una sola consulta y sustituye a la búsqueda
+ * {@code findByTituloAndYear} por fila, que sin índice recorría la tabla entera cada vez.
+ */
+public class PeliculasExistentes {
+
+    private static final Logger logger = Logger.getLogger(PeliculasExistentes.class.getName());
+
+    private final Set<String> claves = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Carga las claves de todas las películas existentes.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    public PeliculasExistentes() throws SQLException {
+        long inicio = System.currentTimeMillis();
+        new PeliculaDAO().recorrerTitulosYYears((titulo, year) -> claves.add(FilaImportacion.clave(titulo, year)));
+        logger.log(Level.INFO, "Cargadas " + claves.size() + " películas existentes en "
+                + (System.currentTimeMillis() - inicio) + " ms.");
+    }
+
+    /**
+     * Indica si la película de la fila ya existe.
+     * @param fila la fila a comprobar.
+     * @return true si ya hay una película con el mismo título y año.
+     */
+    public boolean contiene(FilaImportacion fila) {
+        return claves.contains(fila.clave());
+    }
+
+    /**
+     * Registra como existentes las películas de unas filas ya confirmadas en la base de datos.
+     * @param filas las filas escritas.
+     */
+    public void registrar(Collection<FilaImportacion> filas) {
+        for (FilaImportacion fila : filas) {
+            claves.add(fila.clave());
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package org.dam2.adp.cinesphere.util.importer;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Contadores de una importación en curso.
+ * Se actualizan desde las distintas etapas del pipeline, por lo que son seguros entre hilos.
+ * También sirve para pedir la cancelación de la importación y para seguir su avance
+ * (bytes leídos, filas por segundo y tiempo restante estimado).
+ * Un progreso puede tener un padre, al que suma todos sus contadores: así una importación de varios
+ * archivos lleva un progreso por archivo y uno global.
+ */
+public class ProgresoImportacion {
+
+    private final ProgresoImportacion padre;
+
+    private final long inicioNanos = System.nanoTime();
+    private final AtomicLong bytesLeidos = new AtomicLong();
+    private volatile long bytesTotales = -1;
+    private volatile boolean cancelada = false;
+    private volatile Consumer<ProgresoImportacion> oyente;
+    private volatile PuntoControl puntoControl;
+
+    private final AtomicLong leidas = new AtomicLong();
+    private final AtomicLong descartadas = new AtomicLong();
+    private final AtomicLong insertadas = new AtomicLong();
+    private final AtomicLong omitidas = new AtomicLong();
+    private final AtomicLong fallidas = new AtomicLong();
+
+    /**
+     * Crea el progreso de una importación independiente.
+     */
+    public ProgresoImportacion() {
+        this(null);
+    }
+
+    /**
+     * Crea el progreso de una parte de una importación mayor.
+     * Los contadores y los bytes leídos se suman también al padre, la cancelación del padre
+     * cancela esta parte y cada aviso a los oyentes se propaga al padre.
+     * @param padre el progreso global, o null.
+     */
+    public ProgresoImportacion(ProgresoImportacion padre) {
+        this.padre = padre;
+    }
+
+    /**
+     * Registra un registro leído del archivo.
+     */
+    public void sumarLeida() {
+        leidas.incrementAndGet();
+        if (padre != null) padre.sumarLeida();
+    }
+
+    /**
+     * Registra un registro descartado por estar incompleto o mal formado.
+     */
+    public void sumarDescartada() {
+        descartadas.incrementAndGet();
+        if (padre != null) padre.sumarDescartada();
+    }
+
+    /**
+     * Registra películas insertadas.
+     * @param n el número de películas insertadas.
+     */
+    public void sumarInsertadas(long n) {
+        insertadas.addAndGet(n);
+        if (padre != null) padre.sumarInsertadas(n);
+    }
+
+    /**
+     * Registra filas omitidas por ser películas ya existentes.
+     * @param n el número de filas omitidas.
+     */
+    public void sumarOmitidas(long n) {
+        omitidas.addAndGet(n);
+        if (padre != null) padre.sumarOmitidas(n);
+    }
+
+    /**
+     * Registra filas que no se han podido escribir por un error.
+     * @param n el número de filas fallidas.
+     */
+    public void sumarFallidas(long n) {
+        fallidas.addAndGet(n);
+        if (padre != null) padre.sumarFallidas(n);
+    }
+
+    /**
+     * Registra bytes leídos del origen.
+     * @param n el número de bytes leídos.
+     */
+    public void sumarBytes(long n) {
+        bytesLeidos.addAndGet(n);
+        if (padre != null) padre.sumarBytes(n);
+    }
+
+    /**
+     * Establece el tamaño total del origen, si se conoce, para estimar el tiempo restante.
+     * @param bytes el tamaño en bytes, o un valor negativo si es desconocido.
+     */
+    public void setBytesTotales(long bytes) {
+        this.bytesTotales = bytes;
+    }
+
+    /**
+     * Pide que la importación se detenga. El lote que se esté escribiendo se deshace
+     * y los ya confirmados se conservan.
+     */
+    public void cancelar() {
+        cancelada = true;
+    }
+
+    /**
+     * Indica si se ha pedido la cancelación.
+     * @return true si la importación debe detenerse.
+     */
+    public boolean isCancelada() {
+        return cancelada || (padre != null && padre.isCancelada());
+    }
+
+    /**
+     * Lanza una {@link CancellationException} si se ha pedido la cancelación.
+     * Los escritores la llaman antes de confirmar cada lote.
+     * @throws CancellationException si la importación está cancelada.
+     */
+    public void comprobarCancelacion() {
+        if (isCancelada()) {
+            throw new CancellationException("Importación cancelada por el usuario.");
+        }
+    }
+
+    /**
+     * Registra la función a la que se avisa cada vez que termina de escribirse un lote.
+     * Se invoca desde el hilo escritor.
+     * @param oyente la función a avisar, o null para ninguna.
+     */
+    public void setOyente(Consumer<ProgresoImportacion> oyente) {
+        this.oyente = oyente;
+    }
+
+    /**
+     * Avisa al oyente de que el progreso ha cambiado.
+     */
+    public void notificar() {
+        Consumer<ProgresoImportacion> actual = oyente;
+        if (actual != null) actual.accept(this);
+        if (padre != null) padre.notificar();
+    }
+
+    /**
+     * Asocia un punto de control a la importación, para que los escritores lo guarden con cada lote.
+     * @param puntoControl el punto de control, o null si la importación no es reanudable.
+     */
+    public void setPuntoControl(PuntoControl puntoControl) {
+        this.puntoControl = puntoControl;
+    }
+
+    /**
+     * Obtiene el punto de control de la importación.
+     * @return el punto de control, o null si la importación no es reanudable.
+     */
+    public PuntoControl getPuntoControl() {
+        return puntoControl;
+    }
+
+    /**
+     * Obtiene el tiempo transcurrido desde el inicio de la importación.
+     * @return los milisegundos transcurridos.
+     */
+    public long getMilisTranscurridos() {
+        return (System.nanoTime() - inicioNanos) / 1_000_000;
+    }
+
+    /**
+     * Calcula el ritmo de la importación en registros leídos por segundo.
+     * @return las filas por segundo.
+     */
+    public double getFilasPorSegundo() {
+        long ms = getMilisTranscurridos();
+        return ms == 0 ? 0 : getLeidas() * 1000.0 / ms;
+    }
+
+    /**
+     * Calcula la fracción del origen ya leída.
+     * @return un valor entre 0 y 1, o -1 si el tamaño del origen es desconocido.
+     */
+    public double getFraccion() {
+        long total = bytesTotales;
+        if (total <= 0) return -1;
+        return Math.min(1.0, (double) bytesLeidos.get() / total);
+    }
+
+    /**
+     * Estima el tiempo restante a partir de la fracción leída y el tiempo transcurrido.
+     * @return los segundos restantes, o -1 si no se puede estimar.
+     */
+    public long getSegundosRestantes() {
+        double fraccion = getFraccion();
+        if (fraccion <= 0) return -1;
+        long ms = getMilisTranscurridos();
+        return Math.round(ms * (1 - fraccion) / fraccion / 1000);
+    }
+
+    /**
+     * Obtiene el número de registros leídos.
+     * @return los registros leídos.
+     */
+    public long getLeidas() {
+        return leidas.get();
+    }
+
+    /**
+     * Obtiene el número de registros descartados.
+     * @return los registros descartados.
+     */
+    public long getDescartadas() {
+        return descartadas.get();
+    }
+
+    /**
+     * Obtiene el número de películas insertadas.
+     * @return las películas insertadas.
+     */
+    public long getInsertadas() {
+        return insertadas.get();
+    }
+
+    /**
+     * Obtiene el número de filas omitidas por duplicadas.
+     * @return las filas omitidas.
+     */
+    public long getOmitidas() {
+        return omitidas.get();
+    }
+
+    /**
+     * Obtiene el número de filas que fallaron al escribirse.
+     * @return las filas fallidas.
+     */
+    public long getFallidas() {
+        return fallidas.get();
+    }
+
+    /**
+     * Devuelve una línea de estado apta para mostrarse en la interfaz.
+     * @return las filas leídas, insertadas y omitidas, el ritmo y el tiempo restante.
+     */
+    public String getEstado() {
+        long restante = getSegundosRestantes();
+        return String.format("%d leídas · %d insertadas · %d omitidas · %d descartadas · %.0f filas/s%s",
+                getLeidas(), getInsertadas(), getOmitidas(), getDescartadas() + getFallidas(), getFilasPorSegundo(),
+                restante < 0 ? "" : " · quedan ~" + restante + " s");
+    }
+
+    /**
+     * Devuelve un resumen legible de los contadores.
+     * @return el resumen.
+     */
+    @Override
+    public String toString() {
+        return "leídas=" + getLeidas() + ", descartadas=" + getDescartadas() + ", insertadas=" + getInsertadas()
+                + ", omitidas=" + getOmitidas() + ", fallidas=" + getFallidas();
+    }
+}
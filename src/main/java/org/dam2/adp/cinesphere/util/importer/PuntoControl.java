@@ -0,0 +1,230 @@
+package org.dam2.adp.cinesphere.util.importer;
+
+import org.dam2.adp.cinesphere.database.Conexion;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Punto de control de la importación de un archivo, guardado en la tabla {@code punto_control_importacion}.
+ * <p>
+ * Los trabajadores del pipeline terminan los registros en cualquier orden, así que el punto de control
+ * no es el último registro escrito sino la frontera: el primer registro leído que aún no se ha
+ * confirmado ni descartado. Todo lo anterior a la frontera está en la base de datos, de modo que una
+ * importación interrumpida se puede reanudar saltando hasta su posición sin volver a procesar el archivo.
+ * La frontera se guarda en la misma transacción que cada lote, por lo que nunca apunta más allá de lo confirmado.
+ * <p>
+ * El archivo se identifica por una huella de su contenido; si cambia, la importación empieza de cero.
+ */
+public class PuntoControl {
+
+    private static final Logger logger = Logger.getLogger(PuntoControl.class.getName());
+
+    /** Bytes del principio y del final del archivo que entran en la huella. */
+    private static final int BYTES_HUELLA = 64 * 1024;
+
+    private static final String SQL_FIND = "SELECT registro, posicion, lotes FROM punto_control_importacion WHERE huella = ?";
+    private static final String SQL_UPSERT = """
+            INSERT INTO punto_control_importacion(huella, origen, registro, posicion, lotes, actualizado)
+            VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (huella) DO UPDATE SET
+                registro = excluded.registro,
+                posicion = excluded.posicion,
+                lotes = excluded.lotes,
+                actualizado = excluded.actualizado""";
+    private static final String SQL_DELETE = "DELETE FROM punto_control_importacion WHERE huella = ?";
+
+    private final String huella;
+    private final String origen;
+    private final long registroInicial;
+    private final long posicionInicial;
+
+    /** Registros leídos que todavía no se han confirmado ni descartado, con su posición en el archivo. */
+    private final ConcurrentSkipListMap<Long, Long> pendientes = new ConcurrentSkipListMap<>();
+    private volatile long ultimoRegistro;
+    private volatile long ultimaPosicion;
+    private volatile int lotes;
+
+    private PuntoControl(String huella, String origen, long registroInicial, long posicionInicial, int lotes) {
+        this.huella = huella;
+        this.origen = origen;
+        this.registroInicial = registroInicial;
+        this.posicionInicial = posicionInicial;
+        this.ultimoRegistro = registroInicial;
+        this.ultimaPosicion = posicionInicial;
+        this.lotes = lotes;
+    }
+
+    /**
+     * Calcula la huella de un archivo y recupera su punto de control, si lo tiene.
+     * @param archivo el archivo CSV.
+     * @return el punto de control; si no había ninguno guardado, empieza en el registro 0.
+     * @throws IOException si no se puede leer el archivo.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    public static PuntoControl abrir(File archivo) throws IOException, SQLException {
+        String huella = huella(archivo);
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_FIND)) {
+            st.setString(1, huella);
+            try (ResultSet rs = st.executeQuery()) {
+                if (rs.next()) {
+                    return new PuntoControl(huella, archivo.getName(), rs.getLong("registro"), rs.getLong("posicion"), rs.getInt("lotes"));
+                }
+            }
+        }
+        return new PuntoControl(huella, archivo.getName(), 0, 0, 0);
+    }
+
+    /**
+     * Indica si la importación continúa una anterior.
+     * @return true si hay registros ya confirmados que se deben saltar.
+     */
+    public boolean esReanudacion() {
+        return registroInicial > 0;
+    }
+
+    /**
+     * Obtiene el número de registros ya importados en ejecuciones anteriores.
+     * @return el número del último registro antes de la posición de reanudación.
+     */
+    public long getRegistroInicial() {
+        return registroInicial;
+    }
+
+    /**
+     * Obtiene la posición, en bytes desde el principio del archivo, donde se reanuda la lectura.
+     * @return la posición del primer registro pendiente.
+     */
+    public long getPosicionInicial() {
+        return posicionInicial;
+    }
+
+    /**
+     * Registra un registro leído. Lo llama el hilo lector, en orden de lectura.
+     * @param registro el número de registro.
+     * @param posicion la posición del registro en el archivo, en bytes.
+     */
+    public void registrar(long registro, long posicion) {
+        pendientes.put(registro, posicion);
+        ultimoRegistro = registro;
+        ultimaPosicion = posicion;
+    }
+
+    /**
+     * Marca un registro como terminado sin escribirlo, porque se ha descartado o ha fallado.
+     * @param registro el número de registro.
+     */
+    public void completar(long registro) {
+        pendientes.remove(registro);
+    }
+
+    /**
+     * Guarda la frontera que queda al terminar las filas de un lote y, cuando se confirme la
+     * transacción, las marca como terminadas. Debe llamarse dentro de la transacción que escribe el lote.
+     * Si la transacción se deshace, las filas siguen pendientes: el lote se reintenta fila a fila y
+     * cada reintento guarda una frontera que no puede saltar las filas que aún no se han reintentado.
+     * @param lote las filas del lote.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    public void confirmar(List<FilaImportacion> lote) throws SQLException {
+        Set<Long> terminadas = new HashSet<>(lote.size() * 2);
+        for (FilaImportacion fila : lote) {
+            terminadas.add(fila.numeroFila());
+        }
+
+        // Si todo lo leído está terminado se reanuda repitiendo el último registro, que se omitirá como duplicado.
+        long registro = ultimoRegistro - 1;
+        long posicion = ultimaPosicion;
+        for (Map.Entry<Long, Long> pendiente : pendientes.entrySet()) {
+            if (!terminadas.contains(pendiente.getKey())) {
+                registro = pendiente.getKey() - 1;
+                posicion = pendiente.getValue();
+                break;
+            }
+        }
+
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_UPSERT)) {
+            st.setString(1, huella);
+            st.setString(2, origen);
+            st.setLong(3, Math.max(registro, registroInicial));
+            st.setLong(4, Math.max(posicion, posicionInicial));
+            st.setInt(5, lotes + 1);
+            st.executeUpdate();
+        }
+        Conexion.getInstance().alConfirmar(() -> terminar(terminadas));
+    }
+
+    /**
+     * Quita de los pendientes las filas de un lote ya confirmado.
+     * @param terminadas los números de registro del lote.
+     */
+    private synchronized void terminar(Set<Long> terminadas) {
+        for (Long registro : terminadas) {
+            pendientes.remove(registro);
+        }
+        lotes++;
+    }
+
+    /**
+     * Elimina el punto de control cuando el archivo se ha importado por completo.
+     */
+    public void eliminar() {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             PreparedStatement st = conn.prepareStatement(SQL_DELETE)) {
+            st.setString(1, huella);
+            st.executeUpdate();
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "No se pudo eliminar el punto de control de " + origen, e);
+        }
+    }
+
+    /**
+     * Calcula la huella de un archivo a partir de su tamaño y de sus primeros y últimos bytes,
+     * para no tener que leerlo entero.
+     * @param archivo el archivo.
+     * @return la huella en hexadecimal.
+     * @throws IOException si no se puede leer el archivo.
+     */
+    static String huella(File archivo) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(archivo, "r")) {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            long tamano = raf.length();
+            sha.update(Long.toString(tamano).getBytes());
+
+            byte[] buffer = new byte[(int) Math.min(BYTES_HUELLA, tamano)];
+            raf.readFully(buffer);
+            sha.update(buffer);
+            if (tamano > BYTES_HUELLA) {
+                raf.seek(Math.max(BYTES_HUELLA, tamano - BYTES_HUELLA));
+                buffer = new byte[(int) (tamano - raf.getFilePointer())];
+                raf.readFully(buffer);
+                sha.update(buffer);
+            }
+            return HexFormat.of().formatHex(sha.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return origen + " (registro " + registroInicial + ", posición " + posicionInicial + ")";
+    }
+}
@@ -0,0 +1,27 @@
+package org.dam2.adp.cinesphere.util.importer;
+
+/**
+ * Registro crudo leído de un CSV de películas, con solo las columnas que usa el importador.
+ *
+ * @param numero               el número de registro dentro del archivo.
+ * @param titulo               columna Title.
+ * @param directores           columna Director.
+ * @param actores              columna Stars.
+ * @param rating               columna IMDb-Rating.
+ * @param generos              columna Category.
+ * @param duracion             columna Duration.
+ * @param clasificacion        columna Censor-board-rating.
+ * @param year                 columna ReleaseYear.
+ * @param completo             true si el registro tiene tantos campos como la cabecera.
+ */
+public record RegistroCsv(long numero,
+                          String titulo,
+                          String directores,
+                          String actores,
+                          String rating,
+                          String generos,
+                          String duracion,
+                          String clasificacion,
+                          String year,
+                          boolean completo) {
+}
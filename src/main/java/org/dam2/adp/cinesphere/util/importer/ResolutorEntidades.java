@@ -0,0 +1,196 @@
+package org.dam2.adp.cinesphere.util.importer;
+
+import org.dam2.adp.cinesphere.DAO.*;
+import org.dam2.adp.cinesphere.model.*;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Resuelve los directores, actores, géneros y clasificaciones de las películas importadas
+ * a sus entidades persistidas.
+ * <p>
+ * Al crearse toma cada tabla diccionario completa de {@link CacheReferencias}, que solo la lee de
+ * la base de datos la primera vez, de modo que durante la importación no se hacen búsquedas por
+ * nombre. Los nombres nuevos de cada lote se insertan juntos con INSERT de varias filas, y los
+ * DAOs los registran en la caché compartida al confirmarse el lote.
+ * <p>
+ * Las entidades creadas dentro de una transacción quedan pendientes hasta {@link #confirmar()};
+ * si la transacción se deshace, {@link #descartar()} las olvida.
+ */
+public class ResolutorEntidades {
+
+    private static final Logger logger = Logger.getLogger(ResolutorEntidades.class.getName());
+
+    /** Clasificación que se asigna a las películas sin clasificación. */
+    public static final String CLASIFICACION_POR_DEFECTO = "Not Rated";
+
+    private final ClasificacionDAO clasificacionDAO = new ClasificacionDAO();
+
+    private final Diccionario<Director> directores;
+    private final Diccionario<Actor> actores;
+    private final Diccionario<Genero> generos;
+
+    private final Map<String, Clasificacion> clasificaciones = new ConcurrentHashMap<>();
+    private final Set<String> clasificacionesPendientes = new HashSet<>();
+
+    /**
+     * Crea el resolutor precargando las tablas diccionario.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    public ResolutorEntidades() throws SQLException {
+        DirectorDAO directorDAO = new DirectorDAO();
+        ActorDAO actorDAO = new ActorDAO();
+        GeneroDAO generoDAO = new GeneroDAO();
+
+        long inicio = System.currentTimeMillis();
+        directores = new Diccionario<>(CacheReferencias.directores().todos(), Director::getNombreDirector, directorDAO::insertLote);
+        actores = new Diccionario<>(CacheReferencias.actores().todos(), Actor::getNombreActor, actorDAO::insertLote);
+        generos = new Diccionario<>(CacheReferencias.generos().todos(), Genero::getNombreGenero, generoDAO::insertLote);
+        for (Clasificacion c : CacheReferencias.clasificaciones().todos()) {
+            clasificaciones.putIfAbsent(c.getNombreClasificacion(), c);
+        }
+        logger.log(Level.INFO, "Diccionarios precargados en " + (System.currentTimeMillis() - inicio) + " ms: "
+                + directores.tamano() + " directores, " + actores.tamano() + " actores, "
+                + generos.tamano() + " géneros, " + clasificaciones.size() + " clasificaciones.");
+    }
+
+    /**
+     * Sustituye la clasificación, los directores, los actores y los géneros de cada película
+     * por las entidades persistidas, insertando en bloque las que todavía no existen.
+     * Debe llamarse dentro de la transacción del lote.
+     * @param peliculas las películas del lote.
+     * @throws SQLException si ocurre un error al acceder a la base de datos.
+     */
+    public void resolver(List<Pelicula> peliculas) throws SQLException {
+        Set<String> clasificacionesNuevas = new LinkedHashSet<>();
+        for (Pelicula p : peliculas) {
+            String nombre = nombreClasificacion(p);
+            if (!clasificaciones.containsKey(nombre)) clasificacionesNuevas.add(nombre);
+        }
+        if (!clasificacionesNuevas.isEmpty()) {
+            clasificacionDAO.insertLote(clasificacionesNuevas);
+            for (String nombre : clasificacionesNuevas) clasificaciones.put(nombre, new Clasificacion(nombre));
+            clasificacionesPendientes.addAll(clasificacionesNuevas);
+        }
+
+        directores.crearFaltantes(peliculas, Pelicula::getDirectores);
+        actores.crearFaltantes(peliculas, Pelicula::getActores);
+        generos.crearFaltantes(peliculas, Pelicula::getGeneros);
+
+        for (Pelicula p : peliculas) {
+            p.setClasificacion(clasificaciones.get(nombreClasificacion(p)));
+            p.setDirectores(directores.resolver(p.getDirectores()));
+            p.setActores(actores.resolver(p.getActores()));
+            p.setGeneros(generos.resolver(p.getGeneros()));
+        }
+    }
+
+    /**
+     * Da por persistidas las entidades creadas desde la última confirmación.
+     */
+    public void confirmar() {
+        clasificacionesPendientes.clear();
+        directores.confirmar();
+        actores.confirmar();
+        generos.confirmar();
+    }
+
+    /**
+     * Olvida las entidades creadas desde la última confirmación, porque su transacción se ha deshecho.
+     */
+    public void descartar() {
+        clasificacionesPendientes.forEach(clasificaciones::remove);
+        clasificacionesPendientes.clear();
+        directores.descartar();
+        actores.descartar();
+        generos.descartar();
+    }
+
+    /**
+     * Obtiene el nombre de clasificación de una película, usando el valor por defecto si no tiene.
+     */
+    private static String nombreClasificacion(Pelicula p) {
+        String nombre = p.getClasificacion() == null ? null : p.getClasificacion().getNombreClasificacion();
+        return nombre == null || nombre.isBlank() ? CLASIFICACION_POR_DEFECTO : nombre;
+    }
+
+    /**
+     * Inserción en bloque de nombres nuevos que devuelve las entidades con su ID.
+     * @param <E> el tipo de entidad.
+     */
+    @FunctionalInterface
+    private interface InsercionLote<E> {
+        List<E> insertar(Collection<String> nombres) throws SQLException;
+    }
+
+    /**
+     * Caché nombre → entidad de una tabla diccionario.
+     * @param <E> el tipo de entidad.
+     */
+    private static final class Diccionario<E> {
+        private final Map<String, E> porNombre = new ConcurrentHashMap<>();
+        private final Set<String> pendientes = new HashSet<>();
+        private final Function<E, String> nombre;
+        private final InsercionLote<E> insercion;
+
+        Diccionario(List<E> existentes, Function<E, String> nombre, InsercionLote<E> insercion) {
+            this.nombre = nombre;
+            this.insercion = insercion;
+            for (E e : existentes) {
+                porNombre.putIfAbsent(nombre.apply(e), e);
+            }
+        }
+
+        int tamano() {
+            return porNombre.size();
+        }
+
+        /**
+         * Inserta de una vez los nombres del lote que aún no existen.
+         */
+        void crearFaltantes(List<Pelicula> peliculas, Function<Pelicula, List<E>> entidades) throws SQLException {
+            Set<String> nuevos = new LinkedHashSet<>();
+            for (Pelicula p : peliculas) {
+                for (E e : entidades.apply(p)) {
+                    String n = nombre.apply(e);
+                    if (!porNombre.containsKey(n)) nuevos.add(n);
+                }
+            }
+            if (nuevos.isEmpty()) return;
+            for (E creada : insercion.insertar(nuevos)) {
+                String n = nombre.apply(creada);
+                porNombre.put(n, creada);
+                pendientes.add(n);
+            }
+        }
+
+        /**
+         * Sustituye las entidades (solo con nombre) por las persistidas.
+         */
+        List<E> resolver(List<E> entidades) throws SQLException {
+            List<E> resueltas = new ArrayList<>(entidades.size());
+            for (E e : entidades) {
+                E persistida = porNombre.get(nombre.apply(e));
+                if (persistida == null) {
+                    throw new SQLException("No se obtuvo el ID de: " + nombre.apply(e));
+                }
+                resueltas.add(persistida);
+            }
+            return resueltas;
+        }
+
+        void confirmar() {
+            pendientes.clear();
+        }
+
+        void descartar() {
+            pendientes.forEach(porNombre::remove);
+            pendientes.clear();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.dam2.adp.cinesphere.DAO;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CursorPaginaTest {
+
+    @Test
+    void codificarYDecodificarConservanElId() {
+        for (int id : new int[]{0, 1, 42, 999, Integer.MAX_VALUE}) {
+            CursorPagina cursor = CursorPagina.decodificar(CursorPagina.despuesDe(id).codificar());
+            assertEquals(id, cursor.getDespuesDe());
+        }
+    }
+
+    @Test
+    void elCursorCodificadoSePuedeUsarEnUnaUrl() {
+        String token = CursorPagina.despuesDe(123456).codificar();
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+        assertFalse(token.contains("123456"), token);
+    }
+
+    @Test
+    void sinCursorEsLaPrimeraPagina() {
+        assertNull(CursorPagina.decodificar(null));
+        assertNull(CursorPagina.decodificar(""));
+    }
+
+    @Test
+    void cursoresNoValidos() {
+        assertThrows(IllegalArgumentException.class, () -> CursorPagina.decodificar("no es base64!"));
+        assertThrows(IllegalArgumentException.class, () -> CursorPagina.decodificar(codificar("B:10")));
+        assertThrows(IllegalArgumentException.class, () -> CursorPagina.decodificar(codificar("A10")));
+        assertThrows(IllegalArgumentException.class, () -> CursorPagina.decodificar(codificar("A:")));
+        assertThrows(IllegalArgumentException.class, () -> CursorPagina.decodificar(codificar("A:diez")));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> CursorPagina.decodificar(codificar("A:99999999999")));
+        assertTrue(e.getMessage().startsWith("Cursor no válido"), e.getMessage());
+    }
+
+    private static String codificar(String plano) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plano.getBytes(StandardCharsets.UTF_8));
+    }
+}
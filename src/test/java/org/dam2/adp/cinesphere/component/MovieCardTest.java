@@ -0,0 +1,90 @@
+package org.dam2.adp.cinesphere.component;
+
+import com.sun.management.ThreadMXBean;
+import org.dam2.adp.cinesphere.model.Genero;
+import org.dam2.adp.cinesphere.model.Pelicula;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MovieCardTest {
+
+    private static final int REPETICIONES = 200;
+
+    @BeforeAll
+    static void iniciarToolkit() {
+        ToolkitFX.iniciar();
+    }
+
+    @Test
+    void bindNoCreaNodosNuevos() throws Exception {
+        ToolkitFX.enHiloFX(() -> {
+            MovieCard card = new MovieCard(pelicula(1, "Alien", "Horror", 8.5));
+            List<?> hijos = List.copyOf(card.getChildren());
+
+            Pelicula otra = pelicula(2, "Up", "Animation", 8.3);
+            card.bind(otra);
+
+            assertSame(otra, card.getPelicula());
+            assertEquals(hijos, card.getChildren());
+            return null;
+        });
+    }
+
+    @Test
+    void bindReservaMuchaMenosMemoriaQueConstruir() throws Exception {
+        ThreadMXBean hilos = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(hilos.isThreadAllocatedMemorySupported(), "La JVM no mide la memoria reservada por hilo");
+        hilos.setThreadAllocatedMemoryEnabled(true);
+
+        Pelicula a = pelicula(1, "Alien", "Horror", 8.5);
+        Pelicula b = pelicula(2, "Up", "Animation", 6.3);
+
+        long[] bytes = ToolkitFX.enHiloFX(() -> {
+            long hilo = Thread.currentThread().getId();
+            MovieCard card = new MovieCard(a);
+            // Calentamiento: carga de clases, imágenes en caché y compilación.
+            for (int i = 0; i < REPETICIONES; i++) {
+                new MovieCard(i % 2 == 0 ? a : b);
+                card.bind(i % 2 == 0 ? b : a);
+            }
+
+            long inicio = hilos.getThreadAllocatedBytes(hilo);
+            for (int i = 0; i < REPETICIONES; i++) {
+                new MovieCard(i % 2 == 0 ? a : b);
+            }
+            long construir = hilos.getThreadAllocatedBytes(hilo) - inicio;
+
+            inicio = hilos.getThreadAllocatedBytes(hilo);
+            for (int i = 0; i < REPETICIONES; i++) {
+                card.bind(i % 2 == 0 ? b : a);
+            }
+            long enlazar = hilos.getThreadAllocatedBytes(hilo) - inicio;
+            return new long[]{construir, enlazar};
+        });
+
+        assertTrue(bytes[1] * 10 < bytes[0],
+                "bind() reservó " + bytes[1] + " bytes y construir " + bytes[0] + " bytes en "
+                        + REPETICIONES + " tarjetas");
+    }
+
+    private static Pelicula pelicula(int id, String titulo, String genero, double rating) {
+        Genero g = new Genero();
+        g.setIdGenero(id);
+        g.setNombreGenero(genero);
+
+        Pelicula p = new Pelicula();
+        p.setIdPelicula(id);
+        p.setTituloPelicula(titulo);
+        p.setYearPelicula(2000 + id);
+        p.setRatingPelicula(rating);
+        p.setGeneros(List.of(g));
+        return p;
+    }
+}
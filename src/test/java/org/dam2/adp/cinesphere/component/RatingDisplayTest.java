@@ -0,0 +1,80 @@
+package org.dam2.adp.cinesphere.component;
+
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RatingDisplayTest {
+
+    @BeforeAll
+    static void iniciarToolkit() {
+        ToolkitFX.iniciar();
+    }
+
+    @Test
+    void estrellasLlenasUnaPorCadaDosPuntos() {
+        assertEquals(0, RatingDisplay.estrellasLlenas(null));
+        assertEquals(0, RatingDisplay.estrellasLlenas(0.0));
+        assertEquals(0, RatingDisplay.estrellasLlenas(1.9));
+        assertEquals(1, RatingDisplay.estrellasLlenas(2.0));
+        assertEquals(3, RatingDisplay.estrellasLlenas(7.5));
+        assertEquals(4, RatingDisplay.estrellasLlenas(9.0));
+        assertEquals(5, RatingDisplay.estrellasLlenas(10.0));
+    }
+
+    @Test
+    void estrellasLlenasFueraDeRango() {
+        assertEquals(0, RatingDisplay.estrellasLlenas(-1.0));
+        assertEquals(5, RatingDisplay.estrellasLlenas(25.0));
+    }
+
+    @Test
+    void setRatingCambiaSoloLasEstrellasNecesarias() throws Exception {
+        ToolkitFX.enHiloFX(() -> {
+            RatingDisplay display = new RatingDisplay(9.0);
+            comprobar(display, 4, 9.0);
+
+            display.setRating(3.0);
+            comprobar(display, 1, 3.0);
+
+            display.setRating(null);
+            comprobar(display, 0, null);
+
+            display.setRating(10.0);
+            comprobar(display, 5, 10.0);
+
+            display.setRating(-1.0);
+            comprobar(display, 0, -1.0);
+
+            display.setRating(6.0);
+            display.setRating(6.0);
+            comprobar(display, 3, 6.0);
+            return null;
+        });
+    }
+
+    /**
+     * Comprueba que exactamente las primeras {@code llenas} estrellas tienen el estilo de llena,
+     * sin duplicados, y el texto de la etiqueta, o que está oculta si {@code rating} es null.
+     */
+    private static void comprobar(RatingDisplay display, int llenas, Double rating) {
+        for (int i = 0; i < 5; i++) {
+            Node estrella = display.getChildren().get(i);
+            long veces = estrella.getStyleClass().stream().filter("strong"::equals).count();
+            assertEquals(i < llenas ? 1 : 0, veces, "estrella " + i);
+        }
+        Label valor = (Label) display.getChildren().get(5);
+        if (rating == null) {
+            assertFalse(valor.isVisible());
+            assertFalse(valor.isManaged());
+        } else {
+            assertTrue(valor.isVisible());
+            assertEquals(String.format("%.1f", rating), valor.getText());
+        }
+    }
+}
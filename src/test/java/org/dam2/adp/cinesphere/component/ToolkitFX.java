@@ -0,0 +1,51 @@
+package org.dam2.adp.cinesphere.component;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arranca el toolkit de JavaFX una sola vez para los tests de componentes y ejecuta código en su hilo.
+ * Los tests se ejecutan sin pantalla con Monocle, configurado en el surefire del pom.
+ */
+final class ToolkitFX {
+
+    private static boolean iniciado;
+
+    private ToolkitFX() {
+    }
+
+    /**
+     * Arranca el toolkit si no estaba arrancado.
+     */
+    static synchronized void iniciar() {
+        if (iniciado) return;
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException e) {
+            // Ya estaba arrancado.
+        }
+        iniciado = true;
+    }
+
+    /**
+     * Ejecuta una tarea en el hilo de JavaFX y espera su resultado.
+     * @param tarea la tarea.
+     * @param <T> el tipo del resultado.
+     * @return el resultado de la tarea.
+     * @throws Exception la excepción que lance la tarea.
+     */
+    static <T> T enHiloFX(Callable<T> tarea) throws Exception {
+        FutureTask<T> futura = new FutureTask<>(tarea);
+        Platform.runLater(futura);
+        try {
+            return futura.get(30, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception causa) throw causa;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.dam2.adp.cinesphere.database;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConexionTest {
+
+    private static final String SQL_INSERT = "INSERT INTO prueba_conexion(id) VALUES (?)";
+
+    @BeforeAll
+    static void conectar() {
+        Conexion.getInstance().connect("config-test.properties");
+    }
+
+    @AfterAll
+    static void desconectar() {
+        Conexion.getInstance().disconnect();
+    }
+
+    @BeforeEach
+    void vaciarTabla() throws SQLException {
+        try (Connection conn = Conexion.getInstance().getConnection(); Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS prueba_conexion (id INTEGER)");
+            st.executeUpdate("DELETE FROM prueba_conexion");
+        }
+    }
+
+    @Test
+    void lasSentenciasDevuelvenLaConexionDelLlamador() throws SQLException {
+        try (Connection conn = Conexion.getInstance().getConnection()) {
+            comprobarPropietaria(conn);
+        }
+        Conexion.getInstance().enTransaccion(() -> {
+            try (Connection conn = Conexion.getInstance().getConnection()) {
+                comprobarPropietaria(conn);
+            }
+            return null;
+        });
+    }
+
+    @Test
+    void noSePuedeCerrarNiConfirmarLaTransaccionDesdeUnaSentencia() throws SQLException {
+        Conexion.getInstance().enTransaccion(() -> {
+            try (Connection conn = Conexion.getInstance().getConnection();
+                 PreparedStatement st = conn.prepareStatement(SQL_INSERT)) {
+                st.setInt(1, 1);
+                st.executeUpdate();
+
+                st.getConnection().close();
+                assertThrows(SQLException.class, () -> st.getConnection().commit());
+
+                st.setInt(1, 2);
+                st.executeUpdate();
+            }
+            return null;
+        });
+        assertEquals(2, contarFilas());
+
+        assertThrows(SQLException.class, () -> Conexion.getInstance().enTransaccion(() -> {
+            try (Connection conn = Conexion.getInstance().getConnection();
+                 PreparedStatement st = conn.prepareStatement(SQL_INSERT)) {
+                st.setInt(1, 3);
+                st.executeUpdate();
+                st.getConnection().close();
+            }
+            throw new SQLException("Fallo forzado");
+        }));
+        assertEquals(2, contarFilas());
+    }
+
+    private static void comprobarPropietaria(Connection conn) throws SQLException {
+        // Sentencia cacheada por el pool, sentencia fuera de la caché y Statement simple.
+        try (PreparedStatement cacheada = conn.prepareStatement(SQL_INSERT);
+             PreparedStatement sinCache = conn.prepareStatement(Conexion.SIN_CACHE + SQL_INSERT);
+             Statement simple = conn.createStatement()) {
+            assertSame(conn, cacheada.getConnection());
+            assertSame(conn, sinCache.getConnection());
+            assertSame(conn, simple.getConnection());
+        }
+    }
+
+    private static int contarFilas() throws SQLException {
+        try (Connection conn = Conexion.getInstance().getConnection();
+             Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM prueba_conexion")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
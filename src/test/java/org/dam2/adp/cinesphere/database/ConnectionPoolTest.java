@@ -0,0 +1,156 @@
+package org.dam2.adp.cinesphere.database;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolTest {
+
+    /** Base de datos en memoria compartida por todas las conexiones del pool mientras alguna siga abierta. */
+    private static final String URL = "jdbc:sqlite:file:pooltest?mode=memory&cache=shared";
+
+    private ConnectionPool pool;
+
+    @AfterEach
+    void cerrarPool() {
+        if (pool != null) pool.close();
+    }
+
+    private ConnectionPool crear(int minimo, int maximo, long esperaMaximaMs) throws SQLException {
+        pool = new ConnectionPool(URL, null, null, List.of(),
+                new PoolConfig(minimo, maximo, esperaMaximaMs, 60_000, 1, 0, 8));
+        return pool;
+    }
+
+    @Test
+    void abreLasConexionesMinimas() throws SQLException {
+        crear(2, 4, 1000);
+        assertEquals(2, pool.getTotalAbiertas());
+        assertEquals(0, pool.getEnUso());
+    }
+
+    @Test
+    void siFallaUnaConexionInicialSeCierranLasYaAbiertas() throws SQLException {
+        String url = "jdbc:sqlite:file:pool-arranque?mode=memory&cache=shared";
+        // La primera conexión crea la tabla; la segunda falla porque ya existe.
+        SQLException e = assertThrows(SQLException.class, () -> new ConnectionPool(url, null, null,
+                List.of("CREATE TABLE arranque (id INTEGER)"), new PoolConfig(3, 3, 200, 60_000, 1, 0, 8)));
+        assertTrue(e.getMessage().contains("arranque"), e.getMessage());
+
+        // Una base de datos en memoria compartida desaparece al cerrarse su última conexión.
+        try (Connection c = DriverManager.getConnection(url);
+             ResultSet rs = c.getMetaData().getTables(null, null, "arranque", null)) {
+            assertFalse(rs.next(), "La primera conexión sigue abierta");
+        }
+    }
+
+    @Test
+    void agotadoEsperaElTiempoConfiguradoYFalla() throws SQLException {
+        crear(0, 2, 200);
+        try (Connection a = pool.getConnection(); Connection b = pool.getConnection()) {
+            assertEquals(2, pool.getEnUso());
+            long inicio = System.nanoTime();
+            SQLException e = assertThrows(SQLException.class, pool::getConnection);
+            long esperaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            assertTrue(e.getMessage().startsWith("Tiempo de espera agotado"), e.getMessage());
+            assertTrue(esperaMs >= 150, "Esperó solo " + esperaMs + " ms");
+            assertEquals(2, pool.getTotalAbiertas());
+        }
+    }
+
+    @Test
+    void cerrarDevuelveLaConexionYSeReutiliza() throws SQLException {
+        crear(0, 1, 200);
+        String fisica;
+        try (Connection c = pool.getConnection()) {
+            fisica = c.toString();
+            assertEquals(1, pool.getEnUso());
+        }
+        assertEquals(0, pool.getEnUso());
+        assertEquals(1, pool.getTotalAbiertas());
+
+        try (Connection c = pool.getConnection()) {
+            assertEquals(fisica, c.toString());
+        }
+        assertEquals(1, pool.getTotalAbiertas());
+    }
+
+    @Test
+    void quienEsperaRecibeLaConexionDevuelta() throws Exception {
+        crear(0, 1, 5000);
+        Connection prestada = pool.getConnection();
+        CompletableFuture<String> espera = CompletableFuture.supplyAsync(() -> {
+            try (Connection c = pool.getConnection()) {
+                return c.toString();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(espera.isDone());
+
+        String fisica = prestada.toString();
+        prestada.close();
+        assertEquals(fisica, espera.get(5, TimeUnit.SECONDS));
+        assertEquals(1, pool.getTotalAbiertas());
+    }
+
+    @Test
+    void laConexionDevueltaNoSePuedeUsar() throws SQLException {
+        crear(0, 1, 200);
+        Connection c = pool.getConnection();
+        c.close();
+        assertTrue(c.isClosed());
+        assertThrows(SQLException.class, c::createStatement);
+
+        // Un segundo close() no la devuelve otra vez.
+        c.close();
+        try (Connection a = pool.getConnection()) {
+            assertThrows(SQLException.class, pool::getConnection);
+        }
+    }
+
+    @Test
+    void alDevolverseSeDeshaceLaTransaccionPendiente() throws SQLException {
+        crear(1, 1, 200);
+        try (Connection c = pool.getConnection(); Statement st = c.createStatement()) {
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS prueba (id INTEGER)");
+            st.executeUpdate("DELETE FROM prueba");
+            c.setAutoCommit(false);
+            st.executeUpdate("INSERT INTO prueba VALUES (1)");
+        }
+        try (Connection c = pool.getConnection();
+             Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM prueba")) {
+            assertTrue(c.getAutoCommit());
+            assertTrue(rs.next());
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    void elPoolCerradoNoPrestaConexiones() throws SQLException {
+        crear(1, 2, 200);
+        Connection prestada = pool.getConnection();
+        pool.close();
+        assertThrows(SQLException.class, pool::getConnection);
+
+        // La conexión prestada se cierra al devolverse.
+        prestada.close();
+        assertEquals(0, pool.getTotalAbiertas());
+        pool = null;
+    }
+}
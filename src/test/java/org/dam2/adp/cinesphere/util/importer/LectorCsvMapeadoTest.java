@@ -0,0 +1,247 @@
+package org.dam2.adp.cinesphere.util.importer;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara lo que lee {@link LectorCsvMapeado} con lo que lee commons-csv, configurado como en
+ * {@code CsvImporter}, sobre archivos pequeños con los casos difíciles del formato.
+ */
+class LectorCsvMapeadoTest {
+
+    private static final String CABECERA = "Title,Director,Stars,IMDb-Rating\n";
+
+    /** Columnas pedidas: con otras mayúsculas, en otro orden y una que no existe. */
+    private static final List<String> COLUMNAS = List.of("stars", "TITLE", "imdb-rating", "Director", "No-Existe");
+
+    @TempDir
+    Path directorio;
+
+    /** Valores de un registro y si tiene tantos campos como la cabecera. */
+    private record Fila(List<String> valores, boolean completo) {
+    }
+
+    @Test
+    void camposSimples() throws IOException {
+        comparar(CABECERA
+                + "Alien,Ridley Scott,Sigourney Weaver,8.5\n"
+                + "  Up  , Pete Docter ,Ed Asner, 8.3 \n");
+    }
+
+    @Test
+    void comasDentroDeComillas() throws IOException {
+        comparar(CABECERA
+                + "\"Good, Bad and Ugly\",Sergio Leone,\"Eastwood, Wallach, Van Cleef\",8.8\n");
+    }
+
+    @Test
+    void comillasDobladas() throws IOException {
+        comparar(CABECERA
+                + "\"The \"\"Burbs\"\"\",Joe Dante,\"\"\"Tom\"\" Hanks\",6.9\n"
+                + "\"\",\"\"\"\",x,1\n");
+    }
+
+    @Test
+    void saltosDeLineaDentroDeComillas() throws IOException {
+        comparar(CABECERA
+                + "\"Línea 1\nLínea 2\",Dir,\"Uno\r\nDos\",7.0\n"
+                + "Otra,Dir2,Tres,6.0\n");
+    }
+
+    @Test
+    void finalesDeLineaCrlf() throws IOException {
+        comparar("Title,Director,Stars,IMDb-Rating\r\n"
+                + "Amélie,Jean-Pierre Jeunet,Audrey Tautou,8.3\r\n"
+                + "\"Año, uno\",Dir,\"A\r\nB\",7.1\r\n");
+    }
+
+    @Test
+    void marcaDeOrdenDeBytes() throws IOException {
+        comparar("\uFEFF" + CABECERA + "Alien,Ridley Scott,Sigourney Weaver,8.5\n");
+        LectorCsvMapeado lector = LectorCsvMapeado.abrir(escribir("\uFEFF" + CABECERA), COLUMNAS);
+        assertEquals("Title", lector.getCabeceras().get(0));
+    }
+
+    @Test
+    void lineasVaciasIgnoradas() throws IOException {
+        comparar(CABECERA
+                + "\n"
+                + "Alien,Ridley Scott,Sigourney Weaver,8.5\n"
+                + "\n\r\n\n"
+                + "Up,Pete Docter,Ed Asner,8.3\n"
+                + "\n");
+    }
+
+    @Test
+    void sinSaltoDeLineaFinal() throws IOException {
+        comparar(CABECERA + "Alien,Ridley Scott,Sigourney Weaver,8.5");
+    }
+
+    @Test
+    void registrosIncompletosComoEnCommonsCsv() throws IOException {
+        List<Fila> filas = comparar(CABECERA
+                + "Corto,Dir\n"
+                + "Largo,Dir,Actor,7.0,sobra\n"
+                + "Justo,Dir,Actor,7.0\n");
+        assertFalse(filas.get(0).completo());
+        assertNull(filas.get(0).valores().get(0));
+        assertFalse(filas.get(1).completo());
+        assertTrue(filas.get(2).completo());
+    }
+
+    @Test
+    void dividirNoCortaUnCampoConSaltosDeLinea() throws IOException {
+        // Un campo entre comillas con muchos saltos de línea ocupa la mitad central del archivo,
+        // de modo que el punto ideal de cada corte cae dentro de él.
+        StringBuilder csv = new StringBuilder(CABECERA);
+        for (int i = 0; i < 20; i++) {
+            csv.append("Antes ").append(i).append(",Dir,Actor,5.0\n");
+        }
+        csv.append("\"Largo\",Dir,\"");
+        for (int i = 0; i < 200; i++) {
+            csv.append("actor ").append(i).append(",\n");
+        }
+        csv.append("\",9.9\n");
+        for (int i = 0; i < 20; i++) {
+            csv.append("Después ").append(i).append(",Dir,Actor,6.0\n");
+        }
+        Path archivo = escribir(csv.toString());
+        List<Fila> esperadas = conCommonsCsv(archivo);
+        assertEquals(41, esperadas.size());
+
+        LectorCsvMapeado lector = LectorCsvMapeado.abrir(archivo, COLUMNAS);
+        for (int partes = 2; partes <= 6; partes++) {
+            List<LectorCsvMapeado.Region> regiones = lector.dividir(partes);
+            assertTrue(regiones.size() > 1, "Se esperaban varias regiones con " + partes + " partes");
+            assertEquals(esperadas, conLector(archivo, partes), "Dividido en " + partes + " partes");
+        }
+    }
+
+    @Test
+    void numeracionContinuaEntreRegiones() throws IOException {
+        StringBuilder csv = new StringBuilder(CABECERA);
+        for (int i = 0; i < 50; i++) {
+            csv.append(i % 7 == 0 ? "\"Con\nsalto " : "Peli ").append(i).append(i % 7 == 0 ? "\"" : "")
+                    .append(",Dir,Actor,").append(i % 10).append(".0\n");
+            if (i % 9 == 0) csv.append("\n");
+        }
+        Path archivo = escribir(csv.toString());
+        LectorCsvMapeado lector = LectorCsvMapeado.abrir(archivo, COLUMNAS);
+
+        List<LectorCsvMapeado.Region> regiones = lector.dividir(4);
+        assertEquals(4, regiones.size());
+        long esperado = 0;
+        for (LectorCsvMapeado.Region region : regiones) {
+            try (region) {
+                assertEquals(esperado, region.getNumero(), "Número inicial de " + region);
+                while (region.hasNext()) {
+                    String[] valores = region.next();
+                    esperado++;
+                    assertEquals(esperado, region.getNumero());
+                    int i = (int) esperado - 1;
+                    assertEquals((i % 7 == 0 ? "Con\nsalto " : "Peli ") + i, valores[1]);
+                }
+            }
+        }
+        assertEquals(50, esperado);
+    }
+
+    @Test
+    void desdeContinuaEnElRegistroIndicado() throws IOException {
+        Path archivo = escribir(CABECERA
+                + "Uno,D,A,1\n"
+                + "\"Dos\nsigue\",D,A,2\n"
+                + "Tres,D,A,3\n");
+        LectorCsvMapeado lector = LectorCsvMapeado.abrir(archivo, COLUMNAS);
+        long inicioTercero;
+        try (LectorCsvMapeado.Region region = lector.desde(0, 0)) {
+            region.next();
+            region.next();
+            inicioTercero = region.getPosicion();
+        }
+        try (LectorCsvMapeado.Region region = lector.desde(inicioTercero, 2)) {
+            assertEquals("Tres", region.next()[1]);
+            assertEquals(3, region.getNumero());
+            assertFalse(region.hasNext());
+        }
+    }
+
+    /**
+     * Escribe el CSV y comprueba que el lector, entero y dividido en varias regiones, devuelve
+     * lo mismo que commons-csv.
+     */
+    private List<Fila> comparar(String csv) throws IOException {
+        Path archivo = escribir(csv);
+        List<Fila> esperadas = conCommonsCsv(archivo);
+        for (int partes = 1; partes <= 3; partes++) {
+            assertEquals(esperadas, conLector(archivo, partes), "Dividido en " + partes + " partes");
+        }
+        return esperadas;
+    }
+
+    private Path escribir(String csv) throws IOException {
+        return Files.writeString(Files.createTempFile(directorio, "fixture", ".csv"), csv, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lee el archivo con commons-csv como lo hace {@code CsvImporter}, quitando antes la marca de orden de bytes.
+     */
+    private static List<Fila> conCommonsCsv(Path archivo) throws IOException {
+        String texto = Files.readString(archivo, StandardCharsets.UTF_8);
+        if (texto.startsWith("\uFEFF")) texto = texto.substring(1);
+        List<Fila> filas = new ArrayList<>();
+        try (CSVParser parser = CSVFormat.DEFAULT
+                .builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setIgnoreHeaderCase(true)
+                .setTrim(true)
+                .build()
+                .parse(new StringReader(texto))) {
+            for (CSVRecord registro : parser) {
+                List<String> valores = new ArrayList<>();
+                for (String columna : COLUMNAS) {
+                    valores.add(registro.isSet(columna) ? registro.get(columna) : null);
+                }
+                filas.add(new Fila(valores, registro.isConsistent()));
+            }
+        }
+        return filas;
+    }
+
+    /**
+     * Lee el archivo con {@link LectorCsvMapeado} dividido en regiones, comprobando que la numeración
+     * de registros sigue de una región a la siguiente.
+     */
+    private static List<Fila> conLector(Path archivo, int partes) throws IOException {
+        LectorCsvMapeado lector = LectorCsvMapeado.abrir(archivo, COLUMNAS);
+        List<Fila> filas = new ArrayList<>();
+        for (LectorCsvMapeado.Region region : lector.dividir(partes)) {
+            try (region) {
+                while (region.hasNext()) {
+                    String[] valores = region.next();
+                    filas.add(new Fila(Arrays.asList(valores), region.isCompleto()));
+                    assertEquals(filas.size(), region.getNumero(), "Número de registro en " + region);
+                }
+            }
+        }
+        return filas;
+    }
+}
@@ -0,0 +1,111 @@
+package org.dam2.adp.cinesphere.util.importer;
+
+import org.dam2.adp.cinesphere.database.Conexion;
+import org.dam2.adp.cinesphere.database.DatabaseSchema;
+import org.dam2.adp.cinesphere.model.Pelicula;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PuntoControlTest {
+
+    @TempDir
+    Path directorio;
+
+    private File archivo;
+    private PuntoControl punto;
+
+    @BeforeAll
+    static void conectar() {
+        Conexion.getInstance().connect("config-test.properties");
+        DatabaseSchema.inicializar();
+    }
+
+    @AfterAll
+    static void desconectar() {
+        Conexion.getInstance().disconnect();
+    }
+
+    /**
+     * Abre el punto de control de un archivo nuevo y registra como leídos los registros 1 a 4,
+     * el registro n en la posición n * 100.
+     */
+    @BeforeEach
+    void leerCuatroRegistros(TestInfo test) throws IOException, SQLException {
+        // El contenido cambia en cada test para que su huella, y por tanto su punto de control, sea otro.
+        archivo = Files.writeString(directorio.resolve("peliculas.csv"),
+                "Title\nUno\nDos\nTres\nCuatro\n# " + test.getDisplayName() + "\n").toFile();
+        punto = PuntoControl.abrir(archivo);
+        for (long registro = 1; registro <= 4; registro++) {
+            punto.registrar(registro, registro * 100);
+        }
+    }
+
+    @Test
+    void laFronteraEsElPrimerRegistroPendiente() throws Exception {
+        confirmar(1, 2);
+        comprobarGuardado(2, 300);
+
+        confirmar(4);
+        comprobarGuardado(2, 300);
+
+        confirmar(3);
+        // Todo terminado: se reanuda repitiendo el último registro leído.
+        comprobarGuardado(3, 400);
+    }
+
+    @Test
+    void elReintentoFilaAFilaNoSaltaFilasSinEscribir() throws Exception {
+        // El lote 1-3 guarda su frontera y luego falla: la transacción se deshace.
+        assertThrows(SQLException.class, () -> Conexion.getInstance().enTransaccion(() -> {
+            punto.confirmar(List.of(fila(1), fila(2), fila(3)));
+            throw new SQLException("Fallo forzado tras confirmar");
+        }));
+        comprobarGuardado(0, 0);
+
+        // Reintento fila a fila: cada confirmación solo puede avanzar hasta la siguiente fila sin reintentar.
+        confirmar(1);
+        comprobarGuardado(1, 200);
+
+        punto.completar(2);
+        confirmar(3);
+        comprobarGuardado(3, 400);
+    }
+
+    private void confirmar(long... registros) throws SQLException {
+        List<FilaImportacion> lote = Arrays.stream(registros).mapToObj(PuntoControlTest::fila).toList();
+        Conexion.getInstance().enTransaccion(() -> {
+            punto.confirmar(lote);
+            return null;
+        });
+    }
+
+    /**
+     * Comprueba el punto de control guardado, tal como lo vería una importación que se reanudara ahora.
+     */
+    private void comprobarGuardado(long registro, long posicion) throws IOException, SQLException {
+        PuntoControl guardado = PuntoControl.abrir(archivo);
+        assertEquals(registro, guardado.getRegistroInicial(), "registro");
+        assertEquals(posicion, guardado.getPosicionInicial(), "posición");
+    }
+
+    private static FilaImportacion fila(long registro) {
+        Pelicula pelicula = new Pelicula();
+        pelicula.setTituloPelicula("Película " + registro);
+        return new FilaImportacion(registro, pelicula);
+    }
+}